@@ -0,0 +1,107 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * <p>Clase para generar textos sintéticos para las mediciones.</p>
+ *
+ * <p>Las palabras se forman con sílabas del español, algunas con acentos y
+ * eñes, y se eligen con una distribución de Zipf: la <i>i</i>-ésima palabra
+ * del vocabulario aparece con probabilidad proporcional a 1/<i>i</i>, como
+ * en los textos reales. Con la misma semilla siempre se genera el mismo
+ * texto, para que las mediciones de distintas ejecuciones sean
+ * comparables.</p>
+ */
+public class CorpusSintetico {
+
+    /* Las sílabas con las que se forman las palabras. */
+    private static final String[] SILABAS = {
+        "la", "de", "que", "el", "en", "los", "se", "del", "las", "por",
+        "un", "con", "no", "una", "su", "para", "es", "al", "lo", "como",
+        "más", "pe", "ro", "sus", "le", "ya", "o", "fue", "ta", "ha",
+        "sí", "me", "qué", "ción", "ni", "ño", "ca", "mi", "tá", "ri"
+    };
+
+    /* El vocabulario. */
+    private String[] vocabulario;
+    /* La distribución acumulada de las palabras del vocabulario. */
+    private double[] acumulada;
+    /* El generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Construye un generador con el tamaño de vocabulario y la semilla
+     * recibidos.
+     * @param palabras el número de palabras distintas del vocabulario.
+     * @param semilla la semilla del generador.
+     */
+    public CorpusSintetico(int palabras, long semilla) {
+        random = new Random(semilla);
+        vocabulario = new String[palabras];
+        acumulada = new double[palabras];
+        for (int i = 0; i < palabras; i++) {
+            vocabulario[i] = palabra(i);
+            acumulada[i] = (i == 0 ? 0 : acumulada[i - 1]) + 1.0 / (i + 1);
+        }
+    }
+
+    /**
+     * Regresa una palabra elegida con la distribución de Zipf.
+     * @return una palabra del vocabulario.
+     */
+    public String siguiente() {
+        double x = random.nextDouble() * acumulada[acumulada.length - 1];
+        int a = 0, b = acumulada.length - 1;
+        while (a < b) {
+            int m = (a + b) >>> 1;
+            if (acumulada[m] < x)
+                a = m + 1;
+            else
+                b = m;
+        }
+        return vocabulario[a];
+    }
+
+    /**
+     * Escribe en un archivo un texto de al menos el número de bytes
+     * recibido, en renglones de doce palabras.
+     * @param archivo el archivo destino.
+     * @param bytes el tamaño mínimo del texto.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public void escribe(File archivo, long bytes) throws IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                 new FileOutputStream(archivo), StandardCharsets.UTF_8))) {
+            long escritos = 0;
+            while (escritos < bytes) {
+                StringBuilder renglon = new StringBuilder();
+                for (int i = 0; i < 12; i++) {
+                    if (i > 0)
+                        renglon.append(i % 5 == 4 ? ", " : " ");
+                    renglon.append(siguiente());
+                }
+                renglon.append(".\n");
+                String s = renglon.toString();
+                out.write(s);
+                escritos += s.getBytes(StandardCharsets.UTF_8).length;
+            }
+        }
+    }
+
+    /* Forma la i-ésima palabra del vocabulario con sílabas. */
+    private static String palabra(int i) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append(SILABAS[i % SILABAS.length]);
+            i /= SILABAS.length;
+        } while (i > 0);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Mediciones de {@link ArbolRojinegro} y {@link ArbolAVL}.</p>
+ *
+ * <p>Se miden la construcción de un árbol con <i>n</i> enteros aleatorios y
+ * la búsqueda de todos ellos en un árbol ya construido.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MedicionArboles {
+
+    /** El número de elementos. */
+    @Param({ "1000", "100000" })
+    public int n;
+
+    /* Los elementos, en orden aleatorio. */
+    private Integer[] valores;
+    /* Un árbol rojinegro con los elementos. */
+    private ArbolRojinegro<Integer> rojinegro;
+    /* Un árbol AVL con los elementos. */
+    private ArbolAVL<Integer> avl;
+
+    /**
+     * Genera los elementos y los árboles donde se buscan.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(42);
+        valores = new Integer[n];
+        for (int i = 0; i < n; i++)
+            valores[i] = random.nextInt();
+        rojinegro = rojinegroAgrega();
+        avl = avlAgrega();
+    }
+
+    /**
+     * Construye un árbol rojinegro con los elementos.
+     * @return el árbol.
+     */
+    @Benchmark public ArbolRojinegro<Integer> rojinegroAgrega() {
+        ArbolRojinegro<Integer> arbol = new ArbolRojinegro<Integer>();
+        for (Integer v : valores)
+            arbol.agrega(v);
+        return arbol;
+    }
+
+    /**
+     * Construye un árbol AVL con los elementos.
+     * @return el árbol.
+     */
+    @Benchmark public ArbolAVL<Integer> avlAgrega() {
+        ArbolAVL<Integer> arbol = new ArbolAVL<Integer>();
+        for (Integer v : valores)
+            arbol.agrega(v);
+        return arbol;
+    }
+
+    /**
+     * Busca todos los elementos en el árbol rojinegro.
+     * @return cuántos se encontraron.
+     */
+    @Benchmark public int rojinegroBusca() {
+        int encontrados = 0;
+        for (Integer v : valores)
+            if (rojinegro.busca(v) != null)
+                encontrados++;
+        return encontrados;
+    }
+
+    /**
+     * Busca todos los elementos en el árbol AVL.
+     * @return cuántos se encontraron.
+     */
+    @Benchmark public int avlBusca() {
+        int encontrados = 0;
+        for (Integer v : valores)
+            if (avl.busca(v) != null)
+                encontrados++;
+        return encontrados;
+    }
+}
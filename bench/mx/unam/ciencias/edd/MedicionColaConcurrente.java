@@ -0,0 +1,208 @@
+package mx.unam.ciencias.edd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Mediciones de {@link ColaConcurrente} contra las colas acotadas de
+ * <code>java.util.concurrent</code>.</p>
+ *
+ * <p>Cada grupo tiene tres productores y un consumidor sobre la misma cola,
+ * como las etapas de análisis y el escritor. Ninguno espera, así que muchas
+ * llamadas encuentran la cola llena o vacía y no transfieren nada; por eso
+ * la puntuación de cada método no mide la cola, y lo que hay que comparar
+ * son los contadores {@link Transferencias#metidos} y {@link
+ * Transferencias#sacados}, que sólo cuentan los elementos que sí entraron o
+ * salieron. Los grupos con lote sacan hasta {@link #LOTE} elementos a la
+ * vez, y cada elemento del lote cuenta como una transferencia.</p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MedicionColaConcurrente {
+
+    /** El número máximo de elementos que se sacan a la vez. */
+    public static final int LOTE = 64;
+
+    /* El elemento que se mete a las colas. */
+    private static final Integer ELEMENTO = 42;
+
+    /**
+     * Los elementos que un hilo logró meter o sacar de su cola. JMH reporta
+     * los contadores como operaciones por unidad de tiempo, sumando los de
+     * todos los hilos.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Transferencias {
+
+        /** Los elementos metidos. */
+        public long metidos;
+        /** Los elementos sacados. */
+        public long sacados;
+
+        /**
+         * Reinicia los contadores en cada iteración.
+         */
+        @Setup(Level.Iteration) public void limpia() {
+            metidos = 0;
+            sacados = 0;
+        }
+    }
+
+    /** La capacidad de las colas. */
+    @Param({ "1024" })
+    public int capacidad;
+
+    /* Las colas. */
+    private ColaConcurrente<Integer> colaConcurrente;
+    private ArrayBlockingQueue<Integer> arreglo;
+    private LinkedBlockingQueue<Integer> ligada;
+    /* Donde se sacan los lotes. */
+    private Cola<Integer> lote;
+    private List<Integer> loteLista;
+
+    /**
+     * Construye las colas del grupo.
+     */
+    @Setup public void prepara() {
+        colaConcurrente = new ColaConcurrente<Integer>(capacidad);
+        arreglo = new ArrayBlockingQueue<Integer>(capacidad);
+        ligada = new LinkedBlockingQueue<Integer>(capacidad);
+        lote = new Cola<Integer>();
+        loteLista = new ArrayList<Integer>(LOTE);
+    }
+
+    /**
+     * Intenta meter un elemento a la {@link ColaConcurrente}, y lo cuenta
+     * si entró.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("colaConcurrente") @GroupThreads(3)
+    public void colaConcurrenteMete(Transferencias t) {
+        if (colaConcurrente.ofrece(ELEMENTO))
+            t.metidos++;
+    }
+
+    /**
+     * Intenta sacar un elemento de la {@link ColaConcurrente}, y lo cuenta
+     * si salió.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("colaConcurrente") @GroupThreads(1)
+    public void colaConcurrenteSaca(Transferencias t) {
+        if (colaConcurrente.intentaSacar() != null)
+            t.sacados++;
+    }
+
+    /**
+     * Intenta meter un elemento a la {@link ColaConcurrente}, y lo cuenta
+     * si entró.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("colaConcurrenteLote") @GroupThreads(3)
+    public void colaConcurrenteLoteMete(Transferencias t) {
+        if (colaConcurrente.ofrece(ELEMENTO))
+            t.metidos++;
+    }
+
+    /**
+     * Saca un lote de la {@link ColaConcurrente}, y cuenta sus elementos.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("colaConcurrenteLote") @GroupThreads(1)
+    public void colaConcurrenteLoteSaca(Transferencias t) {
+        int n = colaConcurrente.sacaTodos(lote, LOTE);
+        while (!lote.esVacia())
+            lote.saca();
+        t.sacados += n;
+    }
+
+    /**
+     * Intenta meter un elemento a la <code>ArrayBlockingQueue</code>,
+     * y lo cuenta si entró.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("arrayBlockingQueue") @GroupThreads(3)
+    public void arrayBlockingQueueMete(Transferencias t) {
+        if (arreglo.offer(ELEMENTO))
+            t.metidos++;
+    }
+
+    /**
+     * Intenta sacar un elemento de la <code>ArrayBlockingQueue</code>,
+     * y lo cuenta si salió.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("arrayBlockingQueue") @GroupThreads(1)
+    public void arrayBlockingQueueSaca(Transferencias t) {
+        if (arreglo.poll() != null)
+            t.sacados++;
+    }
+
+    /**
+     * Intenta meter un elemento a la <code>ArrayBlockingQueue</code>,
+     * y lo cuenta si entró.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("arrayBlockingQueueLote") @GroupThreads(3)
+    public void arrayBlockingQueueLoteMete(Transferencias t) {
+        if (arreglo.offer(ELEMENTO))
+            t.metidos++;
+    }
+
+    /**
+     * Saca un lote de la <code>ArrayBlockingQueue</code>, y cuenta sus
+     * elementos.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("arrayBlockingQueueLote") @GroupThreads(1)
+    public void arrayBlockingQueueLoteSaca(Transferencias t) {
+        int n = arreglo.drainTo(loteLista, LOTE);
+        loteLista.clear();
+        t.sacados += n;
+    }
+
+    /**
+     * Intenta meter un elemento a la <code>LinkedBlockingQueue</code>,
+     * y lo cuenta si entró.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("linkedBlockingQueue") @GroupThreads(3)
+    public void linkedBlockingQueueMete(Transferencias t) {
+        if (ligada.offer(ELEMENTO))
+            t.metidos++;
+    }
+
+    /**
+     * Intenta sacar un elemento de la <code>LinkedBlockingQueue</code>,
+     * y lo cuenta si salió.
+     * @param t los contadores del hilo.
+     */
+    @Benchmark @Group("linkedBlockingQueue") @GroupThreads(1)
+    public void linkedBlockingQueueSaca(Transferencias t) {
+        if (ligada.poll() != null)
+            t.sacados++;
+    }
+}
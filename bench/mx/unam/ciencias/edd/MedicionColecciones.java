@@ -0,0 +1,142 @@
+package mx.unam.ciencias.edd;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Mediciones de {@link Lista}, {@link Cola}, {@link Pila}, {@link
+ * Diccionario} y {@link DiccionarioContador}.</p>
+ *
+ * <p>Cada medición cuenta o agrega las <i>n</i> palabras de un texto
+ * sintético, con un vocabulario de <i>n</i>/4 palabras.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MedicionColecciones {
+
+    /** El número de palabras. */
+    @Param({ "1000", "100000" })
+    public int n;
+
+    /* Las palabras del texto. */
+    private String[] palabras;
+    /* El texto, con las palabras separadas por espacios. */
+    private String texto;
+    /* Una lista con las palabras. */
+    private Lista<String> lista;
+
+    /**
+     * Genera las palabras y la lista a recorrer.
+     */
+    @Setup public void prepara() {
+        CorpusSintetico corpus = new CorpusSintetico(n / 4 + 1, 42);
+        palabras = new String[n];
+        lista = new Lista<String>();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            palabras[i] = corpus.siguiente();
+            lista.agregaFinal(palabras[i]);
+            sb.append(palabras[i]).append(i % 12 == 11 ? '\n' : ' ');
+        }
+        texto = sb.toString();
+    }
+
+    /**
+     * Agrega las palabras al final de una lista nueva.
+     * @return la lista.
+     */
+    @Benchmark public Lista<String> listaAgregaFinal() {
+        Lista<String> l = new Lista<String>();
+        for (String p : palabras)
+            l.agregaFinal(p);
+        return l;
+    }
+
+    /**
+     * Recorre la lista con su iterador.
+     * @return la suma de las longitudes de las palabras.
+     */
+    @Benchmark public int listaRecorre() {
+        int suma = 0;
+        for (String p : lista)
+            suma += p.length();
+        return suma;
+    }
+
+    /**
+     * Mete las palabras a una cola nueva y las saca.
+     * @return la suma de las longitudes de las palabras.
+     */
+    @Benchmark public int colaMeteSaca() {
+        Cola<String> cola = new Cola<String>();
+        for (String p : palabras)
+            cola.mete(p);
+        int suma = 0;
+        while (!cola.esVacia())
+            suma += cola.saca().length();
+        return suma;
+    }
+
+    /**
+     * Mete las palabras a una pila nueva y las saca.
+     * @return la suma de las longitudes de las palabras.
+     */
+    @Benchmark public int pilaMeteSaca() {
+        Pila<String> pila = new Pila<String>();
+        for (String p : palabras)
+            pila.mete(p);
+        int suma = 0;
+        while (!pila.esVacia())
+            suma += pila.saca().length();
+        return suma;
+    }
+
+    /**
+     * Cuenta las palabras en un {@link Diccionario} genérico.
+     * @return el diccionario.
+     */
+    @Benchmark public Diccionario<String, Integer> diccionarioCuenta() {
+        Diccionario<String, Integer> d = new Diccionario<String, Integer>();
+        for (String p : palabras)
+            d.agrega(p, d.contiene(p) ? d.get(p) + 1 : 1);
+        return d;
+    }
+
+    /**
+     * Cuenta las palabras en un {@link DiccionarioContador}.
+     * @return el diccionario.
+     */
+    @Benchmark public DiccionarioContador diccionarioContador() {
+        DiccionarioContador d = new DiccionarioContador();
+        for (String p : palabras)
+            d.incrementa(p);
+        return d;
+    }
+
+    /**
+     * Separa el texto en palabras con un {@link Tokenizador} y las cuenta en
+     * un {@link DiccionarioContador}, como lo hace el análisis de un archivo.
+     * @return el diccionario.
+     */
+    @Benchmark public DiccionarioContador tokenizaYCuenta() {
+        DiccionarioContador d = new DiccionarioContador();
+        Tokenizador t = new Tokenizador(d::incrementa);
+        t.tokeniza(texto);
+        t.termina();
+        return d;
+    }
+}
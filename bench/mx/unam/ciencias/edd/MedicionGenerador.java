@@ -0,0 +1,81 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Medición de punta a punta de {@link GeneradorHtml}: analizar un archivo
+ * y escribir su página, sin caché.</p>
+ *
+ * <p>Los archivos se generan con {@link CorpusSintetico} en un directorio
+ * temporal que se borra al terminar. El tamaño más grande rebasa {@link
+ * AnalizadorParalelo#UMBRAL_ARCHIVO}, por lo que también se mide el análisis
+ * en paralelo.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MedicionGenerador {
+
+    /** El tamaño del archivo, en megabytes. */
+    @Param({ "1", "8", "48" })
+    public int megabytes;
+
+    /* El directorio temporal. */
+    private File directorio;
+    /* El archivo de entrada. */
+    private File archivo;
+    /* Una salida que descarta los mensajes. */
+    private PrintStream nula;
+
+    /**
+     * Genera el archivo de entrada.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    @Setup public void prepara() throws IOException {
+        directorio = Files.createTempDirectory("proyecto3-medicion").toFile();
+        archivo = new File(directorio, "corpus" + megabytes + ".txt");
+        new CorpusSintetico(50000, 42).escribe(archivo, (long)megabytes << 20);
+        nula = new PrintStream(new OutputStream() {
+                @Override public void write(int b) {}
+                @Override public void write(byte[] b, int i, int n) {}
+            });
+    }
+
+    /**
+     * Borra el directorio temporal.
+     */
+    @TearDown public void limpia() {
+        for (File f : directorio.listFiles())
+            f.delete();
+        directorio.delete();
+    }
+
+    /**
+     * Analiza el archivo y escribe su página.
+     * @return el generador.
+     */
+    @Benchmark public GeneradorHtml generaPagina() {
+        return new GeneradorHtml(archivo.getPath(), directorio.getPath(),
+                                 new GeneradorHtml.Opciones().setSalida(nula));
+    }
+}
@@ -0,0 +1,74 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * <p>Mediciones de los recorridos BFS y DFS de {@link Grafica}.</p>
+ *
+ * <p>La gráfica tiene <i>n</i> vértices: un camino que pasa por todos, para
+ * que sea conexa, más tres aristas aleatorias por vértice. Sólo se miden los
+ * recorridos; la gráfica se construye una vez.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MedicionGrafica {
+
+    /** El número de vértices. */
+    @Param({ "100", "2000" })
+    public int n;
+
+    /* La gráfica. */
+    private Grafica<Integer> grafica;
+
+    /**
+     * Construye la gráfica.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(42);
+        grafica = new Grafica<Integer>();
+        for (int i = 0; i < n; i++)
+            grafica.agrega(i);
+        for (int i = 1; i < n; i++)
+            grafica.conecta(i - 1, i);
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < 3; j++) {
+                int v = random.nextInt(n);
+                if (v != i && !grafica.sonVecinos(i, v))
+                    grafica.conecta(i, v);
+            }
+        }
+    }
+
+    /**
+     * Recorre la gráfica con BFS desde el primer vértice.
+     * @param hoyo el consumidor de los vértices visitados.
+     */
+    @Benchmark public void bfs(Blackhole hoyo) {
+        grafica.bfs(0, v -> hoyo.consume(v.get()));
+    }
+
+    /**
+     * Recorre la gráfica con DFS desde el primer vértice.
+     * @param hoyo el consumidor de los vértices visitados.
+     */
+    @Benchmark public void dfs(Blackhole hoyo) {
+        grafica.dfs(0, v -> hoyo.consume(v.get()));
+    }
+}
@@ -0,0 +1,141 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Mediciones de los ordenamientos de {@link Arreglos} y {@link Lista},
+ * secuenciales y en paralelo.</p>
+ *
+ * <p>Cada medición ordena una copia de un arreglo o una lista de <i>n</i>
+ * enteros aleatorios; la copia es parte de lo que se mide, y {@link #copia}
+ * y {@link #listaCopia} miden sólo la copia. {@link #arraysSort} ordena con
+ * la biblioteca estándar, como referencia.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MedicionOrdenamiento {
+
+    /** El número de elementos. */
+    @Param({ "1000", "100000", "1000000" })
+    public int n;
+
+    /* Los elementos, en orden aleatorio. */
+    private Integer[] valores;
+    /* Los elementos en una lista, en el mismo orden. */
+    private Lista<Integer> lista;
+
+    /**
+     * Genera los elementos.
+     */
+    @Setup public void prepara() {
+        Random random = new Random(42);
+        valores = new Integer[n];
+        for (int i = 0; i < n; i++)
+            valores[i] = random.nextInt();
+        lista = new Lista<Integer>();
+        for (Integer v : valores)
+            lista.agregaFinal(v);
+    }
+
+    /**
+     * Copia el arreglo sin ordenarlo.
+     * @return la copia.
+     */
+    @Benchmark public Integer[] copia() {
+        return valores.clone();
+    }
+
+    /**
+     * Ordena una copia del arreglo con {@link Arreglos#quickSort}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Integer[] quickSort() {
+        Integer[] a = valores.clone();
+        Arreglos.quickSort(a);
+        return a;
+    }
+
+    /**
+     * Ordena una copia del arreglo con {@link Arreglos#quickSortParalelo}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Integer[] quickSortParalelo() {
+        Integer[] a = valores.clone();
+        Arreglos.quickSortParalelo(a);
+        return a;
+    }
+
+    /**
+     * Ordena una copia del arreglo con {@link Arreglos#mergeSort}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Integer[] mergeSort() {
+        Integer[] a = valores.clone();
+        Arreglos.mergeSort(a);
+        return a;
+    }
+
+    /**
+     * Ordena una copia del arreglo con {@link Arreglos#mergeSortParalelo}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Integer[] mergeSortParalelo() {
+        Integer[] a = valores.clone();
+        Arreglos.mergeSortParalelo(a);
+        return a;
+    }
+
+    /**
+     * Ordena una copia del arreglo con {@link java.util.Arrays#sort}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Integer[] arraysSort() {
+        Integer[] a = valores.clone();
+        java.util.Arrays.sort(a);
+        return a;
+    }
+
+    /**
+     * Copia la lista sin ordenarla.
+     * @return la copia.
+     */
+    @Benchmark public Lista<Integer> listaCopia() {
+        return lista.copia();
+    }
+
+    /**
+     * Ordena una copia de la lista con {@link Lista#ordena}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Lista<Integer> listaOrdena() {
+        Lista<Integer> l = lista.copia();
+        Lista.ordena(l);
+        return l;
+    }
+
+    /**
+     * Ordena una copia de la lista con {@link Lista#ordenaParalelo}.
+     * @return la copia ordenada.
+     */
+    @Benchmark public Lista<Integer> listaOrdenaParalelo() {
+        Lista<Integer> l = lista.copia();
+        Lista.ordenaParalelo(l);
+        return l;
+    }
+}
@@ -0,0 +1,15 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre los análisis que produce un {@link
+ * AnalizadorFlujo}.
+ */
+@FunctionalInterface
+public interface AccionAnalisis {
+
+    /**
+     * Realiza una acción sobre un análisis.
+     * @param analisis el análisis sobre el que se realizará la acción.
+     */
+    public void actua(Analisis analisis);
+}
@@ -0,0 +1,17 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * Interfaz para realizar acciones sobre las palabras que encuentra un {@link
+ * Tokenizador}.
+ */
+@FunctionalInterface
+public interface AccionPalabra {
+
+    /**
+     * Realiza una acción sobre una palabra. La vista es la del tokenizador y
+     * se reutiliza para la siguiente palabra, por lo que no se debe guardar
+     * una referencia a ella.
+     * @param palabra la vista con los caracteres de la palabra.
+     */
+    public void actua(VistaPalabra palabra);
+}
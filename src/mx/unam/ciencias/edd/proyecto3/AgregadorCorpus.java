@@ -0,0 +1,113 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Tarea de fork/join para juntar las cuentas de varios archivos.</p>
+ *
+ * <p>Las cuentas de cada archivo se leen del {@link CacheAnalisis}, donde ya
+ * las dejó su análisis, por lo que ningún archivo de entrada se vuelve a
+ * leer. El arreglo de archivos se parte a la mitad hasta llegar a un solo
+ * archivo, y los diccionarios se combinan al regresar, como en un árbol: cada
+ * nivel combina en paralelo los resultados del anterior, siempre vaciando el
+ * diccionario con menos palabras en el que tiene más.</p>
+ */
+public class AgregadorCorpus extends RecursiveTask<DiccionarioContador> {
+
+    /* Las tareas no se serializan; se declara para no tener advertencias. */
+    private static final long serialVersionUID = 1L;
+
+    /* El caché con las cuentas de los archivos. */
+    private CacheAnalisis cache;
+    /* Las rutas canónicas de los archivos. */
+    private String[] rutas;
+    /* El inicio del rango de rutas. */
+    private int inicio;
+    /* El fin del rango de rutas. */
+    private int fin;
+
+    /**
+     * Construye una tarea para juntar las cuentas de las rutas en el rango
+     * [inicio, fin) del arreglo.
+     * @param cache el caché con las cuentas de los archivos.
+     * @param rutas las rutas canónicas de los archivos.
+     * @param inicio el inicio del rango.
+     * @param fin el fin del rango.
+     */
+    public AgregadorCorpus(CacheAnalisis cache, String[] rutas,
+                           int inicio, int fin) {
+        this.cache = cache;
+        this.rutas = rutas;
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    /**
+     * Junta las cuentas de todos los archivos recibidos usando el
+     * <em>pool</em> común de fork/join. Los archivos que no están en el
+     * caché no cuentan, y los que se repiten, aunque sea con rutas escritas
+     * de otra forma, cuentan una sola vez.
+     * @param cache el caché con las cuentas de los archivos.
+     * @param rutas las rutas de los archivos.
+     * @return el diccionario con las cuentas de todos los archivos.
+     * @throws IOException si ocurre un error al leer el caché.
+     */
+    public static DiccionarioContador agrega(CacheAnalisis cache,
+                                             String[] rutas)
+        throws IOException {
+        Conjunto<String> vistas = new Conjunto<String>(rutas.length);
+        String[] distintas = new String[rutas.length];
+        int n = 0;
+        for (String ruta : rutas) {
+            String canonica = new File(ruta).getCanonicalPath();
+            if (vistas.contiene(canonica))
+                continue;
+            vistas.agrega(canonica);
+            distintas[n++] = canonica;
+        }
+        if (n == 0)
+            return new DiccionarioContador();
+        AgregadorCorpus tarea = new AgregadorCorpus(cache, distintas, 0, n);
+        try {
+            return ForkJoinPool.commonPool().invoke(tarea);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Junta las cuentas del rango, partiéndolo en dos si tiene más de un
+     * archivo.
+     * @return el diccionario con las cuentas de los archivos del rango.
+     */
+    @Override protected DiccionarioContador compute() {
+        if (fin - inicio == 1)
+            return cargaArchivo();
+        int medio = inicio + (fin - inicio) / 2;
+        AgregadorCorpus izquierdo = new AgregadorCorpus(cache, rutas, inicio, medio);
+        AgregadorCorpus derecho = new AgregadorCorpus(cache, rutas, medio, fin);
+        izquierdo.fork();
+        DiccionarioContador d = derecho.compute();
+        DiccionarioContador i = izquierdo.join();
+        if (i.getElementos() < d.getElementos()) {
+            d.combina(i);
+            return d;
+        }
+        i.combina(d);
+        return i;
+    }
+
+    /* Carga las cuentas del único archivo del rango. */
+    private DiccionarioContador cargaArchivo() {
+        try {
+            DiccionarioContador dic = cache.carga(rutas[inicio]);
+            return dic == null ? new DiccionarioContador() : dic;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
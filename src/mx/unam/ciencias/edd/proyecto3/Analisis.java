@@ -0,0 +1,333 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para el análisis inmutable de un documento.</p>
+ *
+ * <p>El análisis se calcula una sola vez a partir del diccionario contador del
+ * documento, y guarda el número total de palabras, el número de palabras
+ * distintas y todas las palabras ordenadas de la más a la menos usada (las
+ * que aparecen el mismo número de veces, en orden lexicográfico). Las
+ * palabras más usadas son un prefijo de ese orden, por lo que ningún
+ * generador tiene que volver a recorrer el diccionario.</p>
+ *
+ * <p>Para documentos con vocabularios enormes, como un flujo con presupuesto
+ * de memoria, el análisis puede guardar sólo las <i>k</i> palabras más
+ * usadas; los totales y la estimación del vocabulario siguen siendo los de
+ * todo el diccionario.</p>
+ *
+ * <p>El análisis también guarda un {@link HiperLogLog} con las palabras del
+ * documento, incluidas las que no quedaron en el diccionario, para estimar
+ * el vocabulario cuando las cuentas no son exactas y para combinarlo con el
+ * de otros documentos.</p>
+ *
+ * <p>Como el análisis no cambia después de construirse, varios generadores
+ * pueden leerlo sin afectarse entre sí.</p>
+ */
+public class Analisis implements Iterable<PalabraContada> {
+
+    /* Clase privada para iteradores de análisis. */
+    private class Iterador implements Iterator<PalabraContada> {
+
+        /* El índice de la siguiente palabra. */
+        private int indice;
+
+        /* Nos dice si hay una siguiente palabra. */
+        @Override public boolean hasNext() {
+            return indice < palabras.length;
+        }
+
+        /* Regresa la siguiente palabra. */
+        @Override public PalabraContada next() {
+            if (indice >= palabras.length)
+                throw new NoSuchElementException("No hay siguiente.");
+            return palabras[indice++];
+        }
+    }
+
+    /* Las palabras incluidas, de la más a la menos usada. */
+    private final PalabraContada[] palabras;
+    /* Número de palabras distintas del diccionario. */
+    private final int distintas;
+    /* Número de palabras del documento. */
+    private final long total;
+    /* Número de apariciones que se descartaron del diccionario. */
+    private final long descartadas;
+    /* Número de apariciones que no cupieron en cuentas topadas. */
+    private final long desbordadas;
+    /* Si las cuentas son aproximadas. */
+    private final boolean aproximado;
+    /* Lo más que una cuenta aproximada excede a la real. */
+    private final long error;
+    /* Lo más que una cuenta aproximada excede a la real, con la confianza. */
+    private final long errorProbable;
+    /* La probabilidad de que una cuenta no exceda el error probable. */
+    private final double confianza;
+    /* El estimador de las palabras distintas del documento. */
+    private final HiperLogLog hiperLogLog;
+    /* La estimación de las palabras distintas del documento. */
+    private final long distintasEstimadas;
+
+    /**
+     * Construye el análisis de un diccionario contador. El diccionario no se
+     * modifica, y cambios posteriores en él no afectan al análisis.
+     * @param diccionario el diccionario contador del documento.
+     */
+    public Analisis(DiccionarioContador diccionario) {
+        this(diccionario, diccionario.getTotal());
+    }
+
+    /**
+     * Construye el análisis de un diccionario contador del que se
+     * descartaron palabras, por ejemplo para no rebasar un límite de memoria.
+     * El total es el número de palabras del documento, y las que no están en
+     * el diccionario se reportan como descartadas.
+     * @param diccionario el diccionario contador del documento.
+     * @param total el número de palabras del documento.
+     * @throws IllegalArgumentException si el total es menor que el total del
+     *         diccionario.
+     */
+    public Analisis(DiccionarioContador diccionario, long total) {
+        this(diccionario, total, null);
+    }
+
+    /**
+     * Construye el análisis de un diccionario contador del que se
+     * descartaron palabras, con un estimador que vio las palabras
+     * descartadas; el estimador no se modifica.
+     * @param diccionario el diccionario contador del documento.
+     * @param total el número de palabras del documento.
+     * @param descartadas un estimador con las palabras descartadas, o
+     *                    <code>null</code>.
+     * @throws IllegalArgumentException si el total es menor que el total del
+     *         diccionario.
+     */
+    public Analisis(DiccionarioContador diccionario, long total,
+                    HiperLogLog descartadas) {
+        this(diccionario, Integer.MAX_VALUE, total, descartadas, false, 0, 0,
+             1);
+    }
+
+    /**
+     * Construye el análisis de las <i>k</i> palabras más usadas de un
+     * diccionario contador del que se descartaron palabras, con un estimador
+     * que vio las palabras descartadas; ni el diccionario ni el estimador se
+     * modifican. Además del estimador, el análisis sólo ocupa memoria para
+     * <i>k</i> palabras, sin importar el tamaño del diccionario.
+     * @param diccionario el diccionario contador del documento.
+     * @param k el número de palabras más usadas que se incluyen.
+     * @param total el número de palabras del documento.
+     * @param descartadas un estimador con las palabras descartadas, o
+     *                    <code>null</code>.
+     * @throws IllegalArgumentException si k es negativo, o si el total es
+     *         menor que el total del diccionario.
+     */
+    public Analisis(DiccionarioContador diccionario, int k, long total,
+                    HiperLogLog descartadas) {
+        this(diccionario, k, total, descartadas, false, 0, 0, 1);
+    }
+
+    /**
+     * Construye el análisis de cuentas aproximadas. Ninguna cuenta del
+     * diccionario es menor que la real; cada una excede a la real en a lo
+     * más el error, y con la confianza recibida en a lo más el error
+     * probable.
+     * @param diccionario el diccionario con las cuentas aproximadas.
+     * @param total el número de palabras del documento.
+     * @param vistas un estimador con todas las palabras del documento; el
+     *               estimador no se modifica.
+     * @param error lo más que una cuenta excede a la real.
+     * @param errorProbable lo más que una cuenta excede a la real con la
+     *                      confianza recibida.
+     * @param confianza la probabilidad de no exceder el error probable.
+     * @throws IllegalArgumentException si el total es menor que el total del
+     *         diccionario.
+     */
+    public Analisis(DiccionarioContador diccionario, long total,
+                    HiperLogLog vistas, long error, long errorProbable,
+                    double confianza) {
+        this(diccionario, Integer.MAX_VALUE, total, vistas, true, error,
+             errorProbable, confianza);
+    }
+
+    /* Construye el análisis con todos sus datos, con las k palabras más
+     * usadas. */
+    private Analisis(DiccionarioContador diccionario, int k, long total,
+                     HiperLogLog vistas, boolean aproximado, long error,
+                     long errorProbable, double confianza) {
+        if (total < diccionario.getTotal())
+            throw new IllegalArgumentException("Total inválido.");
+        distintas = diccionario.getElementos();
+        hiperLogLog = vistas == null ? new HiperLogLog() : vistas.copia();
+        boolean todas = k >= distintas;
+        palabras = todas ? new PalabraContada[distintas] :
+            diccionario.mayores(k);
+        int j = 0;
+        for (int i = 0; i < diccionario.getTamanioEntradas(); i++) {
+            String palabra = diccionario.getPalabraEnIndice(i);
+            if (palabra == null)
+                continue;
+            if (todas)
+                palabras[j++] =
+                    new PalabraContada(palabra,
+                                       diccionario.getCantidadEnIndice(i));
+            hiperLogLog.agrega(palabra);
+        }
+        distintasEstimadas = hiperLogLog.estima();
+        if (todas)
+            Arreglos.quickSortParalelo(palabras, (a, b) -> b.compareTo(a));
+        this.total = total;
+        this.descartadas = total - diccionario.getTotal();
+        this.desbordadas = diccionario.getDesbordadas();
+        this.aproximado = aproximado;
+        this.error = error;
+        this.errorProbable = errorProbable;
+        this.confianza = confianza;
+    }
+
+    /**
+     * Regresa el número total de palabras del documento.
+     * @return el número total de palabras del documento.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de apariciones de palabras que se descartaron y no
+     * están en el análisis.
+     * @return el número de apariciones descartadas.
+     */
+    public long getDescartadas() {
+        return descartadas;
+    }
+
+    /**
+     * Regresa el número de apariciones que no cupieron en las cuentas del
+     * diccionario porque éstas llegaron a {@link Integer#MAX_VALUE}.
+     * @return el número de apariciones desbordadas.
+     */
+    public long getDesbordadas() {
+        return desbordadas;
+    }
+
+    /**
+     * Nos dice si las cuentas del análisis son aproximadas.
+     * @return <code>true</code> si las cuentas son aproximadas,
+     *         <code>false</code> si son exactas.
+     */
+    public boolean esAproximado() {
+        return aproximado;
+    }
+
+    /**
+     * Regresa lo más que una cuenta del análisis excede a la real.
+     * @return el error de las cuentas; cero si son exactas.
+     */
+    public long getError() {
+        return error;
+    }
+
+    /**
+     * Regresa lo más que una cuenta del análisis excede a la real con
+     * probabilidad {@link #getConfianza}.
+     * @return el error probable de las cuentas; cero si son exactas.
+     */
+    public long getErrorProbable() {
+        return errorProbable;
+    }
+
+    /**
+     * Regresa la probabilidad de que una cuenta no exceda el error probable.
+     * @return la confianza del error probable; uno si las cuentas son exactas.
+     */
+    public double getConfianza() {
+        return confianza;
+    }
+
+    /**
+     * Regresa el número de palabras distintas del documento.
+     * @return el número de palabras distintas del documento.
+     */
+    public int getDistintas() {
+        return distintas;
+    }
+
+    /**
+     * Regresa el número de palabras incluidas en el análisis: todas las
+     * distintas, o las más usadas si el análisis se construyó con un límite.
+     * @return el número de palabras incluidas en el análisis.
+     */
+    public int getIncluidas() {
+        return palabras.length;
+    }
+
+    /**
+     * Nos dice si el número de palabras distintas es exacto, es decir, si
+     * las cuentas son exactas y no se descartó ninguna palabra.
+     * @return <code>true</code> si {@link #getDistintas} es el vocabulario
+     *         exacto del documento, <code>false</code> en otro caso.
+     */
+    public boolean distintasExactas() {
+        return !aproximado && descartadas == 0;
+    }
+
+    /**
+     * Regresa la estimación con {@link HiperLogLog} del número de palabras
+     * distintas del documento, incluidas las que no están en el análisis.
+     * @return la estimación del número de palabras distintas.
+     */
+    public long getDistintasEstimadas() {
+        return distintasEstimadas;
+    }
+
+    /**
+     * Regresa una copia del estimador de las palabras distintas del
+     * documento, para combinarlo con el de otros documentos.
+     * @return una copia del estimador de las palabras distintas.
+     */
+    public HiperLogLog getHiperLogLog() {
+        return hiperLogLog.copia();
+    }
+
+    /**
+     * Regresa la palabra en la posición recibida del orden por frecuencia.
+     * @param i la posición; la palabra más usada está en la posición cero.
+     * @return la palabra en la posición recibida.
+     * @throws ExcepcionIndiceInvalido si i es menor que cero, o mayor o igual
+     *         que el número de palabras incluidas.
+     */
+    public PalabraContada get(int i) {
+        if (i < 0 || i >= palabras.length)
+            throw new ExcepcionIndiceInvalido("Índice inválido.");
+        return palabras[i];
+    }
+
+    /**
+     * Regresa las <i>k</i> palabras más usadas, de la más a la menos usada.
+     * @param k el número de palabras que queremos.
+     * @return un arreglo nuevo con las min(<i>k</i>, {@link #getIncluidas})
+     *         palabras más usadas.
+     * @throws IllegalArgumentException si k es negativo.
+     */
+    public PalabraContada[] mayores(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k no puede ser negativo.");
+        PalabraContada[] mayores =
+            new PalabraContada[Math.min(k, palabras.length)];
+        for (int i = 0; i < mayores.length; i++)
+            mayores[i] = palabras[i];
+        return mayores;
+    }
+
+    /**
+     * Regresa un iterador para recorrer las palabras de la más a la menos
+     * usada.
+     * @return un iterador para recorrer las palabras del análisis.
+     */
+    @Override public Iterator<PalabraContada> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,220 @@
+package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Clase para analizar flujos de texto sin fin, como la entrada estándar o
+ * una tubería con nombre.</p>
+ *
+ * <p>El flujo se lee en pedazos y se cuenta en un {@link DiccionarioContador}
+ * cuyo tamaño estimado ({@link DiccionarioContador#memoria}) no puede rebasar
+ * un presupuesto de memoria. Cuando lo rebasa, se descartan las palabras
+ * menos usadas: primero las que aparecen una vez, y si no basta, las que
+ * aparecen menos de 2, 4, 8... veces, hasta que el diccionario ocupa a lo más
+ * tres cuartos del presupuesto. Así, la cuenta de una palabra puede quedar
+ * por debajo de la real, pero nunca por encima, y el análisis reporta
+ * cuántas apariciones se descartaron en total. Antes de descartar una
+ * palabra se agrega a un {@link HiperLogLog}, para que el análisis pueda
+ * estimar el vocabulario completo del flujo.</p>
+ *
+ * <p>Cada cierto número de palabras o de segundos se entrega un análisis del
+ * flujo hasta ese momento, y al terminar el flujo se entrega uno final. El
+ * flujo se lee en un hilo aparte que pasa los pedazos por una cola acotada,
+ * y el hilo que cuenta espera cada pedazo a lo más hasta el siguiente
+ * análisis, por lo que un flujo que deja de escribir sin cerrarse también
+ * recibe su análisis a tiempo si llegaron palabras desde el anterior. El
+ * número de palabras se revisa después de cada pedazo, por lo que un
+ * análisis puede llegar hasta un pedazo después.</p>
+ *
+ * <p>Cada análisis sólo incluye las {@link #MAYORES} palabras más usadas,
+ * más los totales y la estimación del vocabulario, por lo que entregarlo no
+ * copia el diccionario y ocupa poca memoria fuera del presupuesto.</p>
+ */
+public class AnalizadorFlujo {
+
+    /** Presupuesto de memoria predeterminado, en bytes. */
+    public static final long PRESUPUESTO = 64L << 20;
+    /** Número predeterminado de palabras entre análisis. */
+    public static final long PALABRAS = 1000000;
+    /** Número predeterminado de segundos entre análisis. */
+    public static final long SEGUNDOS = 10;
+    /** Número de palabras más usadas que incluye cada análisis. */
+    public static final int MAYORES = 1000;
+
+    /* Capacidad de cada búfer de caracteres. */
+    private static final int CAPACIDAD = 1 << 16;
+    /* Número de búferes que circulan entre el lector y el contador. */
+    private static final int BUFERES = 4;
+
+    /* Clase privada para los pedazos leídos del flujo. */
+    private static class Pedazo {
+
+        /* Los caracteres del pedazo. */
+        private char[] búfer = new char[CAPACIDAD];
+        /* Número de caracteres leídos; -1 al terminar el flujo. */
+        private int n;
+    }
+
+    /* El presupuesto de memoria del diccionario. */
+    private long presupuesto;
+    /* Número de palabras entre análisis. */
+    private long cadaPalabras;
+    /* Número de milisegundos entre análisis. */
+    private long cadaMilisegundos;
+    /* La acción a realizar con cada análisis. */
+    private AccionAnalisis accion;
+
+    /* El diccionario del flujo. */
+    private DiccionarioContador dic;
+    /* El estimador de las palabras descartadas. */
+    private HiperLogLog descartadas;
+    /* Número de palabras leídas. */
+    private long palabras;
+    /* Número de palabras leídas en el último análisis. */
+    private long palabrasAnalizadas;
+    /* Momento del último análisis. */
+    private long ultimoAnalisis;
+    /* El error del hilo lector, o null si no hubo. */
+    private volatile IOException error;
+
+    /**
+     * Construye un analizador de flujos.
+     * @param presupuesto el presupuesto de memoria del diccionario, en bytes.
+     * @param cadaPalabras el número de palabras entre análisis.
+     * @param cadaSegundos el número de segundos entre análisis.
+     * @param accion la acción a realizar con cada análisis.
+     * @throws IllegalArgumentException si algún número no es positivo.
+     */
+    public AnalizadorFlujo(long presupuesto, long cadaPalabras,
+                           long cadaSegundos, AccionAnalisis accion) {
+        if (presupuesto < 1 || cadaPalabras < 1 || cadaSegundos < 1)
+            throw new IllegalArgumentException("Parámetros inválidos.");
+        this.presupuesto = presupuesto;
+        this.cadaPalabras = cadaPalabras;
+        this.cadaMilisegundos = cadaSegundos * 1000;
+        this.accion = accion;
+    }
+
+    /**
+     * Analiza un flujo hasta que se termina. El flujo no se cierra; si el
+     * análisis se interrumpe o la acción lanza una excepción, el hilo lector
+     * puede quedarse esperando al flujo hasta que éste se termine.
+     * @param entrada el flujo a analizar, en UTF-8.
+     * @throws IOException si ocurre un error al leer el flujo, o si se
+     *         interrumpe el análisis.
+     */
+    public void analiza(InputStream entrada) throws IOException {
+        dic = new DiccionarioContador();
+        descartadas = new HiperLogLog();
+        palabras = 0;
+        palabrasAnalizadas = 0;
+        ultimoAnalisis = System.currentTimeMillis();
+        error = null;
+        BlockingQueue<Pedazo> llenos = new ArrayBlockingQueue<Pedazo>(BUFERES);
+        BlockingQueue<Pedazo> libres = new ArrayBlockingQueue<Pedazo>(BUFERES);
+        for (int i = 0; i < BUFERES; i++)
+            libres.add(new Pedazo());
+        Thread hilo = new Thread(() -> lee(entrada, libres, llenos),
+                                 "lector-flujo");
+        hilo.setDaemon(true);
+        hilo.start();
+        Tokenizador tokenizador = new Tokenizador(p -> {
+                dic.incrementa(p);
+                palabras++;
+            });
+        try {
+            while (true) {
+                long espera = ultimoAnalisis + cadaMilisegundos -
+                    System.currentTimeMillis();
+                Pedazo pedazo = llenos.poll(Math.max(espera, 0),
+                                            TimeUnit.MILLISECONDS);
+                if (pedazo == null) {
+                    if (palabras > palabrasAnalizadas)
+                        entrega();
+                    else
+                        ultimoAnalisis = System.currentTimeMillis();
+                    continue;
+                }
+                if (pedazo.n < 0)
+                    break;
+                tokenizador.tokeniza(pedazo.búfer, 0, pedazo.n);
+                libres.put(pedazo);
+                if (dic.memoria() > presupuesto)
+                    poda();
+                if (palabras - palabrasAnalizadas >= cadaPalabras ||
+                    System.currentTimeMillis() - ultimoAnalisis >=
+                    cadaMilisegundos)
+                    entrega();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Se interrumpió el análisis.");
+        }
+        if (error != null)
+            throw error;
+        tokenizador.termina();
+        entrega();
+    }
+
+    /* El ciclo del hilo lector: decodifica el flujo en los búferes libres y
+     * los pasa al contador; al terminar el flujo, o si hay un error, pasa un
+     * pedazo vacío. */
+    private void lee(InputStream entrada, BlockingQueue<Pedazo> libres,
+                     BlockingQueue<Pedazo> llenos) {
+        CharsetDecoder decodificador = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        Reader lector = new InputStreamReader(entrada, decodificador);
+        try {
+            while (true) {
+                Pedazo pedazo = libres.take();
+                try {
+                    pedazo.n = lector.read(pedazo.búfer);
+                } catch (IOException e) {
+                    error = e;
+                    pedazo.n = -1;
+                }
+                llenos.put(pedazo);
+                if (pedazo.n < 0)
+                    return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /* Descarta las palabras menos usadas hasta quedar en tres cuartos del
+     * presupuesto. */
+    private void poda() {
+        long objetivo = presupuesto / 4 * 3;
+        int minimo = 2;
+        while (dic.getElementos() > 0) {
+            for (int i = 0; i < dic.getTamanioEntradas(); i++)
+                if (dic.getPalabraEnIndice(i) != null &&
+                    dic.getCantidadEnIndice(i) < minimo)
+                    descartadas.agrega(dic.getPalabraEnIndice(i));
+            dic.poda(minimo);
+            if (dic.memoria() <= objetivo || minimo > Integer.MAX_VALUE / 2)
+                return;
+            minimo <<= 1;
+        }
+    }
+
+    /* Entrega el análisis del flujo hasta el momento, con sólo las palabras
+     * más usadas. */
+    private void entrega() {
+        palabrasAnalizadas = palabras;
+        ultimoAnalisis = System.currentTimeMillis();
+        accion.actua(new Analisis(dic, MAYORES, palabras, descartadas));
+    }
+}
@@ -0,0 +1,197 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>Tarea de fork/join para analizar archivos grandes.</p>
+ *
+ * <p>El archivo se parte en rangos de bytes que empiezan justo en un espacio
+ * en blanco (un salto de línea, un tabulador o un espacio de cualquier tipo,
+ * según {@link Tokenizador#esBlanco}), de forma que ninguna palabra (ni ningún
+ * carácter de UTF-8) queda partida, y el {@link Tokenizador} de cada rango
+ * da las mismas palabras que uno solo para todo el archivo. Así también se
+ * parten los archivos que no tienen saltos de línea. Cada rango se analiza con {@link LectorMapeado} en su propio
+ * {@link DiccionarioContador}, exactamente como lo haría el análisis
+ * secuencial, y los diccionarios parciales se combinan al regresar.</p>
+ */
+public class AnalizadorParalelo extends RecursiveTask<DiccionarioContador> {
+
+    /* Las tareas no se serializan; se declara para no tener advertencias. */
+    private static final long serialVersionUID = 1L;
+
+    /** Tamaño a partir del cual conviene analizar un archivo en paralelo. */
+    public static final long UMBRAL_ARCHIVO = 32L << 20;
+
+    /** Tamaño máximo de un rango que se analiza sin partirlo. */
+    public static final long UMBRAL_RANGO = 4L << 20;
+
+    /* El canal del archivo. */
+    private FileChannel canal;
+    /* El inicio del rango. */
+    private long inicio;
+    /* El fin del rango. */
+    private long fin;
+    /* Tamaño máximo de un rango que se analiza sin partirlo. */
+    private long umbral;
+
+    /**
+     * Construye una tarea para analizar el rango [inicio, fin) del canal,
+     * partiéndolo en rangos de a lo más {@link #UMBRAL_RANGO} bytes. El
+     * inicio debe ser el principio del archivo o un espacio en blanco.
+     * @param canal el canal del archivo.
+     * @param inicio el inicio del rango.
+     * @param fin el fin del rango.
+     */
+    public AnalizadorParalelo(FileChannel canal, long inicio, long fin) {
+        this(canal, inicio, fin, UMBRAL_RANGO);
+    }
+
+    /**
+     * Construye una tarea para analizar el rango [inicio, fin) del canal,
+     * partiéndolo en rangos de a lo más el umbral recibido. El inicio debe
+     * ser el principio del archivo o un espacio en blanco.
+     * @param canal el canal del archivo.
+     * @param inicio el inicio del rango.
+     * @param fin el fin del rango.
+     * @param umbral el tamaño máximo de un rango que se analiza sin partirlo.
+     * @throws IllegalArgumentException si el umbral no es positivo.
+     */
+    public AnalizadorParalelo(FileChannel canal, long inicio, long fin,
+                              long umbral) {
+        if (umbral <= 0)
+            throw new IllegalArgumentException("El umbral debe ser positivo");
+        this.canal = canal;
+        this.inicio = inicio;
+        this.fin = fin;
+        this.umbral = umbral;
+    }
+
+    /**
+     * Analiza un archivo completo usando el <em>pool</em> común de fork/join.
+     * @param archivo el archivo a analizar.
+     * @return el diccionario con las palabras del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     */
+    public static DiccionarioContador analiza(File archivo) throws IOException {
+        return analiza(archivo, UMBRAL_RANGO);
+    }
+
+    /**
+     * Analiza un archivo completo usando el <em>pool</em> común de fork/join,
+     * partiéndolo en rangos de a lo más el umbral recibido.
+     * @param archivo el archivo a analizar.
+     * @param umbral el tamaño máximo de un rango que se analiza sin partirlo.
+     * @return el diccionario con las palabras del archivo.
+     * @throws IOException si ocurre un error al leer el archivo.
+     * @throws IllegalArgumentException si el umbral no es positivo.
+     */
+    public static DiccionarioContador analiza(File archivo, long umbral)
+        throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                                                  StandardOpenOption.READ)) {
+            AnalizadorParalelo tarea =
+                new AnalizadorParalelo(canal, 0, canal.size(), umbral);
+            try {
+                return ForkJoinPool.commonPool().invoke(tarea);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Analiza el rango, partiéndolo en dos si es más grande que el
+     * umbral.
+     * @return el diccionario con las palabras del rango.
+     */
+    @Override protected DiccionarioContador compute() {
+        try {
+            if (fin - inicio <= umbral)
+                return analizaRango();
+            long medio = enBlanco(inicio + (fin - inicio) / 2);
+            if (medio >= fin)
+                return analizaRango();
+            AnalizadorParalelo izquierdo =
+                new AnalizadorParalelo(canal, inicio, medio, umbral);
+            AnalizadorParalelo derecho =
+                new AnalizadorParalelo(canal, medio, fin, umbral);
+            izquierdo.fork();
+            DiccionarioContador d = derecho.compute();
+            DiccionarioContador i = izquierdo.join();
+            if (i.getElementos() < d.getElementos()) {
+                d.combina(i);
+                return d;
+            }
+            i.combina(d);
+            return i;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /* Analiza el rango completo en este hilo. */
+    private DiccionarioContador analizaRango() throws IOException {
+        DiccionarioContador dic = new DiccionarioContador();
+        LectorMapeado.analiza(canal, inicio, fin, new Tokenizador(dic::incrementa));
+        return dic;
+    }
+
+    /* Regresa la posición del primer espacio en blanco a partir de la
+     * posición recibida, o el fin del rango si no hay ninguno.
+     * La posición puede caer a la mitad de un carácter de UTF-8; sus bytes de
+     * continuación se saltan. */
+    private long enBlanco(long posicion) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(8192);
+        while (posicion < fin) {
+            b.clear();
+            int n = (int)Math.min(canal.read(b, posicion), fin - posicion);
+            if (n <= 0)
+                return fin;
+            int i = 0;
+            while (i < n) {
+                int c = b.get(i) & 0xff;
+                int bytes = c < 0x80 ? 1 : c >= 0xf0 ? 4 : c >= 0xe0 ? 3 :
+                    c >= 0xc0 ? 2 : 0;
+                if (bytes == 0) {
+                    i++;
+                    continue;
+                }
+                if (i + bytes > n)
+                    break;
+                int cp = decodifica(b, i, bytes);
+                if (cp >= 0 && Tokenizador.esBlanco(cp))
+                    return posicion + i;
+                i += cp >= 0 ? bytes : 1;
+            }
+            /* Si el búfer termina a la mitad de un carácter, se vuelve a leer
+             * desde su primer byte; si ni así cabe, el rango termina ahí. */
+            if (i == 0)
+                return fin;
+            posicion += i;
+        }
+        return fin;
+    }
+
+    /* Decodifica el carácter de UTF-8 que empieza en el índice; regresa -1 si
+     * la secuencia está mal formada. */
+    private static int decodifica(ByteBuffer b, int i, int bytes) {
+        if (bytes == 1)
+            return b.get(i);
+        int cp = b.get(i) & (0x7f >> bytes);
+        for (int j = 1; j < bytes; j++) {
+            int c = b.get(i + j) & 0xff;
+            if ((c & 0xc0) != 0x80)
+                return -1;
+            cp = (cp << 6) | (c & 0x3f);
+        }
+        int minimo = bytes == 2 ? 0x80 : bytes == 3 ? 0x800 : 0x10000;
+        return cp < minimo ? -1 : cp;
+    }
+}
@@ -1,11 +1,187 @@
 package mx.unam.ciencias.edd;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
- * Clase para ordenar y buscar arreglos genéricos.
+ * <p>Clase para ordenar y buscar arreglos genéricos.</p>
+ *
+ * <p>QuickSort y MergeSort tienen versiones paralelas que usan el
+ * <em>pool</em> común de fork/join: los pedazos se parten en tareas hasta
+ * que tienen menos de {@link #UMBRAL_PARALELO} elementos, y esos se ordenan
+ * con la versión secuencial.</p>
  */
 public class Arreglos {
 
+    /** Número de elementos a partir del cual un pedazo se parte en tareas. */
+    public static final int UMBRAL_PARALELO = 1 << 12;
+
+    /* Tarea para QuickSort en paralelo: parte arreglo[a, b], deja el lado
+     * más chico a otra tarea y sigue partiendo el más grande, para que las
+     * tareas no se aniden más que log n. */
+    private static class QuickSortParalelo<T> extends RecursiveAction {
+
+        /* La tarea nunca se serializa; evita la advertencia de javac. */
+        private static final long serialVersionUID = 1L;
+
+        /* El arreglo. */
+        private T[] arreglo;
+        /* El primer índice del pedazo. */
+        private int a;
+        /* El último índice del pedazo. */
+        private int b;
+        /* El comparador. */
+        private Comparator<T> comparador;
+        /* La tarea lanzada antes que ésta por la misma tarea padre. */
+        private QuickSortParalelo<T> siguiente;
+
+        /* Construye la tarea para el pedazo arreglo[a, b]. */
+        public QuickSortParalelo(T[] arreglo, int a, int b, Comparator<T> comparador) {
+            this.arreglo = arreglo;
+            this.a = a;
+            this.b = b;
+            this.comparador = comparador;
+        }
+
+        /* Ordena el pedazo. */
+        @Override protected void compute() {
+            QuickSortParalelo<T> lanzadas = null;
+            int a = this.a;
+            int b = this.b;
+            while (b - a >= UMBRAL_PARALELO) {
+                int p = particiona(arreglo, comparador, a, b);
+                QuickSortParalelo<T> t;
+                if (p - a < b - p) {
+                    t = new QuickSortParalelo<T>(arreglo, a, p - 1, comparador);
+                    a = p + 1;
+                } else {
+                    t = new QuickSortParalelo<T>(arreglo, p + 1, b, comparador);
+                    b = p - 1;
+                }
+                t.siguiente = lanzadas;
+                lanzadas = t;
+                t.fork();
+            }
+            quickSort(arreglo, comparador, a, b);
+            for (; lanzadas != null; lanzadas = lanzadas.siguiente)
+                lanzadas.join();
+        }
+    }
+
+    /* Tarea para MergeSort en paralelo: ordena a[inicio, fin) usando b, que
+     * empieza con los mismos elementos, y deja el resultado en a. */
+    private static class MergeSortParalelo<T> extends RecursiveAction {
+
+        /* La tarea nunca se serializa; evita la advertencia de javac. */
+        private static final long serialVersionUID = 1L;
+
+        /* El arreglo auxiliar. */
+        private T[] b;
+        /* El arreglo a ordenar. */
+        private T[] a;
+        /* El índice del primer elemento del pedazo. */
+        private int inicio;
+        /* El índice siguiente al último elemento del pedazo. */
+        private int fin;
+        /* El comparador. */
+        private Comparator<T> comparador;
+
+        /* Construye la tarea para el pedazo [inicio, fin). */
+        public MergeSortParalelo(T[] b, T[] a, int inicio, int fin, Comparator<T> comparador) {
+            this.b = b;
+            this.a = a;
+            this.inicio = inicio;
+            this.fin = fin;
+            this.comparador = comparador;
+        }
+
+        /* Ordena el pedazo. */
+        @Override protected void compute() {
+            if (fin - inicio < UMBRAL_PARALELO) {
+                mergeSort(b, a, inicio, fin, comparador);
+                return;
+            }
+            int m = (inicio + fin) >>> 1;
+            invokeAll(new MergeSortParalelo<T>(a, b, inicio, m, comparador),
+                      new MergeSortParalelo<T>(a, b, m, fin, comparador));
+            if (comparador.compare(b[m - 1], b[m]) <= 0) { // Ya están en orden
+                System.arraycopy(b, inicio, a, inicio, fin - inicio);
+                return;
+            }
+            new MezclaParalela<T>(b, inicio, m, m, fin, a, inicio, comparador).compute();
+        }
+    }
+
+    /* Tarea para mezclar en paralelo los pedazos ordenados b[i, m) y b[j, fin)
+     * en a, a partir de k. Toma el elemento de en medio del pedazo más grande,
+     * busca dónde va en el otro, y mezcla a la vez lo que queda antes y lo que
+     * queda después; los elementos iguales del pedazo izquierdo siempre
+     * quedan antes. */
+    private static class MezclaParalela<T> extends RecursiveAction {
+
+        /* La tarea nunca se serializa; evita la advertencia de javac. */
+        private static final long serialVersionUID = 1L;
+
+        /* El arreglo con los pedazos. */
+        private T[] b;
+        /* Los límites del pedazo izquierdo. */
+        private int i, m;
+        /* Los límites del pedazo derecho. */
+        private int j, fin;
+        /* El arreglo donde se mezcla. */
+        private T[] a;
+        /* El índice donde empieza la mezcla. */
+        private int k;
+        /* El comparador. */
+        private Comparator<T> comparador;
+
+        /* Construye la tarea para mezclar b[i, m) y b[j, fin) en a[k, ...). */
+        public MezclaParalela(T[] b, int i, int m, int j, int fin, T[] a, int k,
+                              Comparator<T> comparador) {
+            this.b = b;
+            this.i = i;
+            this.m = m;
+            this.j = j;
+            this.fin = fin;
+            this.a = a;
+            this.k = k;
+            this.comparador = comparador;
+        }
+
+        /* Mezcla los pedazos. */
+        @Override protected void compute() {
+            if ((m - i) + (fin - j) < UMBRAL_PARALELO) {
+                mezcla(b, i, m, j, fin, a, k, comparador);
+                return;
+            }
+            int mi, mj;
+            if (m - i >= fin - j) {
+                mi = (i + m) >>> 1;
+                mj = primeroNoMenor(b[mi], j, fin, false);
+            } else {
+                mj = (j + fin) >>> 1;
+                mi = primeroNoMenor(b[mj], i, m, true);
+            }
+            int mk = k + (mi - i) + (mj - j);
+            invokeAll(new MezclaParalela<T>(b, i, mi, j, mj, a, k, comparador),
+                      new MezclaParalela<T>(b, mi, m, mj, fin, a, mk, comparador));
+        }
+
+        /* Regresa el primer índice en b[desde, hasta) cuyo elemento es mayor
+         * o igual que el recibido, o estrictamente mayor si se pide. */
+        private int primeroNoMenor(T elemento, int desde, int hasta, boolean estricto) {
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                int c = comparador.compare(b[medio], elemento);
+                if (c < 0 || (estricto && c == 0))
+                    desde = medio + 1;
+                else
+                    hasta = medio;
+            }
+            return desde;
+        }
+    }
+
     /**
      * Ordena el arreglo recibido usando QickSort.
      * @param <T> tipo del que puede ser el arreglo.
@@ -19,33 +195,53 @@ public class Arreglos {
         quickSort(arreglo, comparador, a, b);
     }
 
-    /*QuickSort auxiliar*/
+    /*QuickSort auxiliar; recursa en el pedazo más chico y sigue con el más
+     * grande, para que la pila no crezca más que log n.*/
     private static <T> void quickSort(T[] arreglo, Comparator<T> comparador, int a, int b) {
-
-        if ( b <= a)
-            return;
-
-        int i = a+1;
-        int j = b;
-
-        while ( i < j ) {
-            if ((comparador.compare(arreglo[i], arreglo[a]) > 0 ) &&
-                (comparador.compare(arreglo[j], arreglo[a]) <= 0)){
-                intercambia (arreglo, i, j);
-                i++;
-                j--;
-            } else if (comparador.compare(arreglo[j],arreglo[a]) <= 0) {
-                i++;
+        while (a < b) {
+            int p = particiona(arreglo, comparador, a, b);
+            if (p - a < b - p) {
+                quickSort(arreglo, comparador, a, p - 1);
+                a = p + 1;
             } else {
-                j--;
+                quickSort(arreglo, comparador, p + 1, b);
+                b = p - 1;
             }
         }
-        if ((comparador.compare(arreglo[i], arreglo[a])) > 0) {
-            i--;
+    }
+
+    /* Parte arreglo[a, b] alrededor de la mediana de los elementos en el
+     * primer cuarto, en medio y en el último cuarto, y regresa la posición
+     * final del pivote. No se usan los extremos porque, tras partir, el
+     * primero de cada pedazo es de los más grandes del pedazo. Los índices se
+     * detienen en elementos iguales al pivote, por lo que los pedazos quedan
+     * parejos aunque haya muchos elementos repetidos. */
+    private static <T> int particiona(T[] arreglo, Comparator<T> comparador, int a, int b) {
+        int q = (b - a) >>> 2;
+        int c1 = a + q;
+        int m = (a + b) >>> 1;
+        int c3 = b - q;
+        if (comparador.compare(arreglo[m], arreglo[c1]) < 0)
+            intercambia(arreglo, c1, m);
+        if (comparador.compare(arreglo[c3], arreglo[c1]) < 0)
+            intercambia(arreglo, c1, c3);
+        if (comparador.compare(arreglo[c3], arreglo[m]) < 0)
+            intercambia(arreglo, m, c3);
+        intercambia(arreglo, a, m);
+        T pivote = arreglo[a];
+        int i = a;
+        int j = b + 1;
+        while (true) {
+            while (comparador.compare(arreglo[++i], pivote) < 0 && i < b)
+                ;
+            while (comparador.compare(pivote, arreglo[--j]) < 0)
+                ;
+            if (i >= j)
+                break;
+            intercambia(arreglo, i, j);
         }
-        intercambia(arreglo, a, i);
-        quickSort(arreglo,comparador,a, i-1);
-        quickSort(arreglo,comparador,i+1, b);
+        intercambia(arreglo, a, j);
+        return j;
     }
 
     /*Método auxilia paa intecambia dos vértices*/
@@ -96,6 +292,125 @@ public class Arreglos {
         selectionSort(arreglo, (a, b) -> a.compareTo(b));
     }
 
+    /**
+     * Ordena el arreglo recibido usando MergeSort. El ordenamiento es
+     * estable: los elementos iguales conservan su orden relativo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    mergeSort(T[] arreglo, Comparator<T> comparador) {
+        mergeSort(arreglo, 0, arreglo.length, comparador);
+    }
+
+    /**
+     * Ordena el pedazo del arreglo entre los índices recibidos usando
+     * MergeSort. El ordenamiento es estable.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param inicio el índice del primer elemento del pedazo.
+     * @param fin el índice siguiente al último elemento del pedazo.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    mergeSort(T[] arreglo, int inicio, int fin, Comparator<T> comparador) {
+        if (fin - inicio < 2)
+            return;
+        T[] auxiliar = arreglo.clone();
+        mergeSort(auxiliar, arreglo, inicio, fin, comparador);
+    }
+
+    /* MergeSort auxiliar: ordena a[inicio, fin) usando b, que empieza con los
+     * mismos elementos, y deja el resultado en a. */
+    private static <T> void mergeSort(T[] b, T[] a, int inicio, int fin, Comparator<T> comparador) {
+        if (fin - inicio < 2)
+            return;
+        int m = (inicio + fin) >>> 1;
+        mergeSort(a, b, inicio, m, comparador);
+        mergeSort(a, b, m, fin, comparador);
+        if (comparador.compare(b[m - 1], b[m]) <= 0) { // Ya están en orden
+            System.arraycopy(b, inicio, a, inicio, fin - inicio);
+            return;
+        }
+        mezcla(b, inicio, m, m, fin, a, inicio, comparador);
+    }
+
+    /* Mezcla los pedazos ordenados b[i, m) y b[j, fin) en a, a partir de k;
+     * con elementos iguales, primero van los del pedazo izquierdo. */
+    private static <T> void mezcla(T[] b, int i, int m, int j, int fin, T[] a, int k, Comparator<T> comparador) {
+        while (i < m && j < fin)
+            a[k++] = comparador.compare(b[j], b[i]) < 0 ? b[j++] : b[i++];
+        System.arraycopy(b, i, a, k, m - i);
+        System.arraycopy(b, j, a, k + m - i, fin - j);
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    mergeSort(T[] arreglo) {
+        mergeSort(arreglo, (a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort en paralelo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    quickSortParalelo(T[] arreglo, Comparator<T> comparador) {
+        if (arreglo.length < UMBRAL_PARALELO) {
+            quickSort(arreglo, comparador);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(
+            new QuickSortParalelo<T>(arreglo, 0, arreglo.length - 1, comparador));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando QuickSort en paralelo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    quickSortParalelo(T[] arreglo) {
+        quickSortParalelo(arreglo, (a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo. El
+     * ordenamiento es estable. Las mezclas grandes también se parten en
+     * tareas, por lo que ninguna etapa recorre el arreglo completo en un solo
+     * hilo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo el arreglo a ordenar.
+     * @param comparador el comparador para ordenar el arreglo.
+     */
+    public static <T> void
+    mergeSortParalelo(T[] arreglo, Comparator<T> comparador) {
+        if (arreglo.length < UMBRAL_PARALELO) {
+            mergeSort(arreglo, comparador);
+            return;
+        }
+        T[] auxiliar = arreglo.clone();
+        ForkJoinPool.commonPool().invoke(
+            new MergeSortParalelo<T>(auxiliar, arreglo, 0, arreglo.length, comparador));
+    }
+
+    /**
+     * Ordena el arreglo recibido usando MergeSort en paralelo.
+     * @param <T> tipo del que puede ser el arreglo.
+     * @param arreglo un arreglo cuyos elementos son comparables.
+     */
+    public static <T extends Comparable<T>> void
+    mergeSortParalelo(T[] arreglo) {
+        mergeSortParalelo(arreglo, (a, b) -> a.compareTo(b));
+    }
+
     /**
      * Hace una búsqueda binaria del elemento en el arreglo. Regresa el índice
      * del elemento en el arreglo, o -1 si no se encuentra.
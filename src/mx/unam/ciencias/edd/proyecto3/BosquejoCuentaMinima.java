@@ -0,0 +1,143 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para bosquejos de cuenta mínima (<i>Count-Min Sketch</i>).</p>
+ *
+ * <p>Un bosquejo estima cuántas veces apareció cada palabra usando una
+ * cantidad fija de memoria: una tabla de <i>d</i> renglones por <i>w</i>
+ * columnas de contadores. Cada renglón tiene su propia función de
+ * dispersión; contar una palabra incrementa un contador por renglón, y su
+ * estimación es el mínimo de esos contadores.</p>
+ *
+ * <p>La estimación nunca es menor que la cuenta real, y con probabilidad de
+ * al menos 1 - δ la excede en a lo más ε<i>N</i>, donde <i>N</i> es el total
+ * de palabras contadas, <i>w</i> = ⌈e/ε⌉ y <i>d</i> = ⌈ln(1/δ)⌉. El ancho se
+ * redondea a una potencia de dos, lo que sólo mejora la cota. Se usa la
+ * actualización conservadora: al contar sólo se incrementan los contadores
+ * iguales al mínimo, lo que no rompe la cota y reduce el error.</p>
+ *
+ * <p>Las funciones de dispersión de los renglones se derivan con dispersión
+ * doble de un código de 64 bits de la palabra, el mismo que usa {@link
+ * HiperLogLog}: cada mitad del código da una de las dos funciones. Así, dos
+ * palabras que chocan en {@link String#hashCode} sólo porque el polinomio se
+ * desborda en 32 bits ya no comparten todos sus contadores.</p>
+ */
+public class BosquejoCuentaMinima {
+
+    /* Los contadores, renglón por renglón. */
+    private int[] tabla;
+    /* El número de renglones. */
+    private int profundidad;
+    /* El número de columnas; es una potencia de dos. */
+    private int ancho;
+    /* El error relativo ε. */
+    private double epsilon;
+    /* La probabilidad de fallo δ. */
+    private double delta;
+    /* El total de palabras contadas. */
+    private long total;
+
+    /**
+     * Construye un bosquejo con el error relativo y la probabilidad de fallo
+     * recibidos.
+     * @param epsilon el error relativo ε, entre cero y uno.
+     * @param delta la probabilidad de fallo δ, entre cero y uno.
+     * @throws IllegalArgumentException si ε o δ no están entre cero y uno, o
+     *         si la tabla resultante es demasiado grande.
+     */
+    public BosquejoCuentaMinima(double epsilon, double delta) {
+        if (!(epsilon > 0 && epsilon < 1 && delta > 0 && delta < 1))
+            throw new IllegalArgumentException("ε y δ deben estar entre 0 y 1.");
+        long w = (long)Math.ceil(Math.E / epsilon);
+        int d = (int)Math.ceil(Math.log(1 / delta));
+        long a = 1;
+        while (a < w)
+            a <<= 1;
+        if (a * d > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Bosquejo demasiado grande.");
+        this.epsilon = epsilon;
+        this.delta = delta;
+        this.ancho = (int)a;
+        this.profundidad = d;
+        this.tabla = new int[ancho * profundidad];
+    }
+
+    /**
+     * Cuenta una aparición de la palabra.
+     * @param palabra la palabra.
+     * @return la nueva estimación de la palabra.
+     */
+    public int incrementa(CharSequence palabra) {
+        total++;
+        long dispersion = HiperLogLog.dispersion(palabra);
+        int h1 = (int)dispersion;
+        int h2 = (int)(dispersion >>> 32) | 1;
+        int m = ancho - 1;
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0, h = h1; i < profundidad; i++, h += h2) {
+            int c = tabla[i * ancho + (h & m)];
+            if (c < minimo)
+                minimo = c;
+        }
+        if (minimo == Integer.MAX_VALUE)
+            return minimo;
+        for (int i = 0, h = h1; i < profundidad; i++, h += h2) {
+            int j = i * ancho + (h & m);
+            if (tabla[j] == minimo)
+                tabla[j] = minimo + 1;
+        }
+        return minimo + 1;
+    }
+
+    /**
+     * Regresa la estimación de la palabra.
+     * @param palabra la palabra.
+     * @return la estimación de la palabra; nunca es menor que su cuenta real.
+     */
+    public int estima(CharSequence palabra) {
+        long dispersion = HiperLogLog.dispersion(palabra);
+        int h1 = (int)dispersion;
+        int h2 = (int)(dispersion >>> 32) | 1;
+        int m = ancho - 1;
+        int minimo = Integer.MAX_VALUE;
+        for (int i = 0, h = h1; i < profundidad; i++, h += h2) {
+            int c = tabla[i * ancho + (h & m)];
+            if (c < minimo)
+                minimo = c;
+        }
+        return minimo;
+    }
+
+    /**
+     * Regresa el total de palabras contadas.
+     * @return el total de palabras contadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el máximo error de una estimación con probabilidad de al
+     * menos 1 - δ; es decir, ε por el total de palabras contadas.
+     * @return el error de las estimaciones.
+     */
+    public long getError() {
+        return (long)Math.ceil(epsilon * total);
+    }
+
+    /**
+     * Regresa la probabilidad de que una estimación no exceda el error.
+     * @return la probabilidad 1 - δ.
+     */
+    public double getConfianza() {
+        return 1 - delta;
+    }
+
+    /**
+     * Regresa el número de bytes de los contadores del bosquejo.
+     * @return el número de bytes de los contadores del bosquejo.
+     */
+    public long memoria() {
+        return 4L * tabla.length;
+    }
+}
@@ -0,0 +1,473 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Clase para el caché de análisis del directorio de salida.</p>
+ *
+ * <p>El caché vive en el subdirectorio {@link #DIRECTORIO} del directorio de
+ * salida. Por cada archivo de entrada guarda su tamaño, su fecha de
+ * modificación y una huella SHA-256 de su contenido, y las cuentas de sus
+ * palabras se guardan como una {@link TablaCuentas} en un archivo nombrado
+ * por la huella, junto con el {@link HiperLogLog} de sus palabras
+ * distintas. Si en una ejecución posterior el archivo no cambió y su página sigue en el
+ * directorio de salida, no hace falta volver a analizarlo ni a generar su
+ * página.</p>
+ *
+ * <p>Como la página de un archivo se nombra sólo con el nombre del archivo,
+ * dos entradas de directorios distintos con el mismo nombre escriben la
+ * misma página. Por eso el caché recuerda de qué entrada es cada página:
+ * escribir una página se la quita a la entrada que la tenía, y si en una
+ * misma ejecución dos entradas escriben la misma página, la página no queda
+ * de ninguna y las dos se vuelven a generar la siguiente vez.</p>
+ *
+ * <p>Comparar el tamaño y la fecha de modificación basta para la mayoría de
+ * los archivos, así que una ejecución sin cambios no lee ninguna entrada; la
+ * huella sólo se calcula cuando el archivo se analiza, o cuando su fecha
+ * cambió pero su tamaño no.</p>
+ *
+ * <p>Los métodos del caché se pueden llamar desde varios hilos.</p>
+ */
+public class CacheAnalisis {
+
+    /** Nombre del subdirectorio del caché dentro del directorio de salida. */
+    public static final String DIRECTORIO = ".proyecto3";
+
+    /* Archivo con las entradas del caché. */
+    private static final String ENTRADAS = "entradas";
+    /* Archivo con la lista de archivos del último índice generado. */
+    private static final String INDICE = "indice";
+    /* Extensión de los archivos de cuentas. */
+    private static final String CUENTAS = ".cuentas";
+    /* Extensión de los archivos de estimadores de palabras distintas. */
+    private static final String ESTIMADOR = ".hll";
+    /* Versión del caché; hay que aumentarla cuando cambien las páginas que
+       se generan, para que no se reutilicen las de una versión anterior. */
+    private static final String VERSION = "proyecto3-cache 4";
+
+    /**
+     * Clase para la huella de un archivo de entrada: su ruta canónica, su
+     * tamaño, su fecha de modificación, si ya se calculó, la huella de su
+     * contenido y, si se guardó, el nombre de su página.
+     */
+    public static class Huella {
+
+        /* La ruta canónica del archivo. */
+        private String ruta;
+        /* El tamaño del archivo. */
+        private long tamaño;
+        /* La fecha de modificación del archivo. */
+        private long modificado;
+        /* La huella del contenido, o null si no se ha calculado. */
+        private String contenido;
+        /* El nombre de la página, o null si la página no es de la entrada. */
+        private String pagina;
+
+        /* Construye una huella. */
+        private Huella(String ruta, long tamaño, long modificado,
+                       String contenido, String pagina) {
+            this.ruta = ruta;
+            this.tamaño = tamaño;
+            this.modificado = modificado;
+            this.contenido = contenido;
+            this.pagina = pagina;
+        }
+
+        /**
+         * Regresa la ruta canónica del archivo.
+         * @return la ruta canónica del archivo.
+         */
+        public String getRuta() {
+            return ruta;
+        }
+    }
+
+    /* El directorio del caché. */
+    private File directorio;
+    /* Las entradas, indexadas por ruta canónica. */
+    private Map<String, Huella> entradas;
+    /* La ruta canónica de la entrada de cada página. */
+    private Map<String, String> paginas;
+    /* La ruta canónica de la entrada que escribió cada página en esta
+     * ejecución. */
+    private Map<String, String> escritas;
+    /* Nos dice si las entradas cambiaron desde que se cargaron. */
+    private volatile boolean modificado;
+
+    /**
+     * Abre el caché del directorio de salida recibido. Si el caché no existe
+     * o no se puede leer, se empieza con un caché vacío.
+     * @param salida el directorio de salida.
+     */
+    public CacheAnalisis(String salida) {
+        modificado = true; // Hasta ver que las entradas son de esta versión
+        directorio = new File(salida, DIRECTORIO);
+        entradas = new ConcurrentHashMap<String, Huella>();
+        paginas = new ConcurrentHashMap<String, String>();
+        escritas = new ConcurrentHashMap<String, String>();
+        File archivo = new File(directorio, ENTRADAS);
+        if (!archivo.exists())
+            return;
+        try (BufferedReader in = lector(archivo)) {
+            if (!VERSION.equals(in.readLine()))
+                return;
+            String linea;
+            while ((linea = in.readLine()) != null) {
+                String[] campos = linea.split("\t", 5);
+                if (campos.length != 5)
+                    continue;
+                String pagina = campos[3].isEmpty() ? null : campos[3];
+                entradas.put(campos[4],
+                             new Huella(campos[4],
+                                        Long.parseLong(campos[0]),
+                                        Long.parseLong(campos[1]),
+                                        campos[2], pagina));
+                if (pagina != null)
+                    paginas.put(pagina, campos[4]);
+            }
+            modificado = false;
+        } catch (IOException | NumberFormatException e) {
+            entradas.clear();
+            paginas.clear();
+        }
+    }
+
+    /**
+     * Calcula la huella de un archivo de entrada sin leer su contenido.
+     * @param archivo el archivo de entrada.
+     * @return la huella del archivo.
+     * @throws IOException si no se puede resolver la ruta del archivo.
+     */
+    public Huella huella(File archivo) throws IOException {
+        return new Huella(archivo.getCanonicalPath(), archivo.length(),
+                          archivo.lastModified(), null, null);
+    }
+
+    /**
+     * Nos dice si el archivo de la huella no cambió desde que se guardó en el
+     * caché, si la página sigue siendo suya, y si los archivos de su página
+     * y sus cuentas siguen existiendo. Si sólo cambió la fecha de modificación
+     * pero no el contenido, se actualiza la entrada.
+     * @param huella la huella del archivo de entrada.
+     * @param pagina el nombre de la página del archivo.
+     * @param archivos los archivos de la página del archivo.
+     * @return <code>true</code> si no hace falta volver a analizar el
+     *         archivo, <code>false</code> en otro caso.
+     * @throws IOException si ocurre un error al leer el archivo.
+     */
+    public boolean vigente(Huella huella, String pagina, File[] archivos)
+        throws IOException {
+        Huella guardada = entradas.get(huella.ruta);
+        if (guardada == null || guardada.tamaño != huella.tamaño ||
+            !pagina.equals(guardada.pagina) ||
+            !huella.ruta.equals(paginas.get(pagina)) ||
+            !cuentas(guardada.contenido).exists() ||
+            !estimador(guardada.contenido).exists())
+            return false;
+        for (File archivo : archivos)
+            if (!archivo.exists())
+                return false;
+        if (guardada.modificado == huella.modificado)
+            return true;
+        huella.contenido = sha256(new File(huella.ruta));
+        if (!huella.contenido.equals(guardada.contenido))
+            return false;
+        huella.pagina = guardada.pagina;
+        entradas.put(huella.ruta, huella);
+        modificado = true;
+        return true;
+    }
+
+    /**
+     * Guarda en el caché las cuentas y el estimador de palabras distintas
+     * del archivo de la huella, junto con el nombre de su página si la
+     * página es suya según {@link #registraPagina}. La huella debe haberse
+     * calculado antes de analizar el archivo; si el tamaño o la fecha de
+     * modificación del archivo ya no son los de la huella, el archivo cambió
+     * mientras se analizaba: no se guarda nada y se quita la entrada que
+     * tuviera.
+     * @param huella la huella del archivo de entrada.
+     * @param pagina el nombre de la página del archivo.
+     * @param dic las cuentas de las palabras del archivo.
+     * @param hll el estimador de las palabras distintas del archivo.
+     * @return <code>true</code> si se guardaron las cuentas,
+     *         <code>false</code> si el archivo cambió.
+     * @throws IOException si ocurre un error al escribir el caché.
+     */
+    public boolean guarda(Huella huella, String pagina,
+                          DiccionarioContador dic, HiperLogLog hll)
+        throws IOException {
+        File archivo = new File(huella.ruta);
+        if (huella.contenido == null)
+            huella.contenido = sha256(archivo);
+        // Después de la huella del contenido, para que ésta no sea más nueva
+        if (archivo.length() != huella.tamaño ||
+            archivo.lastModified() != huella.modificado) {
+            huella.contenido = null;
+            if (entradas.remove(huella.ruta) != null)
+                modificado = true;
+            return false;
+        }
+        directorio.mkdirs();
+        File destino = cuentas(huella.contenido);
+        File temporal = temporal(destino);
+        TablaCuentas.escribe(dic, temporal);
+        reemplaza(temporal, destino);
+        destino = estimador(huella.contenido);
+        temporal = temporal(destino);
+        hll.escribe(temporal);
+        reemplaza(temporal, destino);
+        synchronized (this) {
+            huella.pagina = huella.ruta.equals(paginas.get(pagina)) &&
+                pagina.indexOf('\t') < 0 && pagina.indexOf('\n') < 0 ?
+                pagina : null;
+            entradas.put(huella.ruta, huella);
+        }
+        modificado = true;
+        return true;
+    }
+
+    /**
+     * Registra que se escribió la página de un archivo de entrada. La página
+     * deja de ser de la entrada que la tuviera; si en esta ejecución ya la
+     * había escrito otra entrada, la página no queda de ninguna.
+     * @param pagina el nombre de la página.
+     * @param archivo el archivo de entrada.
+     */
+    public synchronized void registraPagina(String pagina, File archivo) {
+        String ruta;
+        try {
+            ruta = archivo.getCanonicalPath();
+        } catch (IOException e) {
+            ruta = null;
+        }
+        String anterior = ruta == null ? null :
+            escritas.putIfAbsent(pagina, ruta);
+        if (ruta == null || (anterior != null && !anterior.equals(ruta))) {
+            sueltaPagina(pagina, paginas.remove(pagina));
+            return;
+        }
+        if (anterior != null)
+            return;
+        String dueño = paginas.put(pagina, ruta);
+        if (dueño != null && !dueño.equals(ruta))
+            sueltaPagina(pagina, dueño);
+    }
+    /**
+     * Quita del caché la entrada de un archivo, por ejemplo porque su página
+     * se generó con cuentas que no se pueden guardar.
+     * @param archivo el archivo de entrada.
+     */
+    public void olvida(File archivo) {
+        try {
+            if (entradas.remove(archivo.getCanonicalPath()) != null)
+                modificado = true;
+        } catch (IOException e) {
+            /* Si no se puede resolver la ruta, no puede estar en el caché. */
+        }
+    }
+
+    /**
+     * Regresa las cuentas guardadas en el caché para un archivo de entrada.
+     * @param ruta la ruta canónica del archivo de entrada.
+     * @return las cuentas de las palabras del archivo, o <code>null</code>
+     *         si el archivo no está en el caché.
+     * @throws IOException si ocurre un error al leer las cuentas.
+     */
+    public DiccionarioContador carga(String ruta) throws IOException {
+        try (TablaCuentas tabla = tabla(ruta)) {
+            return tabla == null ? null : tabla.carga();
+        }
+    }
+
+    /**
+     * Abre la tabla de cuentas guardada en el caché para un archivo de
+     * entrada, sin cargarla en memoria. La tabla se debe cerrar.
+     * @param ruta la ruta canónica del archivo de entrada.
+     * @return la tabla de cuentas del archivo, o <code>null</code> si el
+     *         archivo no está en el caché.
+     * @throws IOException si ocurre un error al abrir la tabla.
+     */
+    public TablaCuentas tabla(String ruta) throws IOException {
+        Huella huella = entradas.get(ruta);
+        if (huella == null)
+            return null;
+        return new TablaCuentas(cuentas(huella.contenido));
+    }
+
+    /**
+     * Regresa la huella SHA-256 del contenido guardada en el caché para un
+     * archivo de entrada.
+     * @param ruta la ruta canónica del archivo de entrada.
+     * @return la huella del contenido del archivo, o <code>null</code> si el
+     *         archivo no está en el caché.
+     */
+    public String getContenido(String ruta) {
+        Huella huella = entradas.get(ruta);
+        return huella == null ? null : huella.contenido;
+    }
+
+    /**
+     * Regresa el estimador de palabras distintas guardado en el caché para
+     * un archivo de entrada.
+     * @param ruta la ruta canónica del archivo de entrada.
+     * @return el estimador de las palabras distintas del archivo, o
+     *         <code>null</code> si el archivo no está en el caché.
+     * @throws IOException si ocurre un error al leer el estimador.
+     */
+    public HiperLogLog hiperLogLog(String ruta) throws IOException {
+        Huella huella = entradas.get(ruta);
+        if (huella == null)
+            return null;
+        return HiperLogLog.lee(estimador(huella.contenido));
+    }
+
+    /**
+     * Nos dice si el índice ya se generó con la lista de archivos recibida.
+     * @param lista la lista de archivos del índice, uno por renglón.
+     * @param pagina la página del índice.
+     * @return <code>true</code> si no hace falta volver a generar el
+     *         índice, <code>false</code> en otro caso.
+     */
+    public boolean indiceVigente(String lista, File pagina) {
+        File archivo = new File(directorio, INDICE);
+        if (!pagina.exists() || !archivo.exists())
+            return false;
+        try {
+            byte[] bytes = Files.readAllBytes(archivo.toPath());
+            return new String(bytes, StandardCharsets.UTF_8).equals(lista);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Guarda la lista de archivos con la que se generó el índice.
+     * @param lista la lista de archivos del índice, uno por renglón.
+     * @throws IOException si ocurre un error al escribir el caché.
+     */
+    public void guardaIndice(String lista) throws IOException {
+        directorio.mkdirs();
+        File destino = new File(directorio, INDICE);
+        File temporal = temporal(destino);
+        Files.write(temporal.toPath(), lista.getBytes(StandardCharsets.UTF_8));
+        reemplaza(temporal, destino);
+    }
+
+    /**
+     * Escribe las entradas del caché si cambiaron, y borra los archivos de
+     * cuentas y de estimadores que ya no usa ninguna entrada.
+     * @throws IOException si ocurre un error al escribir el caché.
+     */
+    public void escribe() throws IOException {
+        if (!modificado)
+            return;
+        directorio.mkdirs();
+        File destino = new File(directorio, ENTRADAS);
+        File temporal = temporal(destino);
+        Set<String> usadas = new HashSet<String>();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                 new FileOutputStream(temporal), StandardCharsets.UTF_8))) {
+            out.write(VERSION + "\n");
+            for (Huella h : entradas.values()) {
+                out.write(h.tamaño + "\t" + h.modificado + "\t" +
+                          h.contenido + "\t" +
+                          (h.pagina == null ? "" : h.pagina) + "\t" +
+                          h.ruta + "\n");
+                usadas.add(h.contenido + CUENTAS);
+                usadas.add(h.contenido + ESTIMADOR);
+            }
+        }
+        reemplaza(temporal, destino);
+        File[] archivos = directorio.listFiles();
+        for (File archivo : archivos)
+            if ((archivo.getName().endsWith(CUENTAS) ||
+                 archivo.getName().endsWith(ESTIMADOR)) &&
+                !usadas.contains(archivo.getName()))
+                archivo.delete();
+        modificado = false;
+    }
+
+    /* Le quita la página a la entrada de la ruta, si era suya. */
+    private void sueltaPagina(String pagina, String ruta) {
+        Huella h = ruta == null ? null : entradas.get(ruta);
+        if (h == null || !pagina.equals(h.pagina))
+            return;
+        entradas.put(ruta, new Huella(h.ruta, h.tamaño, h.modificado,
+                                      h.contenido, null));
+        modificado = true;
+    }
+
+    /* Regresa el archivo de cuentas de una huella de contenido. */
+    private File cuentas(String contenido) {
+        return new File(directorio, contenido + CUENTAS);
+    }
+
+    /* Regresa el archivo del estimador de una huella de contenido. */
+    private File estimador(String contenido) {
+        return new File(directorio, contenido + ESTIMADOR);
+    }
+
+    /* Regresa un archivo temporal único junto al archivo destino. */
+    private static File temporal(File destino) {
+        return new File(destino.getParentFile(), destino.getName() + "." +
+                        Thread.currentThread().getId() + ".tmp");
+    }
+
+    /* Reemplaza el destino con el temporal de forma atómica. */
+    private static void reemplaza(File temporal, File destino)
+        throws IOException {
+        Files.move(temporal.toPath(), destino.toPath(),
+                   StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /* Abre un lector de UTF-8. */
+    private static BufferedReader lector(File archivo) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+            new FileInputStream(archivo), StandardCharsets.UTF_8));
+    }
+
+    /* Calcula la huella SHA-256 del contenido de un archivo. */
+    private static String sha256(File archivo) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        ByteBuffer búfer = ByteBuffer.allocateDirect(1 << 16);
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                                                  StandardOpenOption.READ)) {
+            while (canal.read(búfer) != -1) {
+                búfer.flip();
+                digest.update(búfer);
+                búfer.clear();
+            }
+        }
+        StringBuilder sb = new StringBuilder();
+        for (byte b : digest.digest())
+            sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+}
@@ -12,13 +12,8 @@ public class Cola<T> extends MeteSaca<T> {
     @Override public String toString() {
 
           String s = "";
-          if (! esVacia()) {
-              Nodo n = cabeza;
-              while(n != null){
-                  s +=n.elemento.toString() + ",";
-                  n = n.siguiente;
-              }
-          }
+          for (int i = 0; i < elementos; i++)
+              s += get(i).toString() + ",";
           return s;
     }
     /**
@@ -31,13 +26,8 @@ public class Cola<T> extends MeteSaca<T> {
          if (elemento == null)
             throw new IllegalArgumentException("Elemento null");
 
-         if (esVacia()) {
-            this.cabeza = this.rabo = new Nodo(elemento);
-            return;
-        }
-
-        Nodo rb = new Nodo(elemento);
-        rabo.siguiente = rb;
-        rabo = rb;
+         aseguraEspacio();
+         arreglo[(cabeza + elementos) & (arreglo.length - 1)] = elemento;
+         elementos++;
     }
 }
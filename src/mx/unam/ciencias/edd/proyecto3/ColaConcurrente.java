@@ -0,0 +1,261 @@
+package mx.unam.ciencias.edd;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <p>Clase para colas acotadas que se pueden usar desde varios hilos a la
+ * vez, sin candados, con varios productores y varios consumidores.</p>
+ *
+ * <p>Ofrece las operaciones de {@link Cola}, más variantes que no esperan,
+ * variantes que esperan a que haya espacio o elementos, y una operación para
+ * sacar varios elementos a la vez. La capacidad acotada sirve para frenar a
+ * los productores cuando los consumidores no se dan abasto.</p>
+ *
+ * <p>Los elementos se guardan en un arreglo circular con un número de
+ * secuencia por casilla, como en la cola acotada de Dmitry Vyukov: un hilo
+ * reserva una casilla con una sola operación atómica sobre la cabeza o el
+ * rabo, y el número de secuencia de la casilla le dice si ya puede escribirla
+ * o leerla; un productor que se detiene entre reservar su casilla y
+ * escribirla retrasa sólo a quien quiera sacar de esa casilla. Meter y sacar
+ * no crean ningún objeto. Los hilos que esperan giran un poco, luego ceden el
+ * procesador y al final se duermen en intervalos cortos, por lo que esperar
+ * tampoco usa candados.</p>
+ *
+ * <p>Con varios hilos a la vez, {@link #esVacia}, {@link #getElementos} y
+ * {@link #mira} sólo describen algún momento reciente de la cola.</p>
+ */
+public class ColaConcurrente<T> {
+
+    /* Veces que un hilo que espera gira antes de ceder el procesador. */
+    private static final int GIROS = 64;
+    /* Veces que un hilo que espera cede el procesador antes de dormirse. */
+    private static final int CESIONES = 64;
+    /* Nanosegundos que se duerme un hilo que espera. */
+    private static final long SIESTA = 50_000;
+
+    /* Los elementos. */
+    private AtomicReferenceArray<T> elementos;
+    /* Los números de secuencia de las casillas. */
+    private AtomicLongArray secuencias;
+    /* La máscara para convertir posiciones en casillas. */
+    private int mascara;
+    /* La posición del siguiente elemento a sacar. */
+    private AtomicLong cabeza;
+    /* La posición del siguiente elemento a meter. */
+    private AtomicLong rabo;
+
+    /**
+     * Construye una cola vacía con al menos la capacidad recibida; la
+     * capacidad real es la menor potencia de dos que no es menor.
+     * @param capacidad la capacidad mínima de la cola.
+     * @throws IllegalArgumentException si la capacidad no está entre 1 y
+     *         2<sup>30</sup>.
+     */
+    public ColaConcurrente(int capacidad) {
+        if (capacidad < 1 || capacidad > 1 << 30)
+            throw new IllegalArgumentException("Capacidad inválida: " +
+                                               capacidad);
+        int n = Integer.highestOneBit(capacidad);
+        if (n < capacidad)
+            n <<= 1;
+        elementos = new AtomicReferenceArray<T>(n);
+        secuencias = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++)
+            secuencias.set(i, i);
+        mascara = n - 1;
+        cabeza = new AtomicLong();
+        rabo = new AtomicLong();
+    }
+
+    /**
+     * Agrega un elemento al final de la cola si hay espacio, sin esperar.
+     * @param elemento el elemento a agregar.
+     * @return <code>true</code> si se agregó el elemento,
+     *         <code>false</code> si la cola estaba llena.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public boolean ofrece(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento null");
+        long p = rabo.get();
+        while (true) {
+            int i = (int)p & mascara;
+            long d = secuencias.getAcquire(i) - p;
+            if (d == 0) {
+                if (rabo.compareAndSet(p, p + 1)) {
+                    elementos.setPlain(i, elemento);
+                    secuencias.setRelease(i, p + 1);
+                    return true;
+                }
+                p = rabo.get();
+            } else if (d < 0) {
+                return false;
+            } else {
+                p = rabo.get();
+            }
+        }
+    }
+
+    /**
+     * Agrega un elemento al final de la cola, esperando a que haya espacio.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public void mete(T elemento) throws InterruptedException {
+        for (int intento = 0; !ofrece(elemento); intento++)
+            espera(intento);
+    }
+
+    /**
+     * Elimina el elemento al inicio de la cola y lo regresa, sin esperar.
+     * @return el elemento al inicio de la cola, o <code>null</code> si la
+     *         cola está vacía.
+     */
+    public T intentaSacar() {
+        long p = cabeza.get();
+        while (true) {
+            int i = (int)p & mascara;
+            long d = secuencias.getAcquire(i) - (p + 1);
+            if (d == 0) {
+                if (cabeza.compareAndSet(p, p + 1)) {
+                    T r = elementos.getPlain(i);
+                    elementos.setPlain(i, null);
+                    secuencias.setRelease(i, p + mascara + 1);
+                    return r;
+                }
+                p = cabeza.get();
+            } else if (d < 0) {
+                return null;
+            } else {
+                p = cabeza.get();
+            }
+        }
+    }
+
+    /**
+     * Elimina el elemento al inicio de la cola y lo regresa, sin esperar.
+     * @return el elemento al inicio de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    public T saca() {
+        T r = intentaSacar();
+        if (r == null)
+            throw new NoSuchElementException("Estructura vacía");
+        return r;
+    }
+
+    /**
+     * Elimina el elemento al inicio de la cola y lo regresa, esperando a que
+     * haya uno.
+     * @return el elemento al inicio de la cola.
+     * @throws InterruptedException si se interrumpe la espera.
+     */
+    public T sacaEsperando() throws InterruptedException {
+        T r;
+        for (int intento = 0; (r = intentaSacar()) == null; intento++)
+            espera(intento);
+        return r;
+    }
+
+    /**
+     * Saca de la cola hasta <i>m</i> elementos y los mete en el orden en que
+     * salen a la cola recibida, sin esperar. Los elementos consecutivos que
+     * ya se pueden leer se reservan con una sola operación atómica, por lo
+     * que sacar muchos elementos así es más barato que sacarlos uno por uno.
+     * @param destino la cola donde se meten los elementos.
+     * @param m el número máximo de elementos a sacar.
+     * @return el número de elementos que se sacaron.
+     * @throws IllegalArgumentException si m es negativo.
+     */
+    public int sacaTodos(Cola<? super T> destino, int m) {
+        if (m < 0)
+            throw new IllegalArgumentException("m no puede ser negativo.");
+        int sacados = 0;
+        while (sacados < m) {
+            long p = cabeza.get();
+            int k = 0;
+            while (sacados + k < m && k <= mascara &&
+                   secuencias.getAcquire((int)(p + k) & mascara) == p + k + 1)
+                k++;
+            if (k == 0)
+                return sacados;
+            if (!cabeza.compareAndSet(p, p + k))
+                continue;
+            for (int j = 0; j < k; j++) {
+                int i = (int)(p + j) & mascara;
+                T r = elementos.getPlain(i);
+                elementos.setPlain(i, null);
+                secuencias.setRelease(i, p + j + mascara + 1);
+                destino.mete(r);
+            }
+            sacados += k;
+        }
+        return sacados;
+    }
+
+    /**
+     * Nos permite ver el elemento al inicio de la cola, sin sacarlo.
+     * @return el elemento al inicio de la cola.
+     * @throws NoSuchElementException si la cola está vacía.
+     */
+    public T mira() {
+        while (true) {
+            long p = cabeza.get();
+            int i = (int)p & mascara;
+            if (secuencias.getAcquire(i) != p + 1)
+                throw new NoSuchElementException("Estructura vacía");
+            T r = elementos.getAcquire(i);
+            if (r != null && cabeza.get() == p)
+                return r;
+        }
+    }
+
+    /**
+     * Nos dice si la cola está vacía.
+     * @return <tt>true</tt> si la cola no tiene elementos,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean esVacia() {
+        return getElementos() == 0;
+    }
+
+    /**
+     * Regresa el número de elementos en la cola.
+     * @return el número de elementos en la cola.
+     */
+    public int getElementos() {
+        while (true) {
+            long c = cabeza.get();
+            long r = rabo.get();
+            if (cabeza.get() == c)
+                return (int)Math.max(0, Math.min(r - c, mascara + 1));
+        }
+    }
+
+    /**
+     * Regresa la capacidad de la cola.
+     * @return la capacidad de la cola.
+     */
+    public int getCapacidad() {
+        return mascara + 1;
+    }
+
+    /* Espera un poco antes de volver a intentar meter o sacar. */
+    private static void espera(int intento) throws InterruptedException {
+        if (intento < GIROS)
+            Thread.onSpinWait();
+        else if (intento < GIROS + CESIONES)
+            Thread.yield();
+        else
+            LockSupport.parkNanos(SIESTA);
+        if (Thread.interrupted())
+            throw new InterruptedException();
+    }
+}
@@ -0,0 +1,139 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <p>Enumeración para las formas de escribir los archivos de salida: sin
+ * comprimir, con una copia comprimida con gzip junto al original, o sólo
+ * comprimidos. La copia de <code>pagina.html</code> es
+ * <code>pagina.html.gz</code>, el nombre que buscan los servidores de
+ * archivos estáticos que sirven versiones precomprimidas.</p>
+ *
+ * <p>Los bytes se comprimen conforme se escriben, por lo que comprimir no
+ * requiere tener el archivo completo en memoria.</p>
+ */
+public enum Compresion {
+    /** Sólo se escribe el archivo sin comprimir. */
+    NINGUNA,
+    /** Se escriben el archivo y una copia comprimida. */
+    COPIA,
+    /** Sólo se escribe el archivo comprimido. */
+    SOLO;
+
+    /** Extensión de los archivos comprimidos. */
+    public static final String EXTENSION = ".gz";
+
+    /* Tamaño del búfer del compresor. */
+    private static final int BUFER = 1 << 16;
+
+    /**
+     * Interfaz para abrir el flujo de salida de un archivo.
+     */
+    @FunctionalInterface
+    public interface Apertura {
+
+        /**
+         * Abre un flujo que escribe en el archivo recibido.
+         * @param archivo el archivo.
+         * @return el flujo.
+         * @throws IOException si no se puede abrir el archivo.
+         */
+        OutputStream abre(File archivo) throws IOException;
+    }
+
+    /* Flujo que escribe los mismos bytes en dos flujos. */
+    private static class SalidaDoble extends OutputStream {
+
+        /* Los flujos. */
+        private OutputStream a, b;
+
+        /* Construye un flujo que escribe en a y en b. */
+        private SalidaDoble(OutputStream a, OutputStream b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override public void write(int c) throws IOException {
+            a.write(c);
+            b.write(c);
+        }
+
+        @Override public void write(byte[] c, int inicio, int n)
+            throws IOException {
+            a.write(c, inicio, n);
+            b.write(c, inicio, n);
+        }
+
+        @Override public void flush() throws IOException {
+            a.flush();
+            b.flush();
+        }
+
+        @Override public void close() throws IOException {
+            try {
+                a.close();
+            } finally {
+                b.close();
+            }
+        }
+    }
+
+    /**
+     * Regresa los archivos que se escriben para el destino recibido.
+     * @param destino el archivo sin comprimir.
+     * @return los archivos que se escriben.
+     */
+    public File[] archivos(File destino) {
+        switch (this) {
+        case COPIA:
+            return new File[] { destino, comprimido(destino) };
+        case SOLO:
+            return new File[] { comprimido(destino) };
+        default:
+            return new File[] { destino };
+        }
+    }
+
+    /**
+     * Regresa el archivo principal que se escribe para el destino recibido:
+     * el comprimido si sólo se escribe ése, o el destino en otro caso.
+     * @param destino el archivo sin comprimir.
+     * @return el archivo principal.
+     */
+    public File principal(File destino) {
+        return this == SOLO ? comprimido(destino) : destino;
+    }
+
+    /**
+     * Abre un flujo que escribe en los archivos del destino recibido,
+     * comprimiendo lo que vaya a los archivos comprimidos. Cerrar el flujo
+     * termina la compresión y cierra los flujos abiertos con la apertura.
+     * @param destino el archivo sin comprimir.
+     * @param apertura la forma de abrir los flujos de cada archivo.
+     * @return el flujo.
+     * @throws IOException si no se puede abrir alguno de los archivos.
+     */
+    public OutputStream abre(File destino, Apertura apertura)
+        throws IOException {
+        if (this == NINGUNA)
+            return apertura.abre(destino);
+        OutputStream gz = new GZIPOutputStream(
+            apertura.abre(comprimido(destino)), BUFER);
+        if (this == SOLO)
+            return gz;
+        try {
+            return new SalidaDoble(apertura.abre(destino), gz);
+        } catch (IOException e) {
+            gz.close();
+            throw e;
+        }
+    }
+
+    /* Regresa la copia comprimida de un archivo. */
+    private static File comprimido(File destino) {
+        return new File(destino.getPath() + EXTENSION);
+    }
+}
@@ -0,0 +1,105 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para contar palabras de forma aproximada con memoria fija.</p>
+ *
+ * <p>El contador combina un {@link BosquejoCuentaMinima}, que estima la
+ * frecuencia de cualquier palabra, con un {@link ResumenAhorroEspacio}, que
+ * vigila las palabras más frecuentes. La memoria depende sólo del número de
+ * contadores del resumen y de los parámetros del bosquejo, y no del tamaño
+ * del vocabulario.</p>
+ *
+ * <p>El análisis que produce contiene sólo las palabras vigiladas. La cuenta
+ * de cada una es el mínimo entre la del resumen y la del bosquejo; como las
+ * dos nunca son menores que la cuenta real, el mínimo tampoco, y excede a la
+ * real en a lo más el error del resumen para esa palabra, que es a lo más
+ * <i>N</i>/<i>k</i>. Además, con probabilidad 1 - δ la excede en a lo más
+ * ε<i>N</i>.</p>
+ *
+ * <p>Todas las palabras pasan también por un {@link HiperLogLog}, para
+ * estimar el vocabulario completo y no sólo el de las palabras vigiladas.</p>
+ */
+public class ContadorAproximado {
+
+    /** Error relativo predeterminado del bosquejo. */
+    public static final double EPSILON = 0.0001;
+    /** Probabilidad de fallo predeterminada del bosquejo. */
+    public static final double DELTA = 0.001;
+
+    /* El bosquejo de frecuencias. */
+    private BosquejoCuentaMinima bosquejo;
+    /* El resumen de las palabras más frecuentes. */
+    private ResumenAhorroEspacio resumen;
+    /* El estimador de las palabras distintas. */
+    private HiperLogLog hiperLogLog;
+
+    /**
+     * Construye un contador aproximado con el número de contadores recibido
+     * y los parámetros predeterminados del bosquejo.
+     * @param contadores el número de palabras vigiladas.
+     */
+    public ContadorAproximado(int contadores) {
+        this(contadores, EPSILON, DELTA);
+    }
+
+    /**
+     * Construye un contador aproximado.
+     * @param contadores el número de palabras vigiladas.
+     * @param epsilon el error relativo ε del bosquejo.
+     * @param delta la probabilidad de fallo δ del bosquejo.
+     */
+    public ContadorAproximado(int contadores, double epsilon, double delta) {
+        bosquejo = new BosquejoCuentaMinima(epsilon, delta);
+        resumen = new ResumenAhorroEspacio(contadores);
+        hiperLogLog = new HiperLogLog();
+    }
+
+    /**
+     * Cuenta una aparición de la palabra de la vista.
+     * @param palabra la vista con la palabra.
+     */
+    public void incrementa(VistaPalabra palabra) {
+        bosquejo.incrementa(palabra);
+        resumen.incrementa(palabra);
+        hiperLogLog.agrega(palabra);
+    }
+
+    /**
+     * Regresa la estimación de la frecuencia de una palabra cualquiera.
+     * @param palabra la palabra.
+     * @return la estimación de la frecuencia; nunca es menor que la real.
+     */
+    public int estima(String palabra) {
+        return bosquejo.estima(palabra);
+    }
+
+    /**
+     * Regresa el total de palabras contadas.
+     * @return el total de palabras contadas.
+     */
+    public long getTotal() {
+        return bosquejo.getTotal();
+    }
+
+    /**
+     * Regresa el análisis de las palabras vigiladas, con las cotas de error
+     * de sus cuentas.
+     * @return el análisis de las palabras vigiladas.
+     */
+    public Analisis analisis() {
+        DiccionarioContador dic =
+            new DiccionarioContador(resumen.getElementos());
+        long error = 0;
+        for (int i = 0; i < resumen.getElementos(); i++) {
+            int cuenta = Math.min(resumen.getCuenta(i),
+                                  bosquejo.estima(resumen.getPalabra(i)));
+            dic.agrega(resumen.getPalabra(i), cuenta);
+            /* La cuenta real es al menos la del resumen menos su error. */
+            int e = cuenta - (resumen.getCuenta(i) - resumen.getError(i));
+            if (e > error)
+                error = e;
+        }
+        return new Analisis(dic, getTotal(), hiperLogLog, error,
+                            bosquejo.getError(), bosquejo.getConfianza());
+    }
+}
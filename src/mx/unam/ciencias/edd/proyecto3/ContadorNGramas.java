@@ -0,0 +1,288 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para contar los <i>n</i>-gramas de un texto: las sucesiones de
+ * <i>n</i> palabras consecutivas.</p>
+ *
+ * <p>Cada palabra distinta recibe un identificador entero la primera vez que
+ * aparece, y es la única vez que se construye su cadena; si el contador se
+ * construye con el diccionario que cuenta las palabras del mismo texto, la
+ * cadena se toma del diccionario y no se construye ninguna. Un <i>n</i>-grama
+ * se representa empacando los identificadores de sus palabras en un
+ * <code>long</code>, y se cuenta en un {@link DiccionarioLargo}; así, contar
+ * no crea ningún objeto, y la memoria depende sólo del número de palabras y
+ * de <i>n</i>-gramas distintos. Se cuentan a la vez los <i>n</i>-gramas de
+ * todos los tamaños desde 2 hasta el recibido.</p>
+ *
+ * <p>Los bigramas usan 32 bits por palabra y los trigramas 21, por lo que un
+ * trigrama con una palabra de identificador mayor a 2<sup>21</sup> - 1 no
+ * cabe en una llave; esos trigramas no se cuentan y se reportan como
+ * descartados.</p>
+ */
+public class ContadorNGramas {
+
+    /** Tamaño máximo de los <i>n</i>-gramas. */
+    public static final int MAXIMO = 3;
+
+    /* Bits de cada identificador en las llaves de cada tamaño. */
+    private static final int[] BITS = { 0, 0, 32, 21 };
+    /* Capacidad inicial de la tabla de palabras. */
+    private static final int CAPACIDAD = 64;
+
+    /* El tamaño máximo de los n-gramas que se cuentan. */
+    private int n;
+    /* Las tablas de n-gramas; la de tamaño k está en la posición k. */
+    private DiccionarioLargo[] tablas;
+    /* Los n-gramas de cada tamaño que no cupieron en una llave. */
+    private long[] descartados;
+
+    /* El diccionario de donde se toman las cadenas, o null. */
+    private DiccionarioContador diccionario;
+    /* Las palabras, por identificador. */
+    private String[] palabras;
+    /* El número de palabras distintas. */
+    private int distintas;
+    /* La tabla de palabras: el identificador más uno; cero si está vacía. */
+    private int[] casillas;
+
+    /* Los identificadores de las últimas n palabras, la más reciente al
+       final. */
+    private int[] ventana;
+    /* El número de palabras en la ventana. */
+    private int enVentana;
+
+    /**
+     * Construye un contador de los <i>n</i>-gramas de tamaño 2 hasta
+     * <i>n</i>.
+     * @param n el tamaño máximo de los <i>n</i>-gramas.
+     * @throws IllegalArgumentException si n no está entre 2 y {@link
+     *         #MAXIMO}.
+     */
+    public ContadorNGramas(int n) {
+        this(n, null);
+    }
+
+    /**
+     * Construye un contador de los <i>n</i>-gramas de tamaño 2 hasta
+     * <i>n</i> que toma las cadenas de las palabras del diccionario recibido.
+     * Cada palabra se debe contar en el diccionario antes de agregarse al
+     * contador; si no está en el diccionario, se construye su cadena.
+     * @param n el tamaño máximo de los <i>n</i>-gramas.
+     * @param diccionario el diccionario que cuenta las palabras del texto, o
+     *                    <code>null</code>.
+     * @throws IllegalArgumentException si n no está entre 2 y {@link
+     *         #MAXIMO}.
+     */
+    public ContadorNGramas(int n, DiccionarioContador diccionario) {
+        if (n < 2 || n > MAXIMO)
+            throw new IllegalArgumentException("n debe estar entre 2 y " +
+                                               MAXIMO + ".");
+        this.n = n;
+        this.diccionario = diccionario;
+        tablas = new DiccionarioLargo[n + 1];
+        for (int k = 2; k <= n; k++)
+            tablas[k] = new DiccionarioLargo();
+        descartados = new long[n + 1];
+        palabras = new String[CAPACIDAD];
+        casillas = new int[2 * CAPACIDAD];
+        ventana = new int[n];
+    }
+
+    /**
+     * Agrega la siguiente palabra del texto, contando los <i>n</i>-gramas
+     * que terminan en ella.
+     * @param palabra la vista con la palabra.
+     */
+    public void agrega(VistaPalabra palabra) {
+        int id = identificador(palabra);
+        for (int i = 0; i < n - 1; i++)
+            ventana[i] = ventana[i + 1];
+        ventana[n - 1] = id;
+        if (enVentana < n)
+            enVentana++;
+        for (int k = 2; k <= enVentana; k++) {
+            long llave = 0;
+            boolean cabe = true;
+            for (int i = n - k; i < n; i++) {
+                if ((long)ventana[i] >>> BITS[k] != 0)
+                    cabe = false;
+                llave = llave << BITS[k] | ventana[i];
+            }
+            if (cabe)
+                tablas[k].incrementa(llave);
+            else
+                descartados[k]++;
+        }
+    }
+
+    /**
+     * Regresa el tamaño máximo de los <i>n</i>-gramas que se cuentan.
+     * @return el tamaño máximo de los <i>n</i>-gramas.
+     */
+    public int getN() {
+        return n;
+    }
+
+    /**
+     * Regresa el número de <i>k</i>-gramas distintos.
+     * @param k el tamaño de los <i>k</i>-gramas.
+     * @return el número de <i>k</i>-gramas distintos.
+     * @throws IllegalArgumentException si k no está entre 2 y {@link #getN}.
+     */
+    public int getDistintos(int k) {
+        return tabla(k).getElementos();
+    }
+
+    /**
+     * Regresa el número de <i>k</i>-gramas contados.
+     * @param k el tamaño de los <i>k</i>-gramas.
+     * @return el número de <i>k</i>-gramas contados.
+     * @throws IllegalArgumentException si k no está entre 2 y {@link #getN}.
+     */
+    public long getTotal(int k) {
+        return tabla(k).getTotal();
+    }
+
+    /**
+     * Regresa el número de <i>k</i>-gramas que no se contaron porque no
+     * cupieron en una llave.
+     * @param k el tamaño de los <i>k</i>-gramas.
+     * @return el número de <i>k</i>-gramas descartados.
+     * @throws IllegalArgumentException si k no está entre 2 y {@link #getN}.
+     */
+    public long getDescartados(int k) {
+        tabla(k);
+        return descartados[k];
+    }
+
+    /**
+     * Regresa el número de bytes de las tablas del contador, sin contar las
+     * cadenas de las palabras.
+     * @return el número de bytes de las tablas del contador.
+     */
+    public long memoria() {
+        long memoria = 8L * palabras.length + 4L * casillas.length;
+        for (int k = 2; k <= n; k++)
+            memoria += tablas[k].memoria();
+        return memoria;
+    }
+
+    /**
+     * Regresa los <i>m</i> <i>k</i>-gramas más usados, del más al menos
+     * usado, con sus palabras separadas por un espacio. Como en {@link
+     * DiccionarioContador#mayores}, se recorre la tabla una vez con un
+     * montículo de a lo más <i>m</i> elementos, y la cadena de un
+     * <i>k</i>-grama sólo se construye si puede entrar al montículo.
+     * @param k el tamaño de los <i>k</i>-gramas.
+     * @param m el número de <i>k</i>-gramas que queremos.
+     * @return un arreglo con los min(<i>m</i>, {@link #getDistintos})
+     *         <i>k</i>-gramas más usados.
+     * @throws IllegalArgumentException si k no está entre 2 y {@link #getN},
+     *         o si m es negativo.
+     */
+    public PalabraContada[] mayores(int k, int m) {
+        DiccionarioLargo tabla = tabla(k);
+        if (m < 0)
+            throw new IllegalArgumentException("m no puede ser negativo.");
+        MonticuloMinimo<PalabraContada> monticulo =
+            new MonticuloMinimo<PalabraContada>();
+        for (int i = 0; m > 0 && i < tabla.getTamanioEntradas(); i++) {
+            int cuenta = tabla.getCantidadEnIndice(i);
+            if (cuenta == 0)
+                continue;
+            if (monticulo.getElementos() < m) {
+                monticulo.agrega(new PalabraContada(
+                    cadena(tabla.getLlaveEnIndice(i), k), cuenta));
+                continue;
+            }
+            PalabraContada minimo = monticulo.get(0);
+            if (cuenta < minimo.getCantidad())
+                continue;
+            PalabraContada candidata = new PalabraContada(
+                cadena(tabla.getLlaveEnIndice(i), k), cuenta);
+            if (candidata.compareTo(minimo) <= 0)
+                continue;
+            monticulo.elimina();
+            monticulo.agrega(candidata);
+        }
+        PalabraContada[] mayores = new PalabraContada[monticulo.getElementos()];
+        for (int i = mayores.length - 1; i >= 0; i--)
+            mayores[i] = monticulo.elimina();
+        return mayores;
+    }
+
+    /* Regresa la tabla de los k-gramas. */
+    private DiccionarioLargo tabla(int k) {
+        if (k < 2 || k > n)
+            throw new IllegalArgumentException("k debe estar entre 2 y " +
+                                               n + ".");
+        return tablas[k];
+    }
+
+    /* Regresa las palabras de la llave de un k-grama separadas por
+     * espacios. */
+    private String cadena(long llave, int k) {
+        long mascara = (1L << BITS[k]) - 1;
+        StringBuilder sb = new StringBuilder();
+        for (int i = k - 1; i >= 0; i--) {
+            sb.append(palabras[(int)(llave >>> (BITS[k] * i) & mascara)]);
+            if (i > 0)
+                sb.append(' ');
+        }
+        return sb.toString();
+    }
+
+    /* Regresa el identificador de la palabra, asignándole uno nuevo si es la
+     * primera vez que aparece. */
+    private int identificador(VistaPalabra palabra) {
+        int i = busca(palabra);
+        if (casillas[i] != 0)
+            return casillas[i] - 1;
+        if (distintas == palabras.length) {
+            String[] a = palabras;
+            palabras = new String[a.length << 1];
+            System.arraycopy(a, 0, palabras, 0, a.length);
+        }
+        String cadena = diccionario == null ? null :
+            diccionario.getLlave(palabra);
+        palabras[distintas] = cadena != null ? cadena : palabra.toString();
+        casillas[i] = ++distintas;
+        if ((double)distintas / casillas.length >= DiccionarioLargo.MAXIMA_CARGA)
+            aumentaTamaño();
+        return distintas - 1;
+    }
+
+    /* Regresa la casilla donde está la palabra, o la casilla vacía donde
+     * debería ir. */
+    private int busca(VistaPalabra palabra) {
+        int h = palabra.hashCode();
+        int m = casillas.length - 1;
+        int i = dispersa(h) & m;
+        while (casillas[i] != 0) {
+            String s = palabras[casillas[i] - 1];
+            if (s.hashCode() == h && palabra.iguales(s))
+                return i;
+            i = (i + 1) & m;
+        }
+        return i;
+    }
+
+    /* Duplica la tabla de palabras y vuelve a acomodar los
+     * identificadores. */
+    private void aumentaTamaño() {
+        casillas = new int[casillas.length << 1];
+        int m = casillas.length - 1;
+        for (int id = 0; id < distintas; id++) {
+            int i = dispersa(palabras[id].hashCode()) & m;
+            while (casillas[i] != 0)
+                i = (i + 1) & m;
+            casillas[i] = id + 1;
+        }
+    }
+
+    /* Mezcla los bits altos del código con los bajos. */
+    private static int dispersa(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -1,439 +1,608 @@
-  package mx.unam.ciencias.edd;
-
-  import java.lang.reflect.Array;
-  import java.util.Iterator;
-  import java.util.NoSuchElementException;
-
-  /**
-   * Clase para diccionarios (<em>hash tables</em>). Un diccionario generaliza el
-   * concepto de arreglo.
-   */
-  public class DiccionarioContador<K, V> implements Iterable<V> {
-
-      /* Clase para las entradas del diccionario. */
-      private class Entrada {
-
-          /* La llave. */
-          public K llave;
-          /* El valor. */
-          public V valor;
-
-          /* Construye una nueva entrada. */
-          public Entrada(K llave, V valor) {
-            this.llave = llave;
-            this.valor = valor;
-          }
-      }
-
-      /* Clase privada para iteradores de diccionarios. */
-      private class Iterador {
-
-          /* En qué lista estamos. */
-          private int indice;
-          /* Iterador auxiliar. */
-          private Iterator<Entrada> iterador;
-
-          /* Construye un nuevo iterador, auxiliándose de las listas del
-           * diccionario. */
-          public Iterador() {
-            iterador =null;
-            if (entradas == null || elementos == 0){
-              iterador = null;
-              indice =0;
-              return;
-            }
-            while(indice < entradas.length){
-              if( entradas[indice] != null && !entradas[indice].esVacia()){
-                iterador = entradas[indice].iterator();
-                break;
-              }
-              indice ++;
-            }
-          }
-
-          /* Nos dice si hay una siguiente entrada. */
-          public boolean hasNext() {
-              return iterador != null;
-          }
-
-          /* Regresa la siguiente entrada. */
-          public Entrada siguiente() {
-            if( iterador == null)
-              throw new NoSuchElementException();
-            Entrada e = iterador.next();
-            if (!iterador.hasNext() ){
-              indice ++;
-              while( entradas.length > indice ){
-                if( entradas[indice] != null && !entradas[indice].esVacia()){
-                  iterador = entradas[indice].iterator();
-                  break;
-                }
-                indice ++;
-              }
-              if( indice == entradas.length){
-                  iterador = null;
-              }
-            }
-            return e;
-          }
-      }
-
-      /* Clase privada para iteradores de llaves de diccionarios. */
-      private class IteradorLlaves extends Iterador
-          implements Iterator<K> {
-
-          /* Construye un nuevo iterador de llaves del diccionario. */
-          public IteradorLlaves() {
-              super();
-          }
-
-          /* Regresa el siguiente elemento. */
-          @Override public K next() {
-              return siguiente().llave;
-          }
-      }
-
-      /* Clase privada para iteradores de valores de diccionarios. */
-      private class IteradorValores extends Iterador
-          implements Iterator<V> {
-
-          /* Construye un nuevo iterador de llaves del diccionario. */
-          public IteradorValores() {
-              super();
-          }
-
-          /* Regresa el siguiente elemento. */
-          @Override public V next() {
-              return siguiente().valor;
-          }
-      }
-
-      /** Máxima carga permitida por el diccionario. */
-      public static final double MAXIMA_CARGA = 0.72;
-
-      /* Capacidad mínima; decidida arbitrariamente a 2^6. */
-      private static final int MINIMA_CAPACIDAD = 64;
-
-      /* Dispersor. */
-      private Dispersor<K> dispersor;
-      /* Nuestro diccionario. */
-      private Lista<Entrada>[] entradas;
-      /* Número de valores*/
-      private int elementos;
-
-      /* Truco para crear un arreglo genérico. Es necesario hacerlo así por cómo
-         Java implementa sus genéricos; de otra forma obtenemos advertencias del
-         compilador. */
-      @SuppressWarnings("unchecked")
-      private Lista<Entrada>[] nuevoArreglo(int n) {
-          return (Lista<Entrada>[])Array.newInstance(Lista.class, n);
-      }
-
-      /**
-       * Construye un diccionario con una capacidad inicial y dispersor
-       * predeterminados.
-       */
-      public DiccionarioContador() {
-          this(MINIMA_CAPACIDAD, (K llave) -> llave.hashCode());
-      }
-
-      /**
-       * Construye un diccionario con una capacidad inicial definida por el
-       * usuario, y un dispersor predeterminado.
-       * @param capacidad la capacidad a utilizar.
-       */
-      public DiccionarioContador(int capacidad) {
-          this(capacidad, (K llave) -> llave.hashCode());
-      }
-
-      /**
-       * Construye un diccionario con una capacidad inicial predeterminada, y un
-       * dispersor definido por el usuario.
-       * @param dispersor el dispersor a utilizar.
-       */
-      public DiccionarioContador(Dispersor<K> dispersor) {
-          this(MINIMA_CAPACIDAD, dispersor);
-      }
-
-      /**
-       * Construye un diccionario con una capacidad inicial y un método de
-       * dispersor definidos por el usuario.
-       * @param capacidad la capacidad inicial del diccionario.
-       * @param dispersor el dispersor a utilizar.
-       */
-      public DiccionarioContador(int capacidad, Dispersor<K> dispersor) {
-        int cap = longitud(capacidad);
-        entradas = nuevoArreglo(cap);
-        this.dispersor = dispersor;
-        elementos = 0;
-      }
-
-      /**
-       * Agrega un nuevo valor al diccionario, usando la llave proporcionada. Si
-       * la llave ya había sido utilizada antes para agregar un valor, el
-       * diccionario reemplaza ese valor con el recibido aquí.
-       * @param llave la llave para agregar el valor.
-       * @param valor el valor a agregar.
-       * @throws IllegalArgumentException si la llave o el valor son nulos.
-       */
-      public void agrega(K llave, V valor) {
-        if( llave == null || valor == null)
-            throw new IllegalArgumentException();
-        int i = mascara(llave);
-        Entrada entrada = new Entrada(llave, valor);
-        if (entradas[i] == null){
-            entradas[i] = new Lista<Entrada>();
+package mx.unam.ciencias.edd;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para diccionarios contadores de palabras.</p>
+ *
+ * <p>El diccionario usa direccionamiento abierto con sondeo lineal: cada
+ * palabra distinta ocupa una sola casilla del arreglo de llaves, y su número
+ * de apariciones se guarda como un <code>int</code> en la misma casilla del
+ * arreglo de cuentas. Así, la memoria utilizada depende del número de
+ * palabras distintas, y no del número de palabras contadas.</p>
+ *
+ * <p>Una cuenta nunca se desborda: se topa en {@link Integer#MAX_VALUE}, y
+ * las apariciones que ya no caben se siguen contando en el total y se
+ * reportan con {@link #getDesbordadas}.</p>
+ *
+ * <p>El diccionario no acepta a <code>null</code> como llave.</p>
+ */
+public class DiccionarioContador implements Iterable<String> {
+
+    /* Clase privada para iteradores de diccionarios contadores. */
+    private class Iterador implements Iterator<String> {
+
+        /* La siguiente casilla ocupada. */
+        private int indice;
+
+        /* Construye un nuevo iterador. */
+        public Iterador() {
+            indice = siguienteOcupada(0);
         }
-        entradas[i].agrega(entrada);
-        elementos ++;
-        if( carga() >= MAXIMA_CARGA){
-            aumentaTamaño();
+
+        /* Nos dice si hay una siguiente palabra. */
+        @Override public boolean hasNext() {
+            return indice < llaves.length;
         }
-      }
-
-      /**
-       * Regresa el valor del diccionario asociado a la llave proporcionada.
-       * @param llave la llave para buscar el valor.
-       * @return el valor correspondiente a la llave.
-       * @throws IllegalArgumentException si la llave es nula.
-       * @throws NoSuchElementException si la llave no está en el diccionario.
-       */
-      public V get(K llave) {
-        if( llave == null)
-            throw new IllegalArgumentException();
-        int i = mascara(llave);
-        if( entradas[i] == null)
-            throw new NoSuchElementException();
-        for (Entrada e : entradas[i]){
-            if( e.llave.equals(llave)){
-              return e.valor;
-            }
+
+        /* Regresa la siguiente palabra. */
+        @Override public String next() {
+            if (indice >= llaves.length)
+                throw new NoSuchElementException("No hay siguiente.");
+            String llave = llaves[indice];
+            indice = siguienteOcupada(indice + 1);
+            return llave;
         }
-        throw new NoSuchElementException();
-      }
-
-      /**
-       * Nos dice si una llave se encuentra en el diccionario.
-       * @param llave la llave que queremos ver si está en el diccionario.
-       * @return <tt>true</tt> si la llave está en el diccionario,
-       *         <tt>false</tt> en otro caso.
-       */
-      public boolean contiene(K llave) {
-        if( llave == null)
-            return false;
-        int i = mascara(llave);
-        if( entradas[i] == null)
+    }
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Las llaves; una casilla vacía es null. */
+    private String[] llaves;
+    /* Las cuentas de cada llave, en la misma casilla. */
+    private int[] cuentas;
+    /* Número de palabras distintas. */
+    private int elementos;
+    /* Número de palabras contadas. */
+    private long total;
+    /* Número de apariciones que no cupieron en cuentas topadas. */
+    private long desbordadas;
+    /* Suma de las longitudes de las llaves. */
+    private long caracteres;
+
+    /**
+     * Construye un diccionario contador con una capacidad inicial
+     * predeterminada.
+     */
+    public DiccionarioContador() {
+        this(MINIMA_CAPACIDAD);
+    }
+
+    /**
+     * Construye un diccionario contador con una capacidad inicial definida por
+     * el usuario.
+     * @param capacidad la capacidad a utilizar.
+     */
+    public DiccionarioContador(int capacidad) {
+        int cap = longitud(capacidad);
+        llaves = new String[cap];
+        cuentas = new int[cap];
+        elementos = 0;
+        total = 0;
+        desbordadas = 0;
+        caracteres = 0;
+    }
+
+    /**
+     * Incrementa en uno la cuenta de la llave. Si la llave no estaba en el
+     * diccionario, se agrega con cuenta uno.
+     * @param llave la llave a contar.
+     * @return la nueva cuenta de la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     */
+    public int incrementa(String llave) {
+        return agrega(llave, 1);
+    }
+
+    /**
+     * Incrementa en uno la cuenta de la palabra de la vista. La búsqueda usa
+     * el código de dispersión que la vista ya calculó, y la cadena de la
+     * llave sólo se construye la primera vez que aparece la palabra; contar
+     * una palabra repetida no crea ningún objeto.
+     * @param palabra la vista con la palabra.
+     * @return la nueva cuenta de la palabra.
+     * @throws IllegalArgumentException si la palabra es vacía.
+     */
+    public int incrementa(VistaPalabra palabra) {
+        if (palabra.length() < 1)
+            throw new IllegalArgumentException("Palabra vacía.");
+        int i = busca(palabra);
+        total++;
+        if (llaves[i] != null)
+            return suma(i, 1);
+        llaves[i] = palabra.toString();
+        cuentas[i] = 1;
+        elementos++;
+        caracteres += palabra.length();
+        if (carga() >= MAXIMA_CARGA)
+            aumentaTamaño();
+        return 1;
+    }
+
+    /**
+     * Suma una cantidad a la cuenta de la llave, topándola en {@link
+     * Integer#MAX_VALUE}. Si la llave no estaba en el diccionario, se agrega
+     * con la cantidad recibida.
+     * @param llave la llave a contar.
+     * @param cantidad la cantidad a sumar.
+     * @return la nueva cuenta de la llave.
+     * @throws IllegalArgumentException si la llave es nula o la cantidad no
+     *         es positiva.
+     */
+    public int agrega(String llave, int cantidad) {
+        if (llave == null || cantidad < 1)
+            throw new IllegalArgumentException("Llave nula o cantidad inválida.");
+        int i = busca(llave);
+        total += cantidad;
+        if (llaves[i] != null)
+            return suma(i, cantidad);
+        llaves[i] = llave;
+        cuentas[i] = cantidad;
+        elementos++;
+        caracteres += llave.length();
+        if (carga() >= MAXIMA_CARGA)
+            aumentaTamaño();
+        return cantidad;
+    }
+
+    /**
+     * Suma al diccionario todas las cuentas del diccionario recibido, y sus
+     * apariciones desbordadas. El diccionario recibido no se modifica.
+     * @param dic el diccionario cuyas cuentas se suman.
+     * @throws IllegalArgumentException si el diccionario es nulo.
+     */
+    public void combina(DiccionarioContador dic) {
+        if (dic == null)
+            throw new IllegalArgumentException("Diccionario nulo.");
+        for (int i = 0; i < dic.llaves.length; i++)
+            if (dic.llaves[i] != null)
+                agrega(dic.llaves[i], dic.cuentas[i]);
+        agregaDesbordadas(dic.desbordadas);
+    }
+
+    /**
+     * Suma al total y a las desbordadas apariciones que se desbordaron en
+     * otro conteo, por ejemplo en el de una tabla guardada.
+     * @param cantidad el número de apariciones desbordadas.
+     * @throws IllegalArgumentException si la cantidad es negativa.
+     */
+    public void agregaDesbordadas(long cantidad) {
+        if (cantidad < 0)
+            throw new IllegalArgumentException("Cantidad inválida.");
+        total += cantidad;
+        desbordadas += cantidad;
+    }
+
+    /**
+     * Regresa la cuenta asociada a la llave proporcionada.
+     * @param llave la llave para buscar la cuenta.
+     * @return la cuenta correspondiente a la llave.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no está en el diccionario.
+     */
+    public int get(String llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula.");
+        int i = busca(llave);
+        if (llaves[i] == null)
+            throw new NoSuchElementException("La llave no está en el diccionario.");
+        return cuentas[i];
+    }
+
+    /**
+     * Regresa la cuenta de la palabra de la vista, sin construir una cadena.
+     * @param palabra la vista con la palabra.
+     * @return la cuenta correspondiente a la palabra.
+     * @throws NoSuchElementException si la palabra no está en el diccionario.
+     */
+    public int get(VistaPalabra palabra) {
+        int i = busca(palabra);
+        if (llaves[i] == null)
+            throw new NoSuchElementException("La llave no está en el diccionario.");
+        return cuentas[i];
+    }
+
+    /**
+     * Regresa la cadena con la que el diccionario guarda la palabra de la
+     * vista, para que otras estructuras la compartan en lugar de construir
+     * una cadena igual.
+     * @param palabra la vista con la palabra.
+     * @return la cadena de la palabra en el diccionario, o <code>null</code>
+     *         si la palabra no está en el diccionario.
+     */
+    public String getLlave(VistaPalabra palabra) {
+        return llaves[busca(palabra)];
+    }
+
+    /**
+     * Nos dice si una llave se encuentra en el diccionario.
+     * @param llave la llave que queremos ver si está en el diccionario.
+     * @return <tt>true</tt> si la llave está en el diccionario,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean contiene(String llave) {
+        if (llave == null)
             return false;
-        for (Entrada e : entradas[i]){
-            if( e.llave.equals(llave)){
-              return true;
-            }
+        return llaves[busca(llave)] != null;
+    }
+
+    /**
+     * Elimina la llave del diccionario, junto con su cuenta. Las llaves que
+     * siguen en la misma racha de sondeo se recorren hacia atrás, para no
+     * dejar huecos que rompan búsquedas posteriores.
+     * @param llave la llave a eliminar.
+     * @throws IllegalArgumentException si la llave es nula.
+     * @throws NoSuchElementException si la llave no se encuentra en
+     *         el diccionario.
+     */
+    public void elimina(String llave) {
+        if (llave == null)
+            throw new IllegalArgumentException("Llave nula.");
+        int i = busca(llave);
+        if (llaves[i] == null)
+            throw new NoSuchElementException("La llave no está en el diccionario.");
+        total -= cuentas[i];
+        elementos--;
+        caracteres -= llaves[i].length();
+        int m = llaves.length - 1;
+        int j = i;
+        while (true) {
+            llaves[i] = null;
+            cuentas[i] = 0;
+            int casilla;
+            do {
+                j = (j + 1) & m;
+                if (llaves[j] == null)
+                    return;
+                casilla = dispersa(llaves[j]) & m;
+            } while (i <= j ? (i < casilla && casilla <= j)
+                            : (i < casilla || casilla <= j));
+            llaves[i] = llaves[j];
+            cuentas[i] = cuentas[j];
+            i = j;
         }
-        return false;
-      }
-
-      /**
-       * Elimina el valor del diccionario asociado a la llave proporcionada.
-       * @param llave la llave para buscar el valor a eliminar.
-       * @throws IllegalArgumentException si la llave es nula.
-       * @throws NoSuchElementException si la llave no se encuentra en
-       *         el diccionario.
-       */
-      public void elimina(K llave) {
-        if( llave == null)
-            throw new IllegalArgumentException();
-              int i = mascara(llave);
-        if( entradas[i] == null)
-            throw new NoSuchElementException();
-        entradas[i] = null;
-      }
-
-      /**
-       * Nos dice cuántas colisiones hay en el diccionario.
-       * @return cuántas colisiones hay en el diccionario.
-       */
-      public int colisiones() {
-        int colisiones = 0;
-        for (Lista<Entrada> l : entradas){
-            if( l != null){
-                colisiones += l.getLongitud()-1;
+    }
+
+    /**
+     * Elimina todas las palabras que aparecen menos veces que el mínimo, y
+     * reacomoda el diccionario en un arreglo del tamaño adecuado para las
+     * palabras que quedan. Las cuentas eliminadas se restan del total.
+     * @param minimo la cuenta mínima de las palabras que se conservan.
+     * @return la suma de las cuentas eliminadas.
+     */
+    public long poda(int minimo) {
+        String[] a = llaves;
+        int[] c = cuentas;
+        int quedan = 0;
+        for (int i = 0; i < a.length; i++)
+            if (a[i] != null && c[i] >= minimo)
+                quedan++;
+        long eliminadas = 0;
+        llaves = new String[longitud(quedan)];
+        cuentas = new int[llaves.length];
+        elementos = 0;
+        caracteres = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == null)
+                continue;
+            if (c[i] < minimo) {
+                eliminadas += c[i];
+                continue;
             }
+            int j = busca(a[i]);
+            llaves[j] = a[i];
+            cuentas[j] = c[i];
+            elementos++;
+            caracteres += a[i].length();
         }
+        total -= eliminadas;
+        return eliminadas;
+    }
+
+    /**
+     * Regresa una estimación de los bytes que ocupa el diccionario en el
+     * <i>heap</i>: las casillas de los arreglos, más un objeto cadena y sus
+     * caracteres por cada palabra distinta.
+     * @return una estimación de los bytes que ocupa el diccionario.
+     */
+    public long memoria() {
+        return 8L * llaves.length + 56L * elementos + 2L * caracteres;
+    }
+
+    /**
+     * Nos dice cuántas colisiones hay en el diccionario; es decir, cuántas
+     * llaves no están en la casilla que les corresponde.
+     * @return cuántas colisiones hay en el diccionario.
+     */
+    public int colisiones() {
+        int colisiones = 0;
+        int m = llaves.length - 1;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null && (dispersa(llaves[i]) & m) != i)
+                colisiones++;
         return colisiones;
-      }
-
-      /**
-       * Nos dice el máximo número de colisiones para una misma llave que tenemos
-       * en el diccionario.
-       * @return el máximo número de colisiones para una misma llave.
-       */
-      public int colisionMaxima() {
-        int colisionM = 0;
-        for (Lista<Entrada> l : entradas){
-            if( l != null){
-                if( l.getLongitud()-1 > colisionM){
-                    colisionM = l.getLongitud()-1;
-                }
-            }
+    }
+
+    /**
+     * Nos dice la máxima distancia entre la casilla que le corresponde a una
+     * llave y la casilla donde quedó.
+     * @return la máxima distancia de sondeo.
+     */
+    public int colisionMaxima() {
+        int maxima = 0;
+        int m = llaves.length - 1;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            int distancia = (i - (dispersa(llaves[i]) & m)) & m;
+            if (distancia > maxima)
+                maxima = distancia;
         }
-        return colisionM;
-      }
-
-      /**
-       * Nos dice la carga del diccionario.
-       * @return la carga del diccionario.
-       */
-      public double carga() {
-          return ((double)elementos/(double)entradas.length);
-      }
-
-      /**
-       * Regresa el número de entradas en el diccionario.
-       * @return el número de entradas en el diccionario.
-       */
-      public int getElementos() {
-          return elementos;
-      }
-
-      /**
-       * Nos dice si el diccionario es vacío.
-       * @return <code>true</code> si el diccionario es vacío, <code>false</code>
-       *         en otro caso.
-       */
-      public boolean esVacia() {
-          return elementos == 0;
-      }
-
-      /**
-       * Limpia el diccionario de elementos, dejándolo vacío.
-       */
-      public void limpia() {
-        Lista<Entrada>[] entradasaux = entradas;
-        entradas =nuevoArreglo(entradasaux.length);
+        return maxima;
+    }
+
+    /**
+     * Nos dice la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / (double)llaves.length;
+    }
+
+    /**
+     * Regresa el número de palabras distintas en el diccionario.
+     * @return el número de palabras distintas en el diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número total de palabras contadas; es decir, la suma de todas
+     * las cuentas del diccionario más las apariciones desbordadas.
+     * @return el número total de palabras contadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de apariciones que no cupieron en las cuentas porque
+     * éstas llegaron a {@link Integer#MAX_VALUE}.
+     * @return el número de apariciones desbordadas; cero si ninguna cuenta
+     *         se topó.
+     */
+    public long getDesbordadas() {
+        return desbordadas;
+    }
+
+    /**
+     * Nos dice si el diccionario es vacío.
+     * @return <code>true</code> si el diccionario es vacío, <code>false</code>
+     *         en otro caso.
+     */
+    public boolean esVacia() {
+        return elementos == 0;
+    }
+
+    /**
+     * Limpia el diccionario de elementos, dejándolo vacío.
+     */
+    public void limpia() {
+        llaves = new String[llaves.length];
+        cuentas = new int[cuentas.length];
         elementos = 0;
-      }
-
-      private int mascara(K llave){
-      	int i = dispersor.dispersa(llave);
-      	int j = entradas.length -1;
-      	return i & j;
-      }
-      private void aumentaTamaño(){
-      	int tamaño= longitud(entradas.length);
-      	Lista<Entrada>[] a = entradas;
-      	entradas =nuevoArreglo(tamaño);
-      	this.elementos = 0;
-      	for (int i=0; i< a.length; i++){
-      	    if( a[i] != null){
-      		for (Entrada e : a[i]){
-      		    agrega(e.llave, e.valor);
-      		}
-      	    }
-      	}
-      }
-      private int longitud(int n){
-      	int r = 1;
-      	while (r< n)
-      	    r<<= 1;
-      	return (r<< 1 < 64) ? 64: r<<1;
-      }
-
-      /**
-       * Regresa una representación en cadena del diccionario.
-       * @return una representación en cadena del diccionario.
-       */
-      @Override public String toString() {
-        String s = "";
-        if( this.esVacia()){
-            return s+= "{}";
-        }
-        s += "{ ";
-        for ( Lista<Entrada> l: entradas){
-            if( l!= null){
-              for( Entrada e: l){
-                  s+= "'"+e.llave+"': '"+e.valor+"', ";
-              }
+        total = 0;
+        desbordadas = 0;
+        caracteres = 0;
+    }
+
+    /**
+     * Regresa la cuenta de la palabra en la casilla, o cero si la casilla
+     * está vacía.
+     * @param i la casilla.
+     * @return la cuenta de la palabra en la casilla.
+     */
+    public int getCantidadEnIndice(int i) {
+        return llaves[i] == null ? 0 : cuentas[i];
+    }
+
+    /**
+     * Regresa la palabra en la casilla, o <code>null</code> si la casilla está
+     * vacía.
+     * @param i la casilla.
+     * @return la palabra en la casilla.
+     */
+    public String getPalabraEnIndice(int i) {
+        return llaves[i];
+    }
+
+    /**
+     * Regresa el número de casillas del diccionario.
+     * @return el número de casillas del diccionario.
+     */
+    public int getTamanioEntradas() {
+        return llaves.length;
+    }
+
+    /**
+     * Regresa las <i>k</i> palabras más usadas, de la más a la menos usada;
+     * las palabras con el mismo número de apariciones se ordenan
+     * lexicográficamente. Se recorre una sola vez el diccionario manteniendo
+     * un montículo mínimo con a lo más <i>k</i> palabras, por lo que toma
+     * tiempo <i>O</i>(<i>n</i> log <i>k</i>). El diccionario no se modifica.
+     * @param k el número de palabras que queremos.
+     * @return un arreglo con las min(<i>k</i>, {@link #getElementos})
+     *         palabras más usadas.
+     * @throws IllegalArgumentException si k es negativo.
+     */
+    public PalabraContada[] mayores(int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k no puede ser negativo.");
+        MonticuloMinimo<PalabraContada> monticulo =
+            new MonticuloMinimo<PalabraContada>();
+        for (int i = 0; k > 0 && i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            if (monticulo.getElementos() < k) {
+                monticulo.agrega(new PalabraContada(llaves[i], cuentas[i]));
+                continue;
             }
+            /* Sólo se crea la palabra contada si desplaza al mínimo. */
+            PalabraContada minimo = monticulo.get(0);
+            if (cuentas[i] < minimo.getCantidad())
+                continue;
+            PalabraContada candidata = new PalabraContada(llaves[i], cuentas[i]);
+            if (candidata.compareTo(minimo) <= 0)
+                continue;
+            monticulo.elimina();
+            monticulo.agrega(candidata);
         }
-        s+= "}";
-        return s;
-      }
-
-      /**
-      *  Devuelve la cantidad de palabras en el índice
-      *
-      */
-      public int getCantidadEnIndice(int i){
-        if (entradas[i] != null){
-          return entradas[i].getLongitud();
-        } else {
-          return 0;
+        PalabraContada[] mayores = new PalabraContada[monticulo.getElementos()];
+        for (int i = mayores.length - 1; i >= 0; i--)
+            mayores[i] = monticulo.elimina();
+        return mayores;
+    }
+
+    /* Regresa la casilla donde está la llave, o la casilla vacía donde
+     * debería ir. */
+    private int busca(String llave) {
+        int m = llaves.length - 1;
+        int i = dispersa(llave) & m;
+        while (llaves[i] != null && !llaves[i].equals(llave))
+            i = (i + 1) & m;
+        return i;
+    }
+
+    /* Suma la cantidad a la cuenta de la casilla ocupada, topándola en
+     * Integer.MAX_VALUE; lo que no cabe se cuenta como desbordado. */
+    private int suma(int i, int cantidad) {
+        int c = cuentas[i];
+        if (c <= Integer.MAX_VALUE - cantidad)
+            return cuentas[i] = c + cantidad;
+        desbordadas += cantidad - (Integer.MAX_VALUE - c);
+        return cuentas[i] = Integer.MAX_VALUE;
+    }
+
+    /* Regresa la siguiente casilla ocupada a partir de i, o la longitud del
+     * arreglo si no hay más. */
+    private int siguienteOcupada(int i) {
+        while (i < llaves.length && llaves[i] == null)
+            i++;
+        return i;
+    }
+
+    /* Dispersa la llave. */
+    private static int dispersa(String llave) {
+        return dispersa(llave.hashCode());
+    }
+
+    /* Mezcla los bits altos de un hashCode con los bajos, para que la máscara
+     * no dependa sólo de los últimos bits. */
+    private static int dispersa(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /* Regresa la casilla donde está la palabra de la vista, o la casilla
+     * vacía donde debería ir. */
+    private int busca(VistaPalabra palabra) {
+        int h = palabra.hashCode();
+        int m = llaves.length - 1;
+        int i = dispersa(h) & m;
+        while (llaves[i] != null &&
+               (llaves[i].hashCode() != h || !palabra.iguales(llaves[i])))
+            i = (i + 1) & m;
+        return i;
+    }
+
+    /* Duplica el tamaño de los arreglos y vuelve a acomodar las llaves. */
+    private void aumentaTamaño() {
+        String[] a = llaves;
+        int[] c = cuentas;
+        llaves = new String[a.length << 1];
+        cuentas = new int[a.length << 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == null)
+                continue;
+            int j = busca(a[i]);
+            llaves[j] = a[i];
+            cuentas[j] = c[i];
         }
-      }
-
-      /**
-      *  Devuelve la palabra en el índice
-      *
-      */
-      public String getPalabraEnIndice(int i){
-        if (entradas[i] != null) {
-          return entradas[i].getPrimero().valor.toString();
-        } else {
-          return null;
+    }
+
+    /* Regresa la potencia de dos a utilizar para una capacidad, de forma que
+     * la carga inicial quede por debajo de la mitad. */
+    private static int longitud(int n) {
+        int r = 1;
+        while (r < n)
+            r <<= 1;
+        return (r << 1 < MINIMA_CAPACIDAD) ? MINIMA_CAPACIDAD : r << 1;
+    }
+
+    /**
+     * Regresa una representación en cadena del diccionario.
+     * @return una representación en cadena del diccionario.
+     */
+    @Override public String toString() {
+        if (esVacia())
+            return "{}";
+        StringBuilder s = new StringBuilder("{ ");
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                s.append("'").append(llaves[i]).append("': ")
+                 .append(cuentas[i]).append(", ");
+        return s.append("}").toString();
+    }
+
+    /**
+     * Nos dice si el diccionario es igual al objeto recibido.
+     * @param o el objeto que queremos saber si es igual al diccionario.
+     * @return <code>true</code> si el objeto recibido es instancia de
+     *         DiccionarioContador, y tiene las mismas llaves con las mismas
+     *         cuentas.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        DiccionarioContador d = (DiccionarioContador)o;
+        if (d.elementos != elementos || d.total != total)
+            return false;
+        for (int i = 0; i < llaves.length; i++) {
+            if (llaves[i] == null)
+                continue;
+            int j = d.busca(llaves[i]);
+            if (d.llaves[j] == null || d.cuentas[j] != cuentas[i])
+                return false;
         }
-      }
-
-      /**
-      *   Devuelve el tamaño del arreglo
-      *
-      */
-      public int getTamanioEntradas(){
-        return entradas.length;
-      }
-
-
-
-      /**
-       * Nos dice si el diccionario es igual al objeto recibido.
-       * @param o el objeto que queremos saber si es igual al diccionario.
-       * @return <code>true</code> si el objeto recibido es instancia de
-       *         Diccionario, y tiene las mismas llaves asociadas a los mismos
-       *         valores.
-       */
-      @Override public boolean equals(Object o) {
-          if (o == null || getClass() != o.getClass())
-              return false;
-          @SuppressWarnings("unchecked") DiccionarioContador<K, V> d =
-              (DiccionarioContador<K, V>)o;
-              if(d.elementos != elementos)
-            	    return false;
-            	for (int i=0; i< entradas.length; i++){
-            	    if( entradas[i] != null)
-            		    for (Entrada e : entradas[i]){
-            		      if(!d.contiene(e.llave))
-            			      return false;
-            		      if(!e.valor.equals(d.get(e.llave)))
-            		       return false;
-            		    }
-            	}
-            	return true ;
-      }
-
-      /**
-       * Regresa un iterador para iterar las llaves del diccionario. El
-       * diccionario se itera sin ningún orden específico.
-       * @return un iterador para iterar las llaves del diccionario.
-       */
-      public Iterator<K> iteradorLlaves() {
-          return new IteradorLlaves();
-      }
-
-      /**
-       * Regresa un iterador para iterar los valores del diccionario. El
-       * diccionario se itera sin ningún orden específico.
-       * @return un iterador para iterar los valores del diccionario.
-       */
-      @Override public Iterator<V> iterator() {
-          return new IteradorValores();
-      }
-  }
+        return true;
+    }
+
+    /**
+     * Regresa una dispersión del diccionario, consistente con {@link
+     * #equals}: no depende del orden de las casillas, por lo que dos
+     * diccionarios iguales con distinta capacidad tienen la misma.
+     * @return una dispersión del diccionario.
+     */
+    @Override public int hashCode() {
+        int h = 0;
+        for (int i = 0; i < llaves.length; i++)
+            if (llaves[i] != null)
+                h += llaves[i].hashCode() ^ dispersa(cuentas[i]);
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para iterar las palabras del diccionario. El
+     * diccionario se itera sin ningún orden específico.
+     * @return un iterador para iterar las palabras del diccionario.
+     */
+    @Override public Iterator<String> iterator() {
+        return new Iterador();
+    }
+}
@@ -0,0 +1,194 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para diccionarios contadores con llaves <code>long</code>.</p>
+ *
+ * <p>Es la versión primitiva de {@link DiccionarioContador}: usa
+ * direccionamiento abierto con sondeo lineal, pero las llaves se guardan
+ * directamente en un arreglo de <code>long</code>, por lo que contar no crea
+ * ningún objeto y cada llave distinta ocupa doce bytes más el espacio libre
+ * de la tabla. Una casilla está vacía si su cuenta es cero, así que cualquier
+ * <code>long</code> puede ser llave.</p>
+ */
+public class DiccionarioLargo {
+
+    /** Máxima carga permitida por el diccionario. */
+    public static final double MAXIMA_CARGA = 0.72;
+
+    /* Capacidad mínima; decidida arbitrariamente a 2^6. */
+    private static final int MINIMA_CAPACIDAD = 64;
+
+    /* Las llaves. */
+    private long[] llaves;
+    /* Las cuentas de cada llave, en la misma casilla; cero si está vacía. */
+    private int[] cuentas;
+    /* Número de llaves distintas. */
+    private int elementos;
+    /* Número de llaves contadas. */
+    private long total;
+
+    /**
+     * Construye un diccionario con una capacidad inicial predeterminada.
+     */
+    public DiccionarioLargo() {
+        llaves = new long[MINIMA_CAPACIDAD];
+        cuentas = new int[MINIMA_CAPACIDAD];
+    }
+
+    /**
+     * Incrementa en uno la cuenta de la llave. Si la llave no estaba en el
+     * diccionario, se agrega con cuenta uno.
+     * @param llave la llave a contar.
+     * @return la nueva cuenta de la llave.
+     */
+    public int incrementa(long llave) {
+        int i = busca(llave);
+        total++;
+        if (cuentas[i] != 0)
+            return ++cuentas[i];
+        llaves[i] = llave;
+        cuentas[i] = 1;
+        elementos++;
+        if (carga() >= MAXIMA_CARGA)
+            aumentaTamaño();
+        return 1;
+    }
+
+    /**
+     * Regresa la cuenta de la llave.
+     * @param llave la llave a buscar.
+     * @return la cuenta de la llave, o cero si no está en el diccionario.
+     */
+    public int get(long llave) {
+        return cuentas[busca(llave)];
+    }
+
+    /**
+     * Elimina la llave del diccionario, junto con su cuenta. Las llaves que
+     * siguen en la misma racha de sondeo se recorren hacia atrás, para no
+     * dejar huecos que rompan búsquedas posteriores.
+     * @param llave la llave a eliminar.
+     * @return la cuenta que tenía la llave, o cero si no estaba en el
+     *         diccionario.
+     */
+    public int elimina(long llave) {
+        int i = busca(llave);
+        int cuenta = cuentas[i];
+        if (cuenta == 0)
+            return 0;
+        total -= cuenta;
+        elementos--;
+        int m = llaves.length - 1;
+        int j = i;
+        while (true) {
+            cuentas[i] = 0;
+            int casilla;
+            do {
+                j = (j + 1) & m;
+                if (cuentas[j] == 0)
+                    return cuenta;
+                casilla = dispersa(llaves[j]) & m;
+            } while (i <= j ? (i < casilla && casilla <= j)
+                            : (i < casilla || casilla <= j));
+            llaves[i] = llaves[j];
+            cuentas[i] = cuentas[j];
+            i = j;
+        }
+    }
+
+    /**
+     * Regresa el número de llaves distintas del diccionario.
+     * @return el número de llaves distintas del diccionario.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa el número de llaves contadas.
+     * @return el número de llaves contadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa la carga del diccionario.
+     * @return la carga del diccionario.
+     */
+    public double carga() {
+        return (double)elementos / llaves.length;
+    }
+
+    /**
+     * Regresa el número de bytes de los arreglos del diccionario.
+     * @return el número de bytes de los arreglos del diccionario.
+     */
+    public long memoria() {
+        return 12L * llaves.length;
+    }
+
+    /**
+     * Regresa la cuenta en la casilla recibida.
+     * @param i la casilla.
+     * @return la cuenta en la casilla; cero si está vacía.
+     */
+    public int getCantidadEnIndice(int i) {
+        return cuentas[i];
+    }
+
+    /**
+     * Regresa la llave en la casilla recibida. Sólo tiene sentido si la
+     * cuenta en la casilla no es cero.
+     * @param i la casilla.
+     * @return la llave en la casilla.
+     */
+    public long getLlaveEnIndice(int i) {
+        return llaves[i];
+    }
+
+    /**
+     * Regresa el número de casillas del diccionario.
+     * @return el número de casillas del diccionario.
+     */
+    public int getTamanioEntradas() {
+        return llaves.length;
+    }
+
+    /* Regresa la casilla donde está la llave, o la casilla vacía donde
+     * debería ir. */
+    private int busca(long llave) {
+        int m = llaves.length - 1;
+        int i = dispersa(llave) & m;
+        while (cuentas[i] != 0 && llaves[i] != llave)
+            i = (i + 1) & m;
+        return i;
+    }
+
+    /* Mezcla todos los bits de la llave con el finalizador de MurmurHash3 de
+     * 64 bits; las llaves empacadas tienen casi toda la información en los
+     * bits bajos de cada campo. */
+    private static int dispersa(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int)h;
+    }
+
+    /* Duplica el tamaño de los arreglos y vuelve a acomodar las llaves. */
+    private void aumentaTamaño() {
+        long[] a = llaves;
+        int[] c = cuentas;
+        llaves = new long[a.length << 1];
+        cuentas = new int[a.length << 1];
+        for (int i = 0; i < a.length; i++) {
+            if (c[i] == 0)
+                continue;
+            int j = busca(a[i]);
+            llaves[j] = a[i];
+            cuentas[j] = c[i];
+        }
+    }
+}
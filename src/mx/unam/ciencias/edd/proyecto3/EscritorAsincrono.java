@@ -0,0 +1,338 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * <p>Clase para escribir páginas en disco desde un hilo dedicado.</p>
+ *
+ * <p>Los hilos que generan las páginas las escriben en memoria, en una
+ * {@link Pagina} que se obtiene con {@link #pagina}; al cerrarla, la página
+ * se forma en una cola y el hilo escritor la escribe con un {@link
+ * FileChannel}, con una sola escritura de todos sus pedazos. El escritor
+ * saca de la cola todas las páginas que haya a la vez y las escribe en lote,
+ * por lo que muchas páginas pequeñas no cuestan un cambio de hilo cada
+ * una.</p>
+ *
+ * <p>Así, generar una página nunca espera al disco, salvo cuando lo que hay
+ * en la cola ocupa más de {@link #LIMITE} bytes: entonces formar algo más
+ * espera a que haya espacio, para que un disco lento no acumule páginas sin
+ * límite en memoria. Lo que se cuenta es la memoria reservada para los
+ * pedazos, no sólo los bytes escritos en ellos. Una página que llega a
+ * {@link #DIRECTA} bytes no espera a cerrarse: sus pedazos se forman en la
+ * cola en un tramo, y a partir de ahí cada pedazo se forma en cuanto se
+ * llena. El escritor escribe los tramos de una página en orden, con el
+ * archivo abierto desde el primero hasta el último. Así, la memoria de una
+ * página en el hilo que la genera está acotada sin importar su tamaño, y el
+ * hilo nunca escribe en el disco; si genera más rápido de lo que el disco
+ * escribe, lo frena el mismo límite de la cola.</p>
+ *
+ * <p>Los errores de escritura no detienen al escritor; el primero se lanza
+ * al llamar a {@link #cierra}.</p>
+ */
+public class EscritorAsincrono {
+
+    /** Máximo de bytes de las páginas en la cola. */
+    public static final long LIMITE = 64L << 20;
+    /** Bytes a partir de los cuales una página se forma en la cola por
+     *  tramos, sin esperar a cerrarse. */
+    public static final int DIRECTA = 1 << 20;
+
+    /* Tamaño del primer pedazo de una página. */
+    private static final int PRIMERO = 1 << 12;
+    /* Tamaño máximo de los pedazos de una página. */
+    private static final int PEDAZO = 1 << 16;
+    /* Máximo número de tramos de un lote. */
+    private static final int LOTE = 64;
+    /* Tramo vacío que indica al escritor que termine. */
+    private static final Tramo FIN = new Tramo(null, null, 0, false, false);
+
+    /* Clase privada para los tramos de una página que se forman en la cola:
+     * una página pequeña completa, o una parte de una página grande. */
+    private static class Tramo {
+
+        /* La página del tramo. */
+        private Pagina pagina;
+        /* Los pedazos del tramo, ya volteados. */
+        private ByteBuffer[] pedazos;
+        /* El número de bytes reservados para los pedazos. */
+        private long capacidad;
+        /* Si es el primer tramo de la página. */
+        private boolean primero;
+        /* Si es el último tramo de la página. */
+        private boolean ultimo;
+
+        /* Construye un tramo. */
+        private Tramo(Pagina pagina, ByteBuffer[] pedazos, long capacidad,
+                      boolean primero, boolean ultimo) {
+            this.pagina = pagina;
+            this.pedazos = pedazos;
+            this.capacidad = capacidad;
+            this.primero = primero;
+            this.ultimo = ultimo;
+        }
+    }
+
+    /**
+     * Clase para páginas en memoria. Los bytes se guardan en pedazos que
+     * empiezan pequeños y duplican su tamaño hasta {@link #PEDAZO}, para no
+     * copiarlos al crecer, y la página se forma en la cola del escritor al
+     * cerrarla. Si la página llega a {@link #DIRECTA} bytes, sus pedazos se
+     * forman en la cola y cada pedazo siguiente se forma en cuanto se llena.
+     */
+    public static class Pagina extends OutputStream {
+
+        /* El escritor de la página. */
+        private EscritorAsincrono escritor;
+        /* El archivo destino. */
+        private File destino;
+        /* Los pedazos de la página que no se han formado en la cola. */
+        private List<ByteBuffer> pedazos;
+        /* El número de bytes de la página. */
+        private long bytes;
+        /* El número de bytes reservados para los pedazos. */
+        private long capacidad;
+        /* Si la página ya formó tramos en la cola. */
+        private boolean enTramos;
+        /* Si la página ya se cerró. */
+        private boolean cerrada;
+        /* El canal del archivo; sólo lo usa el hilo escritor. */
+        private FileChannel canal;
+        /* La medición de la escritura; sólo la usa el hilo escritor. */
+        private Metricas medicion;
+
+        /* Construye una página vacía. */
+        private Pagina(EscritorAsincrono escritor, File destino) {
+            this.escritor = escritor;
+            this.destino = destino;
+            pedazos = new ArrayList<ByteBuffer>();
+        }
+
+        /**
+         * Escribe un byte en la página.
+         * @param b el byte a escribir.
+         * @throws IOException si se interrumpe la espera por espacio en la
+         *         cola.
+         */
+        @Override public void write(int b) throws IOException {
+            pedazoLibre().put((byte)b);
+            bytes++;
+        }
+
+        /**
+         * Escribe un pedazo de un arreglo de bytes en la página.
+         * @param b el arreglo.
+         * @param inicio el inicio del pedazo.
+         * @param n el número de bytes del pedazo.
+         * @throws IOException si se interrumpe la espera por espacio en la
+         *         cola.
+         */
+        @Override public void write(byte[] b, int inicio, int n)
+            throws IOException {
+            bytes += n;
+            while (n > 0) {
+                ByteBuffer pedazo = pedazoLibre();
+                int m = Math.min(n, pedazo.remaining());
+                pedazo.put(b, inicio, m);
+                inicio += m;
+                n -= m;
+            }
+        }
+
+        /**
+         * Cierra la página y forma en la cola del escritor lo que falta de
+         * ella. Puede esperar si la cola está llena.
+         * @throws IOException si se interrumpe la espera.
+         */
+        @Override public void close() throws IOException {
+            if (cerrada)
+                return;
+            cerrada = true;
+            forma(true);
+            pedazos = null;
+        }
+
+        /* Regresa un pedazo con espacio libre. */
+        private ByteBuffer pedazoLibre() throws IOException {
+            if (cerrada)
+                throw new IllegalStateException("Página cerrada.");
+            int n = pedazos.size();
+            ByteBuffer ultimo = n > 0 ? pedazos.get(n - 1) : null;
+            if (ultimo != null && ultimo.hasRemaining())
+                return ultimo;
+            if (enTramos || capacidad >= DIRECTA) {
+                forma(false);
+                ultimo = ByteBuffer.allocate(PEDAZO);
+            } else {
+                int tamaño = ultimo == null ? PRIMERO
+                    : Math.min(PEDAZO, 2 * ultimo.capacity());
+                ultimo = ByteBuffer.allocate(tamaño);
+            }
+            capacidad += ultimo.capacity();
+            pedazos.add(ultimo);
+            return ultimo;
+        }
+
+        /* Forma en la cola los pedazos de la página en un tramo. */
+        private void forma(boolean fin) throws IOException {
+            ByteBuffer[] arreglo = pedazos.toArray(new ByteBuffer[0]);
+            for (ByteBuffer pedazo : arreglo)
+                pedazo.flip();
+            Tramo tramo = new Tramo(this, arreglo, capacidad, !enTramos, fin);
+            pedazos.clear();
+            capacidad = 0;
+            enTramos = true;
+            escritor.encola(tramo);
+        }
+    }
+
+    /* La cola de tramos. */
+    private LinkedBlockingQueue<Tramo> cola;
+    /* Los bytes de los tramos en la cola. */
+    private long enCola;
+    /* El hilo escritor. */
+    private Thread hilo;
+    /* El primer error de escritura. */
+    private volatile IOException error;
+
+    /**
+     * Construye un escritor y arranca su hilo. El hilo es un demonio, para
+     * que un error que impida llamar a {@link #cierra} no deje a la máquina
+     * virtual esperándolo.
+     */
+    public EscritorAsincrono() {
+        cola = new LinkedBlockingQueue<Tramo>();
+        hilo = new Thread(this::escribeLotes, "escritor-paginas");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    /**
+     * Regresa una página vacía para el archivo recibido. La página se
+     * escribe en el archivo, reemplazando su contenido, después de cerrarla.
+     * @param destino el archivo destino.
+     * @return la página.
+     */
+    public Pagina pagina(File destino) {
+        return new Pagina(this, destino);
+    }
+
+    /**
+     * Espera a que se escriban todas las páginas cerradas y termina el hilo
+     * escritor. Las páginas que no se hayan cerrado no se escriben, o se
+     * quedan a medias si ya habían formado tramos.
+     * @throws IOException si alguna página no se pudo escribir, o si se
+     *         interrumpe la espera.
+     */
+    public void cierra() throws IOException {
+        cola.add(FIN);
+        try {
+            hilo.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Escritura interrumpida.", e);
+        }
+        if (error != null)
+            throw error;
+    }
+
+    /* Forma un tramo en la cola, esperando si la cola está llena. */
+    private void encola(Tramo tramo) throws IOException {
+        synchronized (this) {
+            try {
+                while (enCola > 0 && enCola + tramo.capacidad > LIMITE)
+                    wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Escritura interrumpida.", e);
+            }
+            enCola += tramo.capacidad;
+        }
+        cola.add(tramo);
+    }
+
+    /* El ciclo del hilo escritor. */
+    private void escribeLotes() {
+        List<Tramo> lote = new ArrayList<Tramo>(LOTE);
+        while (true) {
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            cola.drainTo(lote, LOTE - 1);
+            for (Tramo tramo : lote) {
+                if (tramo == FIN)
+                    return;
+                escribe(tramo);
+                synchronized (this) {
+                    enCola -= tramo.capacidad;
+                    notifyAll();
+                }
+            }
+            lote.clear();
+        }
+    }
+
+    /* Escribe un tramo en el archivo de su página; el primero abre el
+     * archivo y el último lo cierra. Si hay un error, los tramos que faltan
+     * de la página se descartan. */
+    private void escribe(Tramo tramo) {
+        Pagina pagina = tramo.pagina;
+        try {
+            if (tramo.primero) {
+                pagina.medicion = Metricas.inicia(pagina.destino.getName(),
+                                                  "escrituraDisco");
+                pagina.canal = FileChannel.open(pagina.destino.toPath(),
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            if (pagina.canal != null)
+                escribeTodos(pagina.canal, tramo.pedazos);
+        } catch (IOException e) {
+            falla(e);
+            cierraCanal(pagina);
+        }
+        tramo.pedazos = null;
+        if (!tramo.ultimo)
+            return;
+        cierraCanal(pagina);
+        pagina.medicion.termina(pagina.bytes, 0);
+    }
+
+    /* Cierra el canal de la página, si está abierto. */
+    private void cierraCanal(Pagina pagina) {
+        if (pagina.canal == null)
+            return;
+        try {
+            pagina.canal.close();
+        } catch (IOException e) {
+            falla(e);
+        }
+        pagina.canal = null;
+    }
+
+    /* Guarda el error si es el primero. */
+    private void falla(IOException e) {
+        if (error == null)
+            error = e;
+    }
+
+    /* Escribe en el canal todos los bytes de los pedazos, ya volteados. */
+    private static void escribeTodos(FileChannel canal, ByteBuffer[] arreglo)
+        throws IOException {
+        long restantes = 0;
+        for (ByteBuffer pedazo : arreglo)
+            restantes += pedazo.remaining();
+        while (restantes > 0)
+            restantes -= canal.write(arreglo);
+    }
+}
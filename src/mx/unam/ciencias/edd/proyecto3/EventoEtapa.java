@@ -0,0 +1,39 @@
+package mx.unam.ciencias.edd;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * <p>Evento de JFR (<i>Java Flight Recorder</i>) para una etapa de la
+ * generación de una página.</p>
+ *
+ * <p>Los eventos sólo se registran si hay una grabación de JFR activa que
+ * los incluya, por ejemplo con
+ * <code>-XX:StartFlightRecording=filename=proyecto3.jfr</code>; si no, crear
+ * uno no cuesta casi nada. La duración del evento es la de la etapa.</p>
+ */
+@Name("mx.unam.ciencias.edd.Etapa")
+@Label("Etapa de generación")
+@Category("Proyecto3")
+public class EventoEtapa extends Event {
+
+    /** El nombre del archivo de entrada. */
+    @Label("Archivo")
+    public String archivo;
+
+    /** El nombre de la etapa. */
+    @Label("Etapa")
+    public String etapa;
+
+    /** Los bytes leídos o escritos en la etapa. */
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    /** Las palabras procesadas en la etapa. */
+    @Label("Palabras")
+    public long palabras;
+}
@@ -1,96 +1,79 @@
 package mx.unam.ciencias.edd;
+
+import java.io.IOException;
+import java.io.Writer;
+
 public class GeneraArbol{
-  public  DiccionarioContador diccionario;
-  public int[] mayores;
+  public  Analisis analisis;
+  public PalabraContada[] mayores;
   public String[] palabras;
   public int[] valoress;
-  public int total;
+  public long total;
 
-  public GeneraArbol(DiccionarioContador dicc){
-    this.diccionario = dicc;
-    DiccionarioContador dic = new DiccionarioContador();
-    total = diccionario.getElementos();
-    dic = dicc;
-    this.mayores = new int[15];
-    this.palabras = new String[15];
-    this.valoress = new int[15];
-    int mayor = 0;
-    int indice = -1;
+  public GeneraArbol(Analisis analisis){
+    this.analisis = analisis;
+    total = analisis.getTotal();
+    this.mayores = analisis.mayores(15);
+    this.palabras = new String[mayores.length];
+    this.valoress = new int[mayores.length];
     for (int j = 0; j < mayores.length; j++) {
-      for (int i = 0; i < dic.getTamanioEntradas(); i++) {
-        if (dic.getPalabraEnIndice(i) != null){
-          if (dic.getCantidadEnIndice(i) > mayor){
-            mayor = dic.getCantidadEnIndice(i);
-            indice = i;
-          }
-        }
-      }
-      mayores[j] = indice;
-      palabras[j] = dic.getPalabraEnIndice(indice);
-      valoress[j] = dic.getCantidadEnIndice(indice);
-      dic.elimina(palabras[j]);
-      mayor = 0;
+      palabras[j] = mayores[j].getPalabra();
+      valoress[j] = mayores[j].getCantidad();
     }
   }
 
-  private String masUsadas(){
-    String usadas = "";
-    usadas += "    <div>\n      <table border='1'>\n";
+  private void masUsadas(Writer w) throws IOException {
+    w.write("    <div>\n      <table border='1'>\n");
     int acc = 0;
     int aux = acc;
     for (int i = 0; i < valoress.length; i++) {
-      if ((acc % 5) == 0) usadas += "        <tr>\n";
-      usadas += "          <td width='20%'><b>" + palabras[i] + ":</b> " + valoress[i] + "</td>\n";
+      if ((acc % 5) == 0) w.write("        <tr>\n");
+      w.write("          <td width='20%'><b>" + palabras[i] + ":</b> " + valoress[i] + "</td>\n");
       aux = acc + 1;
-      if ((acc % 5) == 4) usadas += "        </tr>\n";
+      if ((acc % 5) == 4) w.write("        </tr>\n");
       acc = aux;
     }
-    usadas += "      </table>\n    </div>\n    <br><br><br><br>";
-    return usadas;
+    w.write("      </table>\n    </div>\n    <br><br><br><br>");
   }
 
-  public String generaRojinegroSVG(){
-    String code = "      <h2>Arbol Rojinegro:</h2>\n";
+  public void generaRojinegroSVG(Writer w) throws IOException {
+    w.write("      <h2>Arbol Rojinegro:</h2>\n");
     ArbolRojinegro ar = new ArbolRojinegro<Integer>();
     int q = 0;
     while(q < valoress.length){
       ar.agrega(valoress[q]);
       q++;
     }
-    code += trazaArbolRojinegro(ar);
-    code += masUsadas();
-    return code;
+    trazaArbolRojinegro(ar, w);
+    masUsadas(w);
   }
 
   /**
    *  Método para dibujar un 'Arbol Rojinegro'
    *
    */
-  public static String trazaArbolRojinegro(ArbolBinarioOrdenado a){
-    String head = "      <?xml version='1.0' encoding='UTF-8' ?>\n";
-    String body = "";
-    String lines = "";
-    if (a.esVacia()) return "Estructura vacía. Pock!!\n";
+  public static void trazaArbolRojinegro(ArbolBinarioOrdenado a, Writer w) throws IOException {
+    if (a.esVacia()) {
+      w.write("Estructura vacía. Pock!!\n");
+      return;
+    }
     int height = a.altura() * 20 + 40 * (a.altura());
     int width = ((int) Math.pow((double) 2,(double) a.altura()) * 30 );
     //int x = width / 2;
     int x = width;
     int y = 0;
-    body += bfsVerticesRojinegros(a.raiz(), x, 40);
-    lines += bfsAristasOrdenados(a.raiz(), x, 40);
-    head += "      <svg width='" + width + "' height='" + height + "'>\n        <g>\n";
-    head += lines;
-    head += body;
-    head += "        </g>\n      </svg>\n";
-    return head;
+    w.write("      <?xml version='1.0' encoding='UTF-8' ?>\n");
+    w.write("      <svg width='" + width + "' height='" + height + "'>\n        <g>\n");
+    bfsAristasOrdenados(a.raiz(), x, 40, w);
+    bfsVerticesRojinegros(a.raiz(), x, 40, w);
+    w.write("        </g>\n      </svg>\n");
   }
 
   /**
    *  Método auxiliar para dibujar los vértices de un Árbol Binario
    *
    */
-  private static String bfsVerticesRojinegros(VerticeArbolBinario v, int w, int h){
-    String arbol = "";
+  private static void bfsVerticesRojinegros(VerticeArbolBinario v, int w, int h, Writer out) throws IOException {
     Cola<VerticeArbolBinario> c = new Cola<VerticeArbolBinario>();
     c.mete(v);
     int level = v.profundidad();
@@ -112,8 +95,8 @@ public class GeneraArbol{
         parts = 2 * nodos;
         //h = 20;
       }
-        arbol += "          <circle class='nodo' cx='" + ((w / parts) + contador * (w/nodos)) + "' cy='" + (level * h + 10) + "' r='10' stroke='" + color + "' fill='" + color + "' stroke-width='1' />\n";
-        arbol += "          <text class='nodo-text' fill='white' font-family='sans-serif' font-size='12' x='" + ((w / parts) + contador * (w/nodos)) + "' y='" + (level * h + 15) + "' text-anchor='middle'>" + vab.get() + "</text>\n";
+        out.write("          <circle class='nodo' cx='" + ((w / parts) + contador * (w/nodos)) + "' cy='" + (level * h + 10) + "' r='10' stroke='" + color + "' fill='" + color + "' stroke-width='1' />\n");
+        out.write("          <text class='nodo-text' fill='white' font-family='sans-serif' font-size='12' x='" + ((w / parts) + contador * (w/nodos)) + "' y='" + (level * h + 15) + "' text-anchor='middle'>" + vab.get() + "</text>\n");
       if (vab.hayIzquierdo()) {
         c.mete(vab.izquierdo());
       }
@@ -122,56 +105,51 @@ public class GeneraArbol{
       }
       contador++;
     }
-    return arbol;
   }
 
 
-  public String generaAVLSVG(){
-    String code = "      <h2>Arbol AVL:</h2>\n";
+  public void generaAVLSVG(Writer w) throws IOException {
+    w.write("      <h2>Arbol AVL:</h2>\n");
     ArbolAVL avl = new ArbolAVL<Integer>();
     int q = 0;
     while(q < valoress.length){
       avl.agrega(valoress[q]);
       q++;
     }
-    code += trazaArbolBinarioOrdenado(avl);
-    code += masUsadas();
-    return code;
+    trazaArbolBinarioOrdenado(avl, w);
+    masUsadas(w);
   }
 
   /**
    *  Método para dibujar un 'Arbol Binario Ordenado'
    *
    */
-  public static String trazaArbolBinarioOrdenado(ArbolBinarioOrdenado a){
-    String head = "      <?xml version='1.0' encoding='UTF-8' ?>\n";
-    String body = "";
-    String lines = "";
-    if (a.esVacia()) return "Estructura vacía. Pock!!\n";
+  public static void trazaArbolBinarioOrdenado(ArbolBinarioOrdenado a, Writer w) throws IOException {
+    if (a.esVacia()) {
+      w.write("Estructura vacía. Pock!!\n");
+      return;
+    }
     int height = a.altura() * 20 + 40 * (a.altura());
     int width = ((int) Math.pow((double) 2,(double) a.altura()) * 30 );
     //int x = width / 2;
     int x = width;
     int y = 0;
-    body += bfsVerticesOrdenados(a.raiz(), x, 40);
-    lines += bfsAristasOrdenados(a.raiz(), x, 40);
+    w.write("      <?xml version='1.0' encoding='UTF-8' ?>\n");
+    w.write("      <svg width='" + width + "' height='" + height + "'>\n        <g>\n");
+    bfsAristasOrdenados(a.raiz(), x, 40, w);
+    bfsVerticesOrdenados(a.raiz(), x, 40, w);
+    w.write("        </g>\n      </svg>\n");
     //body += "<circle cx='" + x + "' cy='" + (y + 10) + "' r='10' stroke='black' fill='white' stroke-width='1' />\n";
     //body += "<text fill='black' font-family='sans-serif' font-size='12' x='" + x + "' y='" + (y + 15) + "' text-anchor='middle'>" + a.raiz().get() + "</text>\n";
     //while(a.raiz)
     //height = 30 * longitud + 20 * --longitud;
-    head += "      <svg width='" + width + "' height='" + height + "'>\n        <g>\n";
-    head += lines;
-    head += body;
-    head += "        </g>\n      </svg>\n";
-    return head;
   }
 
   /**
    *  Método auxiliar para dibujar los vértices de un Árbol Binario
    *
    */
-  private static String bfsVerticesOrdenados(VerticeArbolBinario v, int w, int h){
-    String arbol = "";
+  private static void bfsVerticesOrdenados(VerticeArbolBinario v, int w, int h, Writer out) throws IOException {
     Cola<VerticeArbolBinario> c = new Cola<VerticeArbolBinario>();
     c.mete(v);
     int level = v.profundidad();
@@ -187,8 +165,8 @@ public class GeneraArbol{
         parts = 2 * nodos;
         //h = 20;
       }
-        arbol += "          <circle class='nodo-color' cx='" + ((w / parts) + contador * (w/nodos)) + "' cy='" + (level * h + 10) + "' r='10' stroke='black' fill='white' stroke-width='1' />\n";
-        arbol += "          <text fill='black' font-family='sans-serif' font-size='12' x='" + ((w / parts) + contador * (w/nodos)) + "' y='" + (level * h + 15) + "' text-anchor='middle'>" + vab.get() + "</text>\n";
+        out.write("          <circle class='nodo-color' cx='" + ((w / parts) + contador * (w/nodos)) + "' cy='" + (level * h + 10) + "' r='10' stroke='black' fill='white' stroke-width='1' />\n");
+        out.write("          <text fill='black' font-family='sans-serif' font-size='12' x='" + ((w / parts) + contador * (w/nodos)) + "' y='" + (level * h + 15) + "' text-anchor='middle'>" + vab.get() + "</text>\n");
       if (vab.hayIzquierdo()) {
         c.mete(vab.izquierdo());
       }
@@ -197,15 +175,13 @@ public class GeneraArbol{
       }
       contador++;
     }
-    return arbol;
   }
 
   /**
    *  Método auxiliar para dibujar las aristas de un Árbol Binario
    *
    */
-  private static String bfsAristasOrdenados(VerticeArbolBinario v, int w, int h){
-    String arbol = "";
+  private static void bfsAristasOrdenados(VerticeArbolBinario v, int w, int h, Writer out) throws IOException {
     Cola<VerticeArbolBinario> c = new Cola<VerticeArbolBinario>();
     c.mete(v);
     int level = v.profundidad();
@@ -224,16 +200,15 @@ public class GeneraArbol{
 
       if (vab.hayIzquierdo()) {
         c.mete(vab.izquierdo());
-        arbol += "          <line x1='" + ((w / parts) + contador * (w/nodos)) + "' y1='"
-        + (level * h + 10) + "' x2='" + (((w / parts) + contador * (w/nodos)) - ((w/parts)/2)) + "' y2='" + ((level + 1) * h + 10) + "' stroke='black' stroke-width='1' />\n";
+        out.write("          <line x1='" + ((w / parts) + contador * (w/nodos)) + "' y1='"
+        + (level * h + 10) + "' x2='" + (((w / parts) + contador * (w/nodos)) - ((w/parts)/2)) + "' y2='" + ((level + 1) * h + 10) + "' stroke='black' stroke-width='1' />\n");
       }
       if (vab.hayDerecho()) {
         c.mete(vab.derecho());
-        arbol += "          <line x1='" + ((w / parts) + contador * (w/nodos)) + "' y1='"
-        + (level * h + 10) + "' x2='" + (((w / parts) + contador * (w/nodos)) + ((w/parts)/2)) + "' y2='" + ((level + 1) * h + 10) + "' stroke='black' stroke-width='1' />\n";
+        out.write("          <line x1='" + ((w / parts) + contador * (w/nodos)) + "' y1='"
+        + (level * h + 10) + "' x2='" + (((w / parts) + contador * (w/nodos)) + ((w/parts)/2)) + "' y2='" + ((level + 1) * h + 10) + "' stroke='black' stroke-width='1' />\n");
       }
       contador++;
     }
-    return arbol;
   }
 }
@@ -1,178 +1,562 @@
 package mx.unam.ciencias.edd;
 
-import java.io.InputStreamReader;
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.File;
-import java.io.FileWriter;
-import java.text.Normalizer;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 public class GeneradorHtml{
-  public String codigo;
-  private DiccionarioContador dic;
+  private static final int MAYORES_GLOBAL = 25; // Palabras más usadas en el índice
+  private static final int MAYORES_NGRAMAS = 25; // n-gramas más usados por tamaño
+  private static final String[] NOMBRES_NGRAMAS = { "", "", "Bigramas", "Trigramas" };
+  private Analisis analisis;
   private File archivo;
   private String directorio;
   private Cola<String> filess;
+  private PrintStream salida = System.out;
+  private CacheAnalisis cache;
+  private int contadores;
+  private int ngramas;
+  private ContadorNGramas contadorNGramas;
+  private HiperLogLog corpus;
+  private EscritorAsincrono escritor;
+  private Compresion compresion = Compresion.NINGUNA;
+  private SalidaContada contada;
+  private long escritos;
+  private long distintas = -1;
+  private DiccionarioContador global;
+  private int archivosGlobal;
+
+  /**
+   *  Clase para las opciones con que se genera la página de un archivo. Los
+   *  métodos para definirlas regresan las mismas opciones, para poder
+   *  encadenarlos.
+   *
+   */
+  public static class Opciones{
+    private PrintStream salida = System.out;
+    private CacheAnalisis cache;
+    private int contadores;
+    private int ngramas;
+    private HiperLogLog corpus;
+    private EscritorAsincrono escritor;
+    private Compresion compresion = Compresion.NINGUNA;
+
+    /**
+     *  Manda los mensajes para el usuario a la salida recibida en lugar de la
+     *  salida estándar.
+     *
+     */
+    public Opciones setSalida(PrintStream salida){
+      this.salida = salida;
+      return this;
+    }
+
+    /**
+     *  Genera la página sólo si el archivo cambió desde la última vez que se
+     *  guardó en el caché recibido; si el caché es <code>null</code> la
+     *  página se genera siempre.
+     *
+     */
+    public Opciones setCache(CacheAnalisis cache){
+      this.cache = cache;
+      return this;
+    }
+
+    /**
+     *  Si el número de contadores es positivo las palabras se cuentan de
+     *  forma aproximada con un {@link ContadorAproximado} de memoria fija; el
+     *  análisis no se guarda en el caché, y el archivo se olvida para que la
+     *  siguiente página exacta no se salte.
+     *
+     */
+    public Opciones setContadores(int contadores){
+      this.contadores = contadores;
+      return this;
+    }
+
+    /**
+     *  Agrega a la página una sección para los n-gramas de tamaño 2 hasta el
+     *  recibido, si es al menos 2. Como la página de n-gramas no es la que se
+     *  genera normalmente, el archivo se olvida del caché igual que con las
+     *  cuentas aproximadas.
+     *
+     */
+    public Opciones setNGramas(int ngramas){
+      this.ngramas = ngramas;
+      return this;
+    }
+
+    /**
+     *  Combina el estimador de las palabras distintas del archivo con el del
+     *  corpus, si no es <code>null</code>. Si la página no cambió, el
+     *  estimador se lee del caché. Varios generadores pueden compartir el
+     *  mismo estimador del corpus desde distintos hilos.
+     *
+     */
+    public Opciones setCorpus(HiperLogLog corpus){
+      this.corpus = corpus;
+      return this;
+    }
+
+    /**
+     *  Genera la página en memoria y se la entrega al escritor recibido, que
+     *  la escribe en disco desde su propio hilo; así el hilo que analiza no
+     *  espera al disco. Si el escritor es <code>null</code>, la página se
+     *  escribe directamente.
+     *
+     */
+    public Opciones setEscritor(EscritorAsincrono escritor){
+      this.escritor = escritor;
+      return this;
+    }
+
+    /**
+     *  Elige si la página se escribe también, o sólo, comprimida con gzip.
+     *
+     */
+    public Opciones setCompresion(Compresion compresion){
+      this.compresion = compresion;
+      return this;
+    }
+
+    /**
+     *  Regresa una copia de las opciones, para cambiarlas sin afectar a
+     *  otros hilos que usen éstas.
+     *
+     */
+    public Opciones copia(){
+      return new Opciones().setSalida(salida).setCache(cache).setContadores(contadores)
+        .setNGramas(ngramas).setCorpus(corpus).setEscritor(escritor).setCompresion(compresion);
+    }
+  }
 
   public GeneradorHtml(String file, String dir){
+    this(file, dir, new Opciones());
+  }
+
+  /**
+   *  Genera la página de un archivo con las opciones recibidas.
+   *
+   */
+  public GeneradorHtml(String file, String dir, Opciones opciones){
     this.archivo = new File(file);
     this.directorio = dir;
+    this.salida = opciones.salida;
+    this.cache = opciones.cache;
+    this.contadores = opciones.contadores;
+    this.ngramas = opciones.ngramas;
+    this.corpus = opciones.corpus;
+    this.escritor = opciones.escritor;
+    this.compresion = opciones.compresion;
     generaArchivo();
   }
 
+  /**
+   *  Genera la página de un análisis ya calculado, por ejemplo el de un
+   *  flujo que sigue abierto. La página se escribe en un archivo temporal y
+   *  luego se renombra, para que quien la esté viendo nunca la encuentre a
+   *  medias. De las opciones sólo se usan la salida y la compresión.
+   *
+   */
+  public GeneradorHtml(String nombre, String dir, Opciones opciones, Analisis analisis){
+    this.archivo = new File(nombre);
+    this.directorio = dir;
+    this.salida = opciones.salida;
+    this.compresion = opciones.compresion;
+    this.analisis = analisis;
+    generaInstantanea();
+  }
+
   public GeneradorHtml(String dir, Cola<String> flss){
+    this(dir, flss, new Opciones());
+  }
+
+  /**
+   *  Genera el índice con las opciones recibidas, de las que sólo se usan
+   *  la salida y la compresión.
+   *
+   */
+  public GeneradorHtml(String dir, Cola<String> flss, Opciones opciones){
+    this(dir, flss, opciones, -1, null, 0);
+  }
+
+  /**
+   *  Genera el índice mostrando la estimación de las palabras distintas de
+   *  todos los archivos, si no es negativa, y las cuentas de todos los
+   *  archivos juntos, si no son <code>null</code>: el total de palabras, las
+   *  palabras distintas y las más usadas. El número de archivos es cuántos
+   *  se juntaron.
+   *
+   */
+  public GeneradorHtml(String dir, Cola<String> flss, Opciones opciones, long distintas, DiccionarioContador global, int archivos){
     this.directorio = dir;
+    this.salida = opciones.salida;
+    this.compresion = opciones.compresion;
     this.filess = flss;
+    this.distintas = distintas;
+    this.global = global;
+    this.archivosGlobal = archivos;
     generaIndex();
   }
 
   public void generaIndex(){
-    htmlHeaderIndex();
-    htmlEscribeIndex();
-    htmlClosure();
-    escribirIndex();
+    try (Writer w = abreArchivo("index.html")) {
+      htmlHeaderIndex(w);
+      htmlEscribeIndex(w);
+      htmlClosure(w);
+    } catch (Exception e) {
+      e.printStackTrace();
+    }
   }
 
-  private void htmlEscribeIndex(){
-    String cc = "    <div>\n";
-    cc += "      <h1>Estructuras de Datos 2018-1</h1>\n";
-    cc += "      <h2>Luis Daniel López Monroy</h2>\n";
-    cc += "      <br>\n      <h4>Archivos Generados:</h4>\n";
+  private void htmlEscribeIndex(Writer w) throws IOException {
+    w.write("    <div>\n");
+    w.write("      <h1>Estructuras de Datos 2018-1</h1>\n");
+    w.write("      <h2>Luis Daniel López Monroy</h2>\n");
+    if (distintas >= 0)
+      w.write("      <p>Palabras distintas en todos los archivos (estimación con HyperLogLog): " + distintas + "</p>\n");
+    if (global != null)
+      escribeGlobal(w);
+    w.write("      <br>\n      <h4>Archivos Generados:</h4>\n");
     while(!filess.esVacia()){
       String sss = (String) filess.saca();
-      cc += "      <a href='" + sss + ".html' > " + directorio + "/" + sss + ".html</a><br>\n";
+      w.write("      <a href='" + sss + ".html' > " + directorio + "/" + sss + ".html</a><br>\n");
+    }
+  }
+
+  private void escribeGlobal(Writer w) throws IOException {
+    w.write("      <h4>Todos los archivos:</h4>\n");
+    w.write("      <p>Palabras: " + global.getTotal() + "; palabras distintas: " + global.getElementos() + " (cuentas exactas de " + archivosGlobal + " archivos)</p>\n");
+    w.write("      <table border='1'>\n");
+    int acc = 0;
+    for (PalabraContada palabra : global.mayores(MAYORES_GLOBAL)) {
+      if ((acc % 5) == 0) w.write("        <tr>\n");
+      w.write("          <td width='20%'><b>" + palabra.getPalabra() + ":</b> " + palabra.getCantidad() + "</td>\n");
+      if ((acc % 5) == 4) w.write("        </tr>\n");
+      acc++;
     }
-    this.codigo += cc;
+    w.write("      </table>\n");
   }
 
+  /**
+   *  Analiza el archivo y escribe su página. Sin escritor, cada sección se
+   *  escribe directamente al archivo conforme se genera, de forma que nunca
+   *  se tiene la página completa en memoria; con escritor, una página se
+   *  tiene en memoria sólo hasta que el escritor la escribe, y si llega a
+   *  {@link EscritorAsincrono#DIRECTA} bytes se le entrega por pedazos.
+   *
+   */
   public void generaArchivo(){
-    htmlHeader();
-    analizarContenido();
-    contarPalabras();
-    generarGraficasSVG();
-    generarArbolesSVG();
-    htmlClosure();
-    escribirArchivo();
+    CacheAnalisis.Huella huella = null;
+    if (cache != null && (contadores > 0 || ngramas > 1)) {
+      cache.olvida(archivo);
+    } else if (cache != null) {
+      try {
+        huella = cache.huella(archivo);
+        if (vigente(huella)) {
+          salida.println("Sin cambios en el archivo " + archivo.getName());
+          if (corpus != null)
+            combinaCorpus(cache.hiperLogLog(huella.getRuta()));
+          return;
+        }
+      } catch (IOException e) {
+        huella = null; // Se analiza el archivo sin caché
+      }
+    }
+    Metricas m = Metricas.inicia(archivo.getName(), contadores > 0 ? "analizarAproximado" : "analizarContenido");
+    DiccionarioContador dic = contadores > 0 ? analizarAproximado() : analizarContenido();
+    m.termina(archivo.length(), analisis.getTotal());
+    m = Metricas.inicia(archivo.getName(), "escribirArchivo"); // Abarca las etapas de cada sección
+    try (Writer w = abrePagina(archivo.getName() + ".html")) {
+      escribePagina(w);
+    } catch (IOException e) {
+      System.err.println("Hay problemas con el directorio especificado :(");
+      System.exit(0);
+    }
+    if (cache != null)
+      cache.registraPagina(archivo.getName() + ".html", archivo); // Otra entrada con el mismo nombre ya no la tiene
+    m.termina(contada.getBytes(), 0);
+    HiperLogLog hll = analisis.getHiperLogLog();
+    if (corpus != null)
+      combinaCorpus(hll);
+    if (huella != null && dic != null) {
+      m = Metricas.inicia(archivo.getName(), "guardarCache");
+      try {
+        if (!cache.guarda(huella, archivo.getName() + ".html", dic, hll))
+          System.err.println(archivo.getName() + " cambió mientras se analizaba; no se guardó en el caché");
+      } catch (IOException e) {
+        System.err.println("No se pudo guardar el caché de " + archivo.getName());
+      }
+      m.termina(0, dic.getElementos());
+    }
   }
 
-  private void htmlHeader(){
-    this.codigo =
-  "<!DOCTYPE html> \n<html> \n  <head> \n    <title>" + archivo.getName() + "</title> \n    <link rel='stylesheet' href='stylesheet.css'>\n  </head> \n  <body> \n   <h1>" + archivo.getName() + "</h1>\n";
+  /**
+   *  Nos dice si la página está al día: si el archivo no cambió, la página
+   *  es suya y existen todos sus archivos con la compresión elegida.
+   *
+   */
+  private boolean vigente(CacheAnalisis.Huella huella) throws IOException {
+    File pagina = new File(directorio + "/" + archivo.getName() + ".html");
+    return cache.vigente(huella, pagina.getName(), compresion.archivos(pagina));
   }
 
-  private void htmlHeaderIndex(){
-    this.codigo =
-  "<!DOCTYPE html> \n<html> \n  <head> \n    <title>Index EDD 2018-1</title> \n    <link rel='stylesheet' href='stylesheet.css'>\n  </head> \n  <body> \n";
+  private void combinaCorpus(HiperLogLog hll){
+    if (hll == null)
+      return;
+    synchronized (corpus) {
+      corpus.combina(hll);
+    }
   }
 
-  private void htmlClosure(){
-    this.codigo +=
-    "\n  </body> \n</html>";
+  public void generaInstantanea(){
+    File pagina = new File(directorio + "/" + archivo.getName() + ".html");
+    try {
+      contada = new SalidaContada(compresion.abre(pagina, f -> new FileOutputStream(temporal(f))));
+      escritos = 0;
+      try (Writer w = new BufferedWriter(new OutputStreamWriter(contada, StandardCharsets.UTF_8))) {
+        escribePagina(w);
+      }
+      for (File f : compresion.archivos(pagina))
+        Files.move(temporal(f).toPath(), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      System.err.println("Hay problemas con el directorio especificado :(");
+      System.exit(0);
+    }
+    salida.println("Página de " + archivo.getName() + " actualizada: " + analisis.getTotal() + " palabras");
   }
 
+  private static File temporal(File f){
+    return new File(f.getPath() + ".tmp");
+  }
 
+  /**
+   *  Escribe la página midiendo cada sección con {@link Metricas}.
+   *
+   */
+  private void escribePagina(Writer w) throws IOException {
+    Metricas m = Metricas.inicia(archivo.getName(), "contarPalabras");
+    htmlHeader(w);
+    contarPalabras(w);
+    terminaEtapa(m, w, analisis.getDistintas());
+    if (contadorNGramas != null) {
+      m = Metricas.inicia(archivo.getName(), "contarNGramas");
+      contarNGramas(w);
+      terminaEtapa(m, w, 0);
+    }
+    m = Metricas.inicia(archivo.getName(), "generarGraficasSVG");
+    generarGraficasSVG(w);
+    terminaEtapa(m, w, 0);
+    m = Metricas.inicia(archivo.getName(), "generarArbolesSVG");
+    generarArbolesSVG(w);
+    terminaEtapa(m, w, 0);
+    htmlClosure(w);
+  }
 
-  private void analizarContenido(){
-    try (BufferedReader br = new BufferedReader(new FileReader(this.archivo))) {
-      String line;
-      dic = new DiccionarioContador();
-      while ((line = br.readLine()) != null) {
-        line = Normalizer.normalize(line, Normalizer.Form.NFD);
-        line = line.replaceAll("[\\p{InCombiningDiacriticalMarks}]", "").toLowerCase();
-        String[] words = line.split("\\P{L}+");
-        for (String s : words){
-          if (!s.equals("")) dic.agrega(s, s); // Agregamos la palabra al arreglo
-        }
-      }
+  /**
+   *  Termina la medición de una sección con los bytes que escribió; para
+   *  contarlos hay que vaciar el búfer, así que sólo se hace si la medición
+   *  está activa.
+   *
+   */
+  private void terminaEtapa(Metricas m, Writer w, long palabras) throws IOException {
+    if (!m.esActiva())
+      return;
+    w.flush();
+    m.termina(contada.getBytes() - escritos, palabras);
+    escritos = contada.getBytes();
+  }
+
+  private void htmlHeader(Writer w) throws IOException {
+    w.write("<!DOCTYPE html> \n<html> \n  <head> \n    <meta charset='utf-8'>\n    <title>" + archivo.getName() + "</title> \n    <link rel='stylesheet' href='stylesheet.css'>\n  </head> \n  <body> \n   <h1>" + archivo.getName() + "</h1>\n");
+  }
+
+  private void htmlHeaderIndex(Writer w) throws IOException {
+    w.write("<!DOCTYPE html> \n<html> \n  <head> \n    <meta charset='utf-8'>\n    <title>Index EDD 2018-1</title> \n    <link rel='stylesheet' href='stylesheet.css'>\n  </head> \n  <body> \n");
+  }
+
+  private void htmlClosure(Writer w) throws IOException {
+    w.write("\n  </body> \n</html>");
+  }
+
+
+
+  /**
+   *  Cuenta las palabras del archivo y calcula su análisis una sola vez;
+   *  todas las secciones de la página se generan a partir de él.
+   *
+   */
+  private DiccionarioContador analizarContenido(){
+    DiccionarioContador dic = new DiccionarioContador();
+    try {
+      if (ngramas > 1)
+        analizarNGramas(dic); // Una sola pasada para no partir ningún n-grama
+      else if (archivo.length() >= AnalizadorParalelo.UMBRAL_ARCHIVO)
+        dic = AnalizadorParalelo.analiza(archivo); // Archivos grandes en fork/join
+      else
+        LectorMapeado.analiza(archivo, dic);
     } catch (Exception e){
       System.err.println(e);
+      analisis = new Analisis(dic);
+      return null; // Un análisis incompleto no se guarda en el caché
     }
+    analisis = new Analisis(dic);
+    return dic;
   }
 
+  /**
+   *  Cuenta las palabras y los n-gramas del archivo en una sola pasada
+   *  secuencial.
+   *
+   */
+  private void analizarNGramas(DiccionarioContador dic) throws IOException {
+    ContadorNGramas g = new ContadorNGramas(ngramas, dic); // Comparte las cadenas del diccionario
+    contadorNGramas = g;
+    try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+      LectorMapeado.analiza(canal, 0, canal.size(), new Tokenizador(p -> {
+        dic.incrementa(p);
+        g.agrega(p);
+      }));
+    }
+  }
 
+  /**
+   *  Cuenta las palabras del archivo de forma aproximada. Regresa
+   *  <code>null</code> porque no hay un diccionario exacto que guardar.
+   *
+   */
+  private DiccionarioContador analizarAproximado(){
+    ContadorAproximado contador = new ContadorAproximado(contadores);
+    AccionPalabra accion = contador::incrementa;
+    if (ngramas > 1) {
+      ContadorNGramas g = new ContadorNGramas(ngramas);
+      contadorNGramas = g;
+      accion = p -> {
+        contador.incrementa(p);
+        g.agrega(p);
+      };
+    }
+    try (FileChannel canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ)) {
+      LectorMapeado.analiza(canal, 0, canal.size(), new Tokenizador(accion));
+    } catch (Exception e){
+      System.err.println(e);
+    }
+    analisis = contador.analisis();
+    return null;
+  }
 
-  private void escribirArchivo(){
-    try{
-      File newFile = new File(directorio + "/" + archivo.getName() + ".html");
-      if (newFile.createNewFile()){
-         System.out.println("Archivo html creado!");
-       }else{
-         System.out.println("Se sobreescribió el archivo " + archivo.getName() + ".html");
-       }
-       FileWriter fw = new FileWriter(newFile.getAbsoluteFile());
-          BufferedWriter bw = new BufferedWriter(fw);
 
-          // Write in file
-          bw.write(this.codigo);
 
-          // Close connection
-          bw.close();
-    } catch (Exception e) {
-      System.err.println("Hay problemas con el directorio especificado :(");
-      System.exit(0);
-	      
-	    }
-  }
-
-  private void escribirIndex(){
-    try{
-      File newFile = new File(directorio + "/index.html");
-      if (newFile.createNewFile()){
-         System.out.println("Archivo html creado!");
-       }else{
-         System.out.println("Se sobreescribió el archivo index.html");
-       }
-       FileWriter fw = new FileWriter(newFile.getAbsoluteFile());
-          BufferedWriter bw = new BufferedWriter(fw);
-
-          // Write in file
-          bw.write(this.codigo);
-
-          // Close connection
-          bw.close();
-    } catch (Exception e) {
-        e.printStackTrace();
-      }
+  /**
+   *  Abre un archivo del directorio de salida para escribirlo en UTF-8 con
+   *  la compresión elegida, avisando si se crea o se sobreescribe.
+   *
+   */
+  private Writer abreArchivo(String nombre) throws IOException {
+    File destino = new File(directorio + "/" + nombre);
+    File newFile = compresion.principal(destino);
+    if (newFile.createNewFile()){
+      salida.println("Archivo html creado!");
+    }else{
+      salida.println("Se sobreescribió el archivo " + newFile.getName());
+    }
+    contada = new SalidaContada(compresion.abre(destino, FileOutputStream::new));
+    escritos = 0;
+    return new BufferedWriter(new OutputStreamWriter(contada, StandardCharsets.UTF_8));
+  }
+
+  /**
+   *  Abre la página de un archivo. Si hay escritor, la página se escribe en
+   *  memoria y se le entrega al cerrarla; como no se toca el disco, no se
+   *  sabe si el archivo se crea o se sobreescribe.
+   *
+   */
+  private Writer abrePagina(String nombre) throws IOException {
+    if (escritor == null)
+      return abreArchivo(nombre);
+    File destino = new File(directorio + "/" + nombre);
+    salida.println("Se escribirá el archivo " + compresion.principal(destino).getName());
+    contada = new SalidaContada(compresion.abre(destino, escritor::pagina));
+    escritos = 0;
+    return new BufferedWriter(new OutputStreamWriter(contada, StandardCharsets.UTF_8));
   }
 
 
 
-  private void contarPalabras(){
-    this.codigo += "    <div>\n";
-    this.codigo += "      <h2>Contador de palabras: </h2>\n";
-    this.codigo += "      <table border='1'>\n";
+  private void contarPalabras(Writer w) throws IOException {
+    w.write("    <div>\n");
+    w.write("      <h2>Contador de palabras: </h2>\n");
+    if (analisis.esAproximado())
+      w.write("      <p>Cuentas aproximadas de las " + analisis.getDistintas() + " palabras más frecuentes. Ninguna cuenta es menor que la real, y cada una la excede en a lo más " + analisis.getError() + "; con probabilidad de " + (analisis.getConfianza() * 100) + "%, en a lo más " + analisis.getErrorProbable() + ".</p>\n");
+    else if (analisis.getDescartadas() > 0) // Sólo en flujos con límite de memoria
+      w.write("      <p>Apariciones descartadas por falta de memoria: " + analisis.getDescartadas() + " de " + analisis.getTotal() + "</p>\n");
+    if (analisis.distintasExactas())
+      w.write("      <p>Palabras distintas: " + analisis.getDistintas() + " (HyperLogLog estima " + analisis.getDistintasEstimadas() + ")</p>\n");
+    else
+      w.write("      <p>Palabras distintas (estimación con HyperLogLog): " + analisis.getDistintasEstimadas() + "</p>\n");
+    if (analisis.getDesbordadas() > 0)
+      w.write("      <p>Apariciones que no cupieron en cuentas topadas en " + Integer.MAX_VALUE + ": " + analisis.getDesbordadas() + "</p>\n");
+    if (analisis.getIncluidas() < analisis.getDistintas()) // Instantáneas de flujos
+      w.write("      <p>Se muestran las " + analisis.getIncluidas() + " palabras más usadas.</p>\n");
+    w.write("      <table border='1'>\n");
     int acc = 0;
-    int aux = acc;
-    String palabra;
-    for (int i = 0; i < dic.getTamanioEntradas(); i++) {
-      if ((palabra = dic.getPalabraEnIndice(i)) != null){
-        if ((acc % 5) == 0) this.codigo += "        <tr>\n";
-        this.codigo += "          <td width='20%'><b>" + palabra + ":</b> " + dic.getCantidadEnIndice(i) + "</td>\n";
-        aux = acc + 1;
-        if ((acc % 5) == 4) this.codigo += "        </tr>\n";
-      }
-      acc = aux;
+    for (PalabraContada palabra : analisis) {
+      if ((acc % 5) == 0) w.write("        <tr>\n");
+      w.write("          <td width='20%'><b>");
+      w.write(palabra.getPalabra());
+      w.write(":</b> ");
+      w.write(Integer.toString(palabra.getCantidad()));
+      w.write("</td>\n");
+      if ((acc % 5) == 4) w.write("        </tr>\n");
+      acc++;
     }
-    this.codigo += "      </table>\n    </div>\n";
+    w.write("      </table>\n    </div>\n");
   }
 
 
-  private void generarGraficasSVG(){
-    GeneraGrafica pie = new GeneraGrafica(dic);
-    this.codigo += "    <div>\n";
-    //this.codigo += pie.generaPieSVG();
-    this.codigo += pie.generaBarSVG();
-    this.codigo += "    </div>\n";
+  private void contarNGramas(Writer w) throws IOException {
+    for (int k = 2; k <= contadorNGramas.getN(); k++) {
+      w.write("    <div>\n");
+      w.write("      <h2>" + NOMBRES_NGRAMAS[k] + ": </h2>\n");
+      w.write("      <p>Contados: " + contadorNGramas.getTotal(k) + "; distintos: " + contadorNGramas.getDistintos(k) + "</p>\n");
+      if (contadorNGramas.getDescartados(k) > 0)
+        w.write("      <p>Descartados por tener palabras con identificadores demasiado grandes: " + contadorNGramas.getDescartados(k) + "</p>\n");
+      w.write("      <table border='1'>\n");
+      int acc = 0;
+      for (PalabraContada ngrama : contadorNGramas.mayores(k, MAYORES_NGRAMAS)) {
+        if ((acc % 5) == 0) w.write("        <tr>\n");
+        w.write("          <td width='20%'><i>" + ngrama.getPalabra() + ":</i> " + ngrama.getCantidad() + "</td>\n");
+        if ((acc % 5) == 4) w.write("        </tr>\n");
+        acc++;
+      }
+      w.write("      </table>\n    </div>\n");
+    }
+  }
+
+  private void generarGraficasSVG(Writer w) throws IOException {
+    GeneraGrafica pie = new GeneraGrafica(analisis);
+    w.write("    <div>\n");
+    //pie.generaPieSVG(w);
+    pie.generaBarSVG(w);
+    w.write("    </div>\n");
   }
 
-  private void generarArbolesSVG(){
-    GeneraArbol tree = new GeneraArbol(dic);
-    this.codigo += "    <div>\n";
-    this.codigo += tree.generaRojinegroSVG();
-    this.codigo += "    </div>\n";
-    this.codigo += "    <div>\n";
-    this.codigo += tree.generaAVLSVG();
-    this.codigo += "    </div>\n";
+  private void generarArbolesSVG(Writer w) throws IOException {
+    GeneraArbol tree = new GeneraArbol(analisis);
+    w.write("    <div>\n");
+    tree.generaRojinegroSVG(w);
+    w.write("    </div>\n");
+    w.write("    <div>\n");
+    tree.generaAVLSVG(w);
+    w.write("    </div>\n");
   }
 }
@@ -0,0 +1,154 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * <p>Clase para estimar el número de palabras distintas con
+ * <i>HyperLogLog</i>.</p>
+ *
+ * <p>El estimador tiene 2<sup>{@link #PRECISION}</sup> registros de un byte.
+ * Cada palabra se dispersa a 64 bits; los primeros bits eligen un registro,
+ * y el registro guarda la posición más alta del primer bit encendido del
+ * resto que se haya visto. Como agregar la misma palabra dos veces no cambia
+ * nada, da lo mismo alimentarlo con cada aparición que con cada palabra
+ * distinta. Su error estándar es 1.04/√<i>m</i>, alrededor de 1.6%, y usa
+ * la misma memoria sin importar el número de palabras.</p>
+ *
+ * <p>Dos estimadores se combinan tomando el máximo de cada registro, y el
+ * resultado es el estimador de la unión de sus palabras; así se estima el
+ * vocabulario de varios archivos sin un diccionario global.</p>
+ */
+public class HiperLogLog {
+
+    /** Número de bits que eligen el registro. */
+    public static final int PRECISION = 12;
+
+    /* Número de registros. */
+    private static final int REGISTROS = 1 << PRECISION;
+    /* Número mágico de los archivos de estimadores ("EDDH"). */
+    private static final int MAGICO = 0x45444448;
+
+    /* Los registros. */
+    private byte[] registros;
+
+    /**
+     * Construye un estimador vacío.
+     */
+    public HiperLogLog() {
+        registros = new byte[REGISTROS];
+    }
+
+    /**
+     * Lee un estimador de un archivo escrito con {@link #escribe}.
+     * @param archivo el archivo a leer.
+     * @return el estimador del archivo.
+     * @throws IOException si ocurre un error al leer el archivo, o si no es
+     *         un estimador válido.
+     */
+    public static HiperLogLog lee(File archivo) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                 new BufferedInputStream(new FileInputStream(archivo)))) {
+            if (in.readInt() != MAGICO || in.readInt() != PRECISION)
+                throw new IOException("Estimador inválido.");
+            HiperLogLog hll = new HiperLogLog();
+            in.readFully(hll.registros);
+            return hll;
+        }
+    }
+
+    /**
+     * Escribe el estimador en un archivo.
+     * @param archivo el archivo destino.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public void escribe(File archivo) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                 new BufferedOutputStream(new FileOutputStream(archivo)))) {
+            out.writeInt(MAGICO);
+            out.writeInt(PRECISION);
+            out.write(registros);
+        }
+    }
+
+    /**
+     * Agrega una palabra al estimador.
+     * @param palabra la palabra.
+     */
+    public void agrega(CharSequence palabra) {
+        long h = dispersion(palabra);
+        int i = (int)(h >>> (64 - PRECISION));
+        /* El centinela acota la posición cuando el resto es cero. */
+        long resto = (h << PRECISION) | (1L << (PRECISION - 1));
+        byte rango = (byte)(Long.numberOfLeadingZeros(resto) + 1);
+        if (rango > registros[i])
+            registros[i] = rango;
+    }
+
+    /**
+     * Combina otro estimador con éste, que queda como el estimador de la
+     * unión de las palabras de los dos. El estimador recibido no se modifica.
+     * @param hll el estimador a combinar.
+     */
+    public void combina(HiperLogLog hll) {
+        for (int i = 0; i < REGISTROS; i++)
+            if (hll.registros[i] > registros[i])
+                registros[i] = hll.registros[i];
+    }
+
+    /**
+     * Regresa la estimación del número de palabras distintas.
+     * @return la estimación del número de palabras distintas.
+     */
+    public long estima() {
+        double suma = 0;
+        int ceros = 0;
+        for (byte r : registros) {
+            suma += 1.0 / (1L << r);
+            if (r == 0)
+                ceros++;
+        }
+        double m = REGISTROS;
+        double estimacion = 0.7213 / (1 + 1.079 / m) * m * m / suma;
+        /* Para pocas palabras se usa el conteo lineal de registros vacíos. */
+        if (estimacion <= 2.5 * m && ceros > 0)
+            estimacion = m * Math.log(m / ceros);
+        return Math.round(estimacion);
+    }
+
+    /**
+     * Regresa una copia del estimador.
+     * @return una copia del estimador.
+     */
+    public HiperLogLog copia() {
+        HiperLogLog hll = new HiperLogLog();
+        System.arraycopy(registros, 0, hll.registros, 0, REGISTROS);
+        return hll;
+    }
+
+    /* Regresa el código de dispersión de 64 bits de una palabra: el
+     * polinomio de String#hashCode sobre long, mezclado con el finalizador
+     * de MurmurHash3. */
+    static long dispersion(CharSequence palabra) {
+        long h = 0;
+        for (int i = 0; i < palabra.length(); i++)
+            h = 31 * h + palabra.charAt(i);
+        return mezcla(h);
+    }
+
+    /* El finalizador de MurmurHash3 de 64 bits. */
+    private static long mezcla(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,88 @@
+package mx.unam.ciencias.edd;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>Clase para analizar archivos mapeándolos en memoria.</p>
+ *
+ * <p>El archivo se mapea con {@link FileChannel#map} en ventanas de a lo más
+ * {@link #VENTANA} bytes, de forma que se pueden leer archivos de más de 2 GB.
+ * Cada ventana se decodifica como UTF-8 directamente a un búfer de caracteres
+ * que se reutiliza, y el búfer se pasa tal cual al {@link Tokenizador}, sin
+ * construir una cadena por línea.</p>
+ */
+public class LectorMapeado {
+
+    /** Tamaño máximo de una ventana mapeada. */
+    public static final long VENTANA = 64L << 20;
+
+    /* Capacidad del búfer de caracteres. */
+    private static final int CAPACIDAD_CARACTERES = 1 << 16;
+
+    /* Constructor privado para evitar instanciación. */
+    private LectorMapeado() {}
+
+    /**
+     * Analiza un archivo completo, contando sus palabras en el diccionario.
+     * @param archivo el archivo a analizar.
+     * @param dic el diccionario donde se cuentan las palabras.
+     * @throws IOException si ocurre un error al leer el archivo.
+     */
+    public static void analiza(File archivo, DiccionarioContador dic)
+        throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo.toPath(),
+                                                  StandardOpenOption.READ)) {
+            analiza(canal, 0, canal.size(), new Tokenizador(dic::incrementa));
+        }
+    }
+
+    /**
+     * Analiza el rango [inicio, fin) de un canal, pasándole los caracteres al
+     * tokenizador y terminándolo al final. El rango debe empezar y terminar en
+     * el límite de un carácter de UTF-8.
+     * @param canal el canal a analizar.
+     * @param inicio el inicio del rango.
+     * @param fin el fin del rango.
+     * @param tokenizador el tokenizador que separa las palabras.
+     * @throws IOException si ocurre un error al leer el canal.
+     */
+    public static void analiza(FileChannel canal, long inicio, long fin,
+                               Tokenizador tokenizador) throws IOException {
+        CharsetDecoder decodificador = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        CharBuffer caracteres = CharBuffer.allocate(CAPACIDAD_CARACTERES);
+        long posicion = inicio;
+        while (posicion < fin) {
+            long tamaño = Math.min(VENTANA, fin - posicion);
+            boolean ultima = posicion + tamaño == fin;
+            MappedByteBuffer ventana =
+                canal.map(FileChannel.MapMode.READ_ONLY, posicion, tamaño);
+            while (true) {
+                CoderResult r = decodificador.decode(ventana, caracteres, ultima);
+                tokenizador.tokeniza(caracteres.array(), 0, caracteres.position());
+                caracteres.clear();
+                /* En un underflow lo que queda de la ventana es a lo más un
+                 * carácter incompleto, que se vuelve a mapear en la
+                 * siguiente. */
+                if (r.isUnderflow())
+                    break;
+            }
+            posicion += ventana.position();
+        }
+        if (fin > inicio) {
+            decodificador.flush(caracteres);
+            tokenizador.tokeniza(caracteres.array(), 0, caracteres.position());
+        }
+        tokenizador.termina();
+    }
+}
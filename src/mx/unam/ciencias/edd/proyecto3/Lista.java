@@ -5,7 +5,9 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 
 /**
- * <p>Clase genérica para listas doblemente ligadas.</p>
+ * <p>Clase genérica para listas doblemente ligadas. Para acceder a los
+ * elementos por índice conviene más {@link ListaArreglo}; ambas implementan
+ * {@link Secuencia}.</p>
  *
  * <p>Las listas nos permiten agregar elementos al inicio o final de la lista,
  * eliminar elementos de la lista, comprobar si un elemento está o no en la
@@ -13,7 +15,7 @@ import java.util.NoSuchElementException;
  *
  * <p>Las listas no aceptan a <code>null</code> como elemento.</p>
  */
-public class Lista<T> implements Coleccion<T> {
+public class Lista<T> implements Secuencia<T> {
 
     /* Clase Nodo privada para uso interno de la clase Lista. */
     private class Nodo {
@@ -95,7 +97,7 @@ public class Lista<T> implements Coleccion<T> {
      * #getElementos}.
      * @return la longitud de la lista, el número de elementos que contiene.
      */
-    public int getLongitud() {
+    @Override public int getLongitud() {
         return longitud;
     }
     /**
@@ -145,7 +147,7 @@ public class Lista<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si <code>elemento</code> es
      *         <code>null</code>.
      */
-    public void agregaFinal(T elemento) {
+    @Override public void agregaFinal(T elemento) {
         agrega(elemento);
     }
     /**
@@ -155,7 +157,7 @@ public class Lista<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si <code>elemento</code> es
      *         <code>null</code>.
      */
-    public void agregaInicio(T elemento) {
+    @Override public void agregaInicio(T elemento) {
 
         if (elemento == null)
             throw new IllegalArgumentException("La lista no acepta elementos null");
@@ -187,7 +189,7 @@ public class Lista<T> implements Coleccion<T> {
      * @throws IllegalArgumentException si <code>elemento</code> es
      *         <code>null</code>.
      */
-    public void inserta(int i, T elemento) {
+    @Override public void inserta(int i, T elemento) {
         if (elemento == null)
             throw new IllegalArgumentException("Elemento a agregar null");
         if (i < 1) {
@@ -211,8 +213,8 @@ public class Lista<T> implements Coleccion<T> {
 
     }
     /**
-     * Elimina un elemento de la lista. Si el elemento no está contenido en la
-     * lista, el método no la modifica.
+     * Elimina la primera aparición de un elemento de la lista. Si el elemento
+     * no está contenido en la lista, el método no la modifica.
      * @param elemento el elemento a eliminar.
      */
     @Override public void elimina(T elemento) {
@@ -236,17 +238,17 @@ public class Lista<T> implements Coleccion<T> {
             longitud --;
             return;
         }
-        if (this.rabo.elemento.equals(elemento)) {
-            this.rabo = rabo.anterior;
-            rabo.siguiente = null;
-            longitud --;
-            return;
-        }
 
         Nodo aux = this.cabeza;
         while ( ! aux.elemento.equals(elemento)) {
             aux = aux.siguiente;
         }
+        if (aux == this.rabo) {
+            this.rabo = rabo.anterior;
+            rabo.siguiente = null;
+            longitud --;
+            return;
+        }
         aux.anterior.siguiente = aux.siguiente;
         aux.siguiente.anterior = aux.anterior;
         longitud --;
@@ -258,7 +260,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return el primer elemento de la lista antes de eliminarlo.
      * @throws NoSuchElementException si la lista es vacía.
      */
-    public T eliminaPrimero() {
+    @Override public T eliminaPrimero() {
         if (esVacia())
             throw new NoSuchElementException("Lista vacía");
         T elemento = cabeza.elemento;
@@ -277,7 +279,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return el último elemento de la lista antes de eliminarlo.
      * @throws NoSuchElementException si la lista es vacía.
      */
-    public T eliminaUltimo() {
+    @Override public T eliminaUltimo() {
         if (esVacia())
             throw new NoSuchElementException("Lista vacía");
         longitud--;
@@ -314,7 +316,7 @@ public class Lista<T> implements Coleccion<T> {
      * Regresa la reversa de la lista.
      * @return una nueva lista que es la reversa la que manda llamar el método.
      */
-    public Lista<T> reversa() {
+    @Override public Lista<T> reversa() {
         Lista<T> reversa = new Lista<T>();
         if (! esVacia()) {
             Nodo aux = rabo;
@@ -332,7 +334,7 @@ public class Lista<T> implements Coleccion<T> {
      * lista que manda llamar el método, en el mismo orden.
      * @return una copiad de la lista.
      */
-    public Lista<T> copia() {
+    @Override public Lista<T> copia() {
         Lista<T> copia = new Lista <T>();
         if (! esVacia()) {
             Nodo aux = cabeza;
@@ -341,7 +343,6 @@ public class Lista<T> implements Coleccion<T> {
                 aux = aux.siguiente;
             }
         }
-        System.out.println("Copia vacía.");
         return copia;
     }
 
@@ -358,7 +359,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return el primer elemento de la lista.
      * @throws NoSuchElementException si la lista es vacía.
      */
-    public T getPrimero() {
+    @Override public T getPrimero() {
         if (esVacia())
             throw new NoSuchElementException("La lista está vacía");
         return cabeza.elemento;
@@ -369,7 +370,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return el primer elemento de la lista.
      * @throws NoSuchElementException si la lista es vacía.
      */
-    public T getUltimo() {
+    @Override public T getUltimo() {
         if (esVacia())
             throw new NoSuchElementException("La lista está vacía");
         return rabo.elemento;
@@ -382,7 +383,7 @@ public class Lista<T> implements Coleccion<T> {
      * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
      *         igual que el número de elementos en la lista.
      */
-    public T get(int i) {
+    @Override public T get(int i) {
         if (i < 0 || i>=longitud)
             throw new ExcepcionIndiceInvalido("Indice fuera de rango.");
         Nodo aux = cabeza;
@@ -400,7 +401,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return el índice del elemento recibido en la lista, o -1 si
      *         el elemento no está contenido en la lista.
      */
-    public int indiceDe(T elemento) {
+    @Override public int indiceDe(T elemento) {
         int indice = -1;
 
         if (elemento != null) {
@@ -480,61 +481,151 @@ public class Lista<T> implements Coleccion<T> {
      * Regresa un iterador para recorrer la lista en ambas direcciones.
      * @return un iterador para recorrer la lista en ambas direcciones.
      */
-    public IteradorLista<T> iteradorLista() {
+    @Override public IteradorLista<T> iteradorLista() {
         return new Iterador();
     }
 
     /**
      * Regresa una copia de la lista, pero ordenada. Para poder hacer el
      * ordenamiento, el método necesita una instancia de {@link Comparator} para
-     * poder comparar los elementos de la lista.
+     * poder comparar los elementos de la lista. El ordenamiento es estable.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @return una copia de la lista, pero ordenada.
+     */
+    @Override public Lista<T> mergeSort(Comparator<T> comparador) {
+        Lista<T> l = copia();
+        l.ordena(comparador);
+        return l;
+    }
+
+    /**
+     * Ordena la lista usando el comparador recibido, volviendo a ligar sus
+     * nodos; no crea ningún objeto. El ordenamiento es estable.
+     *
+     * Es un <i>merge sort</i> natural de abajo hacia arriba y sin recursión:
+     * recorre la lista separando corridas no decrecientes (los tramos
+     * estrictamente decrecientes se voltean), y las va mezclando como en un
+     * contador binario, por lo que las mezclas chicas se hacen mientras sus
+     * nodos siguen en el caché. Las corridas pendientes se apilan usando los
+     * anteriores de sus cabezas, que se vuelven a ligar al final. Una lista
+     * ya ordenada, o en orden inverso, se ordena en tiempo lineal.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     */
+    public void ordena(Comparator<T> comparador) {
+        if (longitud < 2)
+            return;
+        Nodo pila = null;
+        int corridas = 0;
+        Nodo n = cabeza;
+        while (n != null) {
+            Nodo corrida = n;
+            Nodo s = n.siguiente;
+            if (s != null && comparador.compare(s.elemento, n.elemento) < 0) {
+                n.siguiente = null;
+                for (n = s; n != null &&
+                         comparador.compare(n.elemento, corrida.elemento) < 0;
+                     n = s) {
+                    s = n.siguiente;
+                    n.siguiente = corrida;
+                    corrida = n;
+                }
+            } else {
+                while (s != null &&
+                       comparador.compare(s.elemento, n.elemento) >= 0) {
+                    n = s;
+                    s = n.siguiente;
+                }
+                n.siguiente = null;
+                n = s;
+            }
+            corrida.anterior = pila;
+            pila = corrida;
+            for (int k = corridas; (k & 1) != 0; k >>= 1)
+                pila = mezcla(pila.anterior, pila, comparador);
+            corridas++;
+        }
+        while (pila.anterior != null)
+            pila = mezcla(pila.anterior, pila, comparador);
+        cabeza = pila;
+        Nodo anterior = null;
+        for (n = cabeza; n != null; n = n.siguiente) {
+            n.anterior = anterior;
+            anterior = n;
+        }
+        rabo = anterior;
+    }
+
+    /**
+     * Regresa una copia de la lista, pero ordenada en paralelo con el
+     * comparador recibido. El ordenamiento es estable.
      * @param comparador el comparador que la lista usará para hacer el
      *                   ordenamiento.
      * @return una copia de la lista, pero ordenada.
      */
-    public Lista<T> mergeSort(Comparator<T> comparador) {
-
-        Lista<T> i = new Lista<T>();
-	Lista<T> d = new Lista<T>();
-	int j = (longitud/2);
-	Nodo a = cabeza;
-	if(longitud == 0 || longitud == 1)
-	    return copia();
-
-	while(a != null && j != 0){
-	    i.agrega(a.elemento);
-	    j--;
-	    a = a.siguiente;
-	}
-	while(a != null){
-	    d.agrega(a.elemento);
-	    a = a.siguiente;
-	}
-	i = i.mergeSort(comparador);
-	d = d.mergeSort(comparador);
-	return i.mezcla(d, comparador);
-    }
-    //Algoritmo auxiliar que mezclla las listas
-    private Lista<T> mezcla(Lista<T> lista, Comparator<T> comparador){
-	Lista<T> l = new Lista<T>();
-	Nodo n1 = this.cabeza;
-	Nodo n2 = lista.cabeza;
-	while(n1 != null && n2 != null)
-	    if(comparador.compare(n1.elemento, n2.elemento) <= 0){
-		l.agregaFinal(n1.elemento);
-		n1 = n1.siguiente;
-	    }else{
-		l.agregaFinal(n2.elemento);
-		n2 = n2.siguiente;
-	    }
-	Nodo n = (n1 == null ? n2 : n1);
-	while(n != null){
-	    l.agregaFinal(n.elemento);
-	    n = n.siguiente;
-	}
-
-	return l;
+    public Lista<T> mergeSortParalelo(Comparator<T> comparador) {
+        Lista<T> l = copia();
+        l.ordenaParalelo(comparador);
+        return l;
     }
+
+    /**
+     * Ordena la lista en paralelo usando el comparador recibido. El
+     * ordenamiento es estable.
+     *
+     * Las listas con menos de {@link Arreglos#UMBRAL_PARALELO} elementos se
+     * ordenan con {@link #ordena}. Las demás copian sus elementos a un
+     * arreglo, lo ordenan con {@link Arreglos#mergeSortParalelo}, y los
+     * regresan a los mismos nodos en orden, por lo que los nodos se siguen
+     * recorriendo en el orden en que están en memoria.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     */
+    public void ordenaParalelo(Comparator<T> comparador) {
+        if (longitud < Arreglos.UMBRAL_PARALELO) {
+            ordena(comparador);
+            return;
+        }
+        @SuppressWarnings("unchecked") T[] arreglo = (T[])new Object[longitud];
+        int i = 0;
+        for (Nodo n = cabeza; n != null; n = n.siguiente)
+            arreglo[i++] = n.elemento;
+        Arreglos.mergeSortParalelo(arreglo, comparador);
+        i = 0;
+        for (Nodo n = cabeza; n != null; n = n.siguiente)
+            n.elemento = arreglo[i++];
+    }
+
+    /* Mezcla dos corridas ordenadas y terminadas en null, a y b, donde b es
+     * la que sigue de a en la lista; regresa la cabeza de la mezcla, cuyo
+     * anterior es el anterior de a. */
+    private Nodo mezcla(Nodo a, Nodo b, Comparator<T> comparador) {
+        Nodo debajo = a.anterior;
+        Nodo inicio;
+        if (comparador.compare(b.elemento, a.elemento) < 0) {
+            inicio = b;
+            b = b.siguiente;
+        } else {
+            inicio = a;
+            a = a.siguiente;
+        }
+        Nodo ultimo = inicio;
+        while (a != null && b != null) {
+            if (comparador.compare(b.elemento, a.elemento) < 0) {
+                ultimo.siguiente = b;
+                b = b.siguiente;
+            } else {
+                ultimo.siguiente = a;
+                a = a.siguiente;
+            }
+            ultimo = ultimo.siguiente;
+        }
+        ultimo.siguiente = a != null ? a : b;
+        inicio.anterior = debajo;
+        return inicio;
+    }
+
     /**
      * Regresa una copia de la lista recibida, pero ordenada. La lista recibida
      * tiene que contener nada más elementos que implementan la interfaz {@link
@@ -548,6 +639,28 @@ public class Lista<T> implements Coleccion<T> {
         return lista.mergeSort((a, b) -> a.compareTo(b));
     }
 
+    /**
+     * Ordena la lista recibida, volviendo a ligar sus nodos. La lista
+     * recibida tiene que contener nada más elementos que implementan la
+     * interfaz {@link Comparable}.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>> void ordena(Lista<T> lista) {
+        lista.ordena((a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Ordena en paralelo la lista recibida. La lista recibida tiene que
+     * contener nada más elementos que implementan la interfaz {@link
+     * Comparable}.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista que se ordenará.
+     */
+    public static <T extends Comparable<T>> void ordenaParalelo(Lista<T> lista) {
+        lista.ordenaParalelo((a, b) -> a.compareTo(b));
+    }
+
     /**
      * Busca un elemento en la lista ordenada, usando el comparador recibido. El
      * método supone que la lista está ordenada usando el mismo comparador.
@@ -556,7 +669,7 @@ public class Lista<T> implements Coleccion<T> {
      * @return <tt>true</tt> si elemento está contenido en la lista,
      *         <tt>false</tt> en otro caso.
      */
-    public boolean busquedaLineal(T elemento, Comparator<T> comparador) {
+    @Override public boolean busquedaLineal(T elemento, Comparator<T> comparador) {
         Nodo aux = cabeza;
         boolean contiene = false;
         while (aux != null) {
@@ -0,0 +1,518 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase genérica para listas sobre un arreglo.</p>
+ *
+ * <p>Tiene las mismas operaciones que {@link Lista}, y ambas implementan
+ * {@link Secuencia}, pero los elementos se guardan en un arreglo circular que
+ * se duplica cuando se llena. Así, obtener el <em>i</em>-ésimo elemento toma
+ * tiempo constante, agregar o eliminar en cualquiera de los extremos toma
+ * tiempo constante amortizado, y recorrer la lista lee posiciones contiguas de
+ * memoria; a cambio, insertar o eliminar en medio recorre los elementos que
+ * están después.</p>
+ *
+ * <p>Las listas no aceptan a <code>null</code> como elemento.</p>
+ */
+public class ListaArreglo<T> implements Secuencia<T> {
+
+    /* Capacidad inicial; decidida arbitrariamente a 2^4. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /* Clase Iterador privada para iteradores. */
+    private class Iterador implements IteradorLista<T> {
+        /* El índice del elemento siguiente. */
+        private int siguiente;
+
+        /* Nos dice si hay un elemento siguiente. */
+        @Override public boolean hasNext() {
+            return siguiente < longitud;
+        }
+
+        /* Nos da el elemento siguiente. */
+        @Override public T next() {
+            if (siguiente >= longitud)
+                throw new NoSuchElementException("No hay siguiente.");
+            return arreglo[posicion(siguiente++)];
+        }
+
+        /* Nos dice si hay un elemento anterior. */
+        @Override public boolean hasPrevious() {
+            return siguiente > 0;
+        }
+
+        /* Nos da el elemento anterior. */
+        @Override public T previous() {
+            if (siguiente <= 0)
+                throw new NoSuchElementException("No hay anterior");
+            return arreglo[posicion(--siguiente)];
+        }
+
+        /* Mueve el iterador al inicio de la lista. */
+        @Override public void start() {
+            siguiente = 0;
+        }
+
+        /* Mueve el iterador al final de la lista. */
+        @Override public void end() {
+            siguiente = longitud;
+        }
+    }
+
+    /* El arreglo circular de los elementos. */
+    private T[] arreglo;
+    /* La posición del primer elemento en el arreglo. */
+    private int cabeza;
+    /* Número de elementos en la lista. */
+    private int longitud;
+
+    /**
+     * Construye una lista vacía.
+     */
+    public ListaArreglo() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Construye una lista vacía con espacio para el número de elementos
+     * recibido, para no tener que crecer el arreglo al agregarlos.
+     * @param capacidad el número de elementos para los que hay espacio.
+     * @throws IllegalArgumentException si la capacidad es negativa.
+     */
+    @SuppressWarnings("unchecked") public ListaArreglo(int capacidad) {
+        if (capacidad < 0)
+            throw new IllegalArgumentException("Capacidad negativa.");
+        arreglo = (T[])new Object[Math.max(capacidad, 1)];
+    }
+
+    /**
+     * Construye una lista con los elementos de la colección recibida, en el
+     * orden en que la recorre su iterador.
+     * @param coleccion la colección con los elementos.
+     */
+    public ListaArreglo(Coleccion<T> coleccion) {
+        this(coleccion.getElementos());
+        for (T elemento : coleccion)
+            agrega(elemento);
+    }
+
+    /* Construye una lista que usa el arreglo recibido, con sus primeros n
+     * elementos. */
+    private ListaArreglo(T[] arreglo, int n) {
+        this.arreglo = arreglo;
+        longitud = n;
+    }
+
+    /**
+     * Regresa la longitud de la lista. El método es idéntico a {@link
+     * #getElementos}.
+     * @return la longitud de la lista, el número de elementos que contiene.
+     */
+    @Override public int getLongitud() {
+        return longitud;
+    }
+
+    /**
+     * Regresa el número elementos en la lista. El método es idéntico a {@link
+     * #getLongitud}.
+     * @return el número elementos en la lista.
+     */
+    @Override public int getElementos() {
+        return longitud;
+    }
+
+    /**
+     * Nos dice si la lista es vacía.
+     * @return <code>true</code> si la lista es vacía, <code>false</code> en
+     *         otro caso.
+     */
+    @Override public boolean esVacia() {
+        return longitud == 0;
+    }
+
+    /**
+     * Agrega un elemento al final de la lista. El método es idéntico a {@link
+     * #agregaFinal}.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agrega(T elemento) {
+        agregaFinal(elemento);
+    }
+
+    /**
+     * Agrega un elemento al final de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agregaFinal(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento a agregar null.");
+        aseguraEspacio();
+        arreglo[posicion(longitud++)] = elemento;
+    }
+
+    /**
+     * Agrega un elemento al inicio de la lista.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void agregaInicio(T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento a agregar null.");
+        aseguraEspacio();
+        cabeza = cabeza == 0 ? arreglo.length - 1 : cabeza - 1;
+        arreglo[cabeza] = elemento;
+        longitud++;
+    }
+
+    /**
+     * Inserta un elemento en un índice explícito. Si el índice es menor o
+     * igual que cero, el elemento se agrega al inicio de la lista; si es mayor
+     * o igual que el número de elementos, se agrega al final. En otro caso,
+     * los elementos a partir del índice se recorren una posición.
+     * @param i el índice dónde insertar el elemento.
+     * @param elemento el elemento a insertar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    @Override public void inserta(int i, T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento a agregar null");
+        if (i < 1) {
+            agregaInicio(elemento);
+            return;
+        }
+        if (i >= longitud) {
+            agregaFinal(elemento);
+            return;
+        }
+        aseguraEspacio();
+        for (int j = longitud; j > i; j--)
+            arreglo[posicion(j)] = arreglo[posicion(j - 1)];
+        arreglo[posicion(i)] = elemento;
+        longitud++;
+    }
+
+    /**
+     * Elimina la primera aparición de un elemento de la lista. Si el elemento
+     * no está contenido en la lista, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    @Override public void elimina(T elemento) {
+        int i = indiceDe(elemento);
+        if (i >= 0)
+            eliminaEn(i);
+    }
+
+    /**
+     * Elimina el <em>i</em>-ésimo elemento de la lista y lo regresa; los
+     * elementos después de él se recorren una posición.
+     * @param i el índice del elemento a eliminar.
+     * @return el elemento eliminado.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     */
+    public T eliminaEn(int i) {
+        T elemento = get(i);
+        if (i == 0)
+            return eliminaPrimero();
+        for (int j = i; j < longitud - 1; j++)
+            arreglo[posicion(j)] = arreglo[posicion(j + 1)];
+        arreglo[posicion(--longitud)] = null;
+        return elemento;
+    }
+
+    /**
+     * Elimina el primer elemento de la lista y lo regresa.
+     * @return el primer elemento de la lista antes de eliminarlo.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    @Override public T eliminaPrimero() {
+        if (esVacia())
+            throw new NoSuchElementException("Lista vacía");
+        T elemento = arreglo[cabeza];
+        arreglo[cabeza] = null;
+        cabeza = posicion(1);
+        longitud--;
+        return elemento;
+    }
+
+    /**
+     * Elimina el último elemento de la lista y lo regresa.
+     * @return el último elemento de la lista antes de eliminarlo.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    @Override public T eliminaUltimo() {
+        if (esVacia())
+            throw new NoSuchElementException("Lista vacía");
+        int p = posicion(--longitud);
+        T elemento = arreglo[p];
+        arreglo[p] = null;
+        return elemento;
+    }
+
+    /**
+     * Nos dice si un elemento está en la lista.
+     * @param elemento el elemento que queremos saber si está en la lista.
+     * @return <tt>true</tt> si <tt>elemento</tt> está en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean contiene(T elemento) {
+        return indiceDe(elemento) >= 0;
+    }
+
+    /**
+     * Regresa la reversa de la lista.
+     * @return una nueva lista que es la reversa la que manda llamar el método.
+     */
+    @Override public ListaArreglo<T> reversa() {
+        T[] a = nuevoArreglo(longitud);
+        for (int i = 0; i < longitud; i++)
+            a[longitud - 1 - i] = arreglo[posicion(i)];
+        return new ListaArreglo<T>(a, longitud);
+    }
+
+    /**
+     * Regresa una copia de la lista. La copia tiene los mismos elementos que la
+     * lista que manda llamar el método, en el mismo orden.
+     * @return una copia de la lista.
+     */
+    @Override public ListaArreglo<T> copia() {
+        return new ListaArreglo<T>(enOrden(), longitud);
+    }
+
+    /**
+     * Limpia la lista de elementos, dejándola vacía. El arreglo conserva su
+     * tamaño.
+     */
+    @Override public void limpia() {
+        for (int i = 0; i < longitud; i++)
+            arreglo[posicion(i)] = null;
+        cabeza = longitud = 0;
+    }
+
+    /**
+     * Regresa el primer elemento de la lista.
+     * @return el primer elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    @Override public T getPrimero() {
+        if (esVacia())
+            throw new NoSuchElementException("La lista está vacía");
+        return arreglo[cabeza];
+    }
+
+    /**
+     * Regresa el último elemento de la lista.
+     * @return el último elemento de la lista.
+     * @throws NoSuchElementException si la lista es vacía.
+     */
+    @Override public T getUltimo() {
+        if (esVacia())
+            throw new NoSuchElementException("La lista está vacía");
+        return arreglo[posicion(longitud - 1)];
+    }
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la lista, en tiempo constante.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la lista.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     */
+    @Override public T get(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido("Indice fuera de rango.");
+        return arreglo[posicion(i)];
+    }
+
+    /**
+     * Reemplaza el <em>i</em>-ésimo elemento de la lista, en tiempo constante.
+     * @param i el índice del elemento a reemplazar.
+     * @param elemento el nuevo elemento.
+     * @return el elemento que estaba en el índice.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor o
+     *         igual que el número de elementos en la lista.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public T set(int i, T elemento) {
+        if (elemento == null)
+            throw new IllegalArgumentException("Elemento null.");
+        T anterior = get(i);
+        arreglo[posicion(i)] = elemento;
+        return anterior;
+    }
+
+    /**
+     * Regresa el índice del elemento recibido en la lista.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido en la lista, o -1 si
+     *         el elemento no está contenido en la lista.
+     */
+    @Override public int indiceDe(T elemento) {
+        if (elemento == null)
+            return -1;
+        for (int i = 0; i < longitud; i++)
+            if (arreglo[posicion(i)].equals(elemento))
+                return i;
+        return -1;
+    }
+
+    /**
+     * Regresa una representación en cadena de la lista.
+     * @return una representación en cadena de la lista.
+     */
+    @Override public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < longitud; i++) {
+            if (i > 0)
+                sb.append(", ");
+            sb.append(arreglo[posicion(i)].toString());
+        }
+        return sb.append("]").toString();
+    }
+
+    /**
+     * Nos dice si la lista es igual al objeto recibido.
+     * @param o el objeto con el que hay que comparar.
+     * @return <tt>true</tt> si la lista es igual al objeto recibido;
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        @SuppressWarnings("unchecked") ListaArreglo<T> lista =
+            (ListaArreglo<T>)o;
+        if (longitud != lista.longitud)
+            return false;
+        for (int i = 0; i < longitud; i++)
+            if (!arreglo[posicion(i)].equals(lista.arreglo[lista.posicion(i)]))
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa una dispersión de la lista, consistente con {@link #equals}.
+     * @return una dispersión de la lista.
+     */
+    @Override public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < longitud; i++)
+            h = 31 * h + arreglo[posicion(i)].hashCode();
+        return h;
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista en una dirección.
+     * @return un iterador para recorrer la lista en una dirección.
+     */
+    @Override public Iterator<T> iterator() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa un iterador para recorrer la lista en ambas direcciones.
+     * @return un iterador para recorrer la lista en ambas direcciones.
+     */
+    @Override public IteradorLista<T> iteradorLista() {
+        return new Iterador();
+    }
+
+    /**
+     * Regresa una copia de la lista, pero ordenada, usando {@link
+     * Arreglos#mergeSort(Object[], Comparator)} sobre una copia del arreglo.
+     * @param comparador el comparador que la lista usará para hacer el
+     *                   ordenamiento.
+     * @return una copia de la lista, pero ordenada.
+     */
+    @Override public ListaArreglo<T> mergeSort(Comparator<T> comparador) {
+        T[] a = enOrden();
+        Arreglos.mergeSort(a, 0, longitud, comparador);
+        return new ListaArreglo<T>(a, longitud);
+    }
+
+    /**
+     * Regresa una copia de la lista recibida, pero ordenada. La lista recibida
+     * tiene que contener nada más elementos que implementan la interfaz {@link
+     * Comparable}.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista que se ordenará.
+     * @return una copia de la lista recibida, pero ordenada.
+     */
+    public static <T extends Comparable<T>>
+    ListaArreglo<T> mergeSort(ListaArreglo<T> lista) {
+        return lista.mergeSort((a, b) -> a.compareTo(b));
+    }
+
+    /**
+     * Busca un elemento en la lista ordenada, usando el comparador recibido. El
+     * método supone que la lista está ordenada usando el mismo comparador.
+     * @param elemento el elemento a buscar.
+     * @param comparador el comparador con el que la lista está ordenada.
+     * @return <tt>true</tt> si elemento está contenido en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    @Override public boolean busquedaLineal(T elemento,
+                                            Comparator<T> comparador) {
+        for (int i = 0; i < longitud; i++)
+            if (comparador.compare(arreglo[posicion(i)], elemento) == 0)
+                return true;
+        return false;
+    }
+
+    /**
+     * Busca un elemento en una lista ordenada. La lista recibida tiene que
+     * contener nada más elementos que implementan la interfaz {@link
+     * Comparable}, y se da por hecho que está ordenada.
+     * @param <T> tipo del que puede ser la lista.
+     * @param lista la lista donde se buscará.
+     * @param elemento el elemento a buscar.
+     * @return <tt>true</tt> si el elemento está contenido en la lista,
+     *         <tt>false</tt> en otro caso.
+     */
+    public static <T extends Comparable<T>>
+    boolean busquedaLineal(ListaArreglo<T> lista, T elemento) {
+        return lista.busquedaLineal(elemento, (a, b) -> a.compareTo(b));
+    }
+
+    /* Regresa la posición en el arreglo del i-ésimo elemento. */
+    private int posicion(int i) {
+        int p = cabeza + i;
+        return p < arreglo.length ? p : p - arreglo.length;
+    }
+
+    /* Regresa un arreglo nuevo con los elementos en orden a partir de la
+     * posición cero, con al menos un lugar. */
+    private T[] enOrden() {
+        T[] a = nuevoArreglo(longitud);
+        int n = Math.min(longitud, arreglo.length - cabeza);
+        System.arraycopy(arreglo, cabeza, a, 0, n);
+        System.arraycopy(arreglo, 0, a, n, longitud - n);
+        return a;
+    }
+
+    /* Duplica el arreglo si está lleno. */
+    private void aseguraEspacio() {
+        if (longitud < arreglo.length)
+            return;
+        T[] a = nuevoArreglo(arreglo.length << 1);
+        int n = arreglo.length - cabeza;
+        System.arraycopy(arreglo, cabeza, a, 0, n);
+        System.arraycopy(arreglo, 0, a, n, cabeza);
+        arreglo = a;
+        cabeza = 0;
+    }
+
+    /* Crea un arreglo con al menos n lugares y al menos uno. */
+    @SuppressWarnings("unchecked") private T[] nuevoArreglo(int n) {
+        return (T[])new Object[Math.max(n, 1)];
+    }
+}
@@ -3,34 +3,35 @@ package mx.unam.ciencias.edd;
 import java.util.NoSuchElementException;
 
 /**
- * Clase abtracta para estructuras lineales restringidas a operaciones
- * mete/saca/mira.
+ * <p>Clase abtracta para estructuras lineales restringidas a operaciones
+ * mete/saca/mira.</p>
+ *
+ * <p>Los elementos se guardan en un arreglo circular cuya longitud es una
+ * potencia de dos, y que se duplica cuando se llena; los elementos se sacan
+ * siempre de la cabeza, y cada clase heredera decide en qué extremo se
+ * meten. Así, meter y sacar no crean ningún objeto salvo cuando el arreglo
+ * crece, y una estructura que se vacía y se vuelve a llenar reutiliza su
+ * arreglo.</p>
  */
 public abstract class MeteSaca<T> {
 
+    /* Capacidad inicial; decidida arbitrariamente a 2^4. */
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    /** El arreglo circular de los elementos. */
+    protected T[] arreglo;
+    /** La posición de la cabeza en el arreglo. */
+    protected int cabeza;
+    /** El número de elementos de la estructura. */
+    protected int elementos;
+
     /**
-     * Clase Nodo protegida para uso interno de sus clases herederas.
+     * Construye una estructura vacía.
      */
-    protected class Nodo {
-        /** El elemento del nodo. */
-        public T elemento;
-        /** El siguiente nodo. */
-        public Nodo siguiente;
-
-        /**
-         * Construye un nodo con un elemento.
-         * @param elemento el elemento del nodo.
-         */
-        public Nodo(T elemento) {
-            this.elemento = elemento;
-        }
+    @SuppressWarnings("unchecked") public MeteSaca() {
+        arreglo = (T[])new Object[CAPACIDAD_INICIAL];
     }
 
-    /** La cabeza de la estructura. */
-    protected Nodo cabeza;
-    /** El rabo de la estructura. */
-    protected Nodo rabo;
-
     /**
      * Agrega un elemento al extremo de la estructura.
      * @param elemento el elemento a agregar.
@@ -45,8 +46,10 @@ public abstract class MeteSaca<T> {
     public T saca() {
         if (esVacia())
             throw new NoSuchElementException("Estructura vacía");
-        T r = cabeza.elemento;
-        cabeza = cabeza.siguiente;
+        T r = arreglo[cabeza];
+        arreglo[cabeza] = null;
+        cabeza = (cabeza + 1) & (arreglo.length - 1);
+        elementos--;
         return r;
     }
 
@@ -59,7 +62,7 @@ public abstract class MeteSaca<T> {
     public T mira() {
         if(esVacia())
                     throw new NoSuchElementException("Estructura vacía");
-        return cabeza.elemento;
+        return arreglo[cabeza];
     }
 
     /**
@@ -68,7 +71,7 @@ public abstract class MeteSaca<T> {
      *         <tt>false</tt> en otro caso.
      */
     public boolean esVacia() {
-        return cabeza == null;
+        return elementos == 0;
     }
 
     /**
@@ -82,29 +85,37 @@ public abstract class MeteSaca<T> {
         if (o == null || getClass() != o.getClass())
             return false;
         @SuppressWarnings("unchecked") MeteSaca<T> m = (MeteSaca<T>)o;
-        Nodo aux = m.cabeza;
-        Nodo aux2 = cabeza;
-        int c1 = 0;
-        int c2 = 0;
-        while (aux != null) {
-            c1++;
-            aux = aux.siguiente;
-        }
-
-
-        while (aux2 != null) {
-            c2++;
-            aux2 = aux2.siguiente;
-        }
-        if(c1 != c2)
+        if (elementos != m.elementos)
             return false;
-
-        while(aux != null) {
-            if(! aux.elemento.equals(aux2.elemento))
+        for (int i = 0; i < elementos; i++)
+            if (!get(i).equals(m.get(i)))
                 return false;
-            aux= aux.siguiente;
-            aux2 = aux2.siguiente;
-        }
         return true;
     }
+
+    /**
+     * Regresa el <i>i</i>-ésimo elemento contando desde la cabeza, para uso
+     * interno de las clases herederas.
+     * @param i el índice del elemento, entre 0 y el número de elementos
+     *          menos uno.
+     * @return el <i>i</i>-ésimo elemento.
+     */
+    protected T get(int i) {
+        return arreglo[(cabeza + i) & (arreglo.length - 1)];
+    }
+
+    /**
+     * Duplica el arreglo si está lleno, acomodando los elementos a partir de
+     * la posición cero.
+     */
+    @SuppressWarnings("unchecked") protected void aseguraEspacio() {
+        if (elementos < arreglo.length)
+            return;
+        T[] a = (T[])new Object[arreglo.length << 1];
+        int n = arreglo.length - cabeza;
+        System.arraycopy(arreglo, cabeza, a, 0, n);
+        System.arraycopy(arreglo, 0, a, n, cabeza);
+        arreglo = a;
+        cabeza = 0;
+    }
 }
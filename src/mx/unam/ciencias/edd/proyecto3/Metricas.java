@@ -0,0 +1,187 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * <p>Clase para medir las etapas de la generación de las páginas.</p>
+ *
+ * <p>Una medición empieza con {@link #inicia} y termina con {@link
+ * #termina}, y registra el tiempo de reloj, los bytes leídos o escritos, las
+ * palabras procesadas y los bytes que asignó el hilo que hizo la medición;
+ * lo que asignen otros hilos, como los del análisis en paralelo, no se
+ * cuenta. Las mediciones se guardan sólo si se llamó a {@link #activa}, y se
+ * escriben en JSON con {@link #escribe}. Además, cada medición se registra
+ * como un {@link EventoEtapa} si hay una grabación de JFR activa.</p>
+ *
+ * <p>Si no se guardan mediciones ni hay una grabación de JFR, medir no hace
+ * nada. Se pueden hacer mediciones desde varios hilos a la vez.</p>
+ */
+public class Metricas {
+
+    /* Las mediciones terminadas, o null si no se guardan. */
+    private static volatile ConcurrentLinkedQueue<Metricas> mediciones;
+    /* El momento en que se activaron las mediciones. */
+    private static long activadas;
+
+    /* El nombre del archivo de entrada. */
+    private String archivo;
+    /* El nombre de la etapa. */
+    private String etapa;
+    /* El evento de JFR de la etapa. */
+    private EventoEtapa evento;
+    /* Si la medición se guarda o se registra. */
+    private boolean activa;
+    /* El momento en que empezó la etapa, en nanosegundos. */
+    private long inicio;
+    /* Los bytes asignados por el hilo al empezar la etapa. */
+    private long asignadosInicio;
+    /* La duración de la etapa, en nanosegundos. */
+    private long nanos;
+    /* Los bytes leídos o escritos en la etapa. */
+    private long bytes;
+    /* Las palabras procesadas en la etapa. */
+    private long palabras;
+    /* Los bytes asignados por el hilo en la etapa, o -1 si no se saben. */
+    private long asignados;
+
+    /* Construye una medición. */
+    private Metricas(String archivo, String etapa) {
+        this.archivo = archivo;
+        this.etapa = etapa;
+        evento = new EventoEtapa();
+        activa = mediciones != null || evento.isEnabled();
+        if (!activa)
+            return;
+        evento.begin();
+        asignadosInicio = asignadosDelHilo();
+        inicio = System.nanoTime();
+    }
+
+    /**
+     * Empieza a guardar las mediciones.
+     */
+    public static synchronized void activa() {
+        if (mediciones == null) {
+            activadas = System.currentTimeMillis();
+            mediciones = new ConcurrentLinkedQueue<Metricas>();
+        }
+    }
+
+    /**
+     * Empieza la medición de una etapa.
+     * @param archivo el nombre del archivo de entrada.
+     * @param etapa el nombre de la etapa.
+     * @return la medición.
+     */
+    public static Metricas inicia(String archivo, String etapa) {
+        return new Metricas(archivo, etapa);
+    }
+
+    /**
+     * Nos dice si la medición se guarda o se registra en JFR; si no, no vale
+     * la pena calcular los bytes ni las palabras de la etapa.
+     * @return <code>true</code> si la medición se guarda o se registra,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean esActiva() {
+        return activa;
+    }
+
+    /**
+     * Termina la medición de la etapa.
+     * @param bytes los bytes leídos o escritos en la etapa.
+     * @param palabras las palabras procesadas en la etapa.
+     */
+    public void termina(long bytes, long palabras) {
+        if (!activa)
+            return;
+        nanos = System.nanoTime() - inicio;
+        long a = asignadosDelHilo();
+        this.asignados = a < 0 || asignadosInicio < 0 ? -1 : a - asignadosInicio;
+        this.bytes = bytes;
+        this.palabras = palabras;
+        evento.end();
+        if (evento.shouldCommit()) {
+            evento.archivo = archivo;
+            evento.etapa = etapa;
+            evento.bytes = bytes;
+            evento.palabras = palabras;
+            evento.commit();
+        }
+        ConcurrentLinkedQueue<Metricas> m = mediciones;
+        if (m != null)
+            m.add(this);
+    }
+
+    /**
+     * Escribe las mediciones guardadas en un archivo JSON, en el orden en que
+     * terminaron.
+     * @param destino el archivo destino.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     * @throws IllegalStateException si las mediciones no están activas.
+     */
+    public static void escribe(File destino) throws IOException {
+        ConcurrentLinkedQueue<Metricas> m = mediciones;
+        if (m == null)
+            throw new IllegalStateException("Mediciones inactivas.");
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                 new FileOutputStream(destino), StandardCharsets.UTF_8))) {
+            out.write("{\n  \"inicio\": " + activadas + ",\n");
+            out.write("  \"etapas\": [");
+            boolean primera = true;
+            for (Metricas e : m) {
+                out.write(primera ? "\n" : ",\n");
+                primera = false;
+                double segundos = e.nanos / 1e9;
+                long porSegundo = segundos > 0 ?
+                    Math.round(e.palabras / segundos) : 0;
+                out.write("    { \"archivo\": " + cadena(e.archivo) +
+                          ", \"etapa\": " + cadena(e.etapa) +
+                          ", \"nanosegundos\": " + e.nanos +
+                          ", \"bytes\": " + e.bytes +
+                          ", \"palabras\": " + e.palabras +
+                          ", \"palabrasPorSegundo\": " + porSegundo +
+                          ", \"bytesAsignados\": " + e.asignados + " }");
+            }
+            out.write("\n  ]\n}\n");
+        }
+    }
+
+    /* Regresa los bytes asignados por el hilo actual, o -1 si la máquina
+     * virtual no los lleva. */
+    private static long asignadosDelHilo() {
+        java.lang.management.ThreadMXBean bean =
+            ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean))
+            return -1;
+        com.sun.management.ThreadMXBean b =
+            (com.sun.management.ThreadMXBean)bean;
+        if (!b.isThreadAllocatedMemorySupported() ||
+            !b.isThreadAllocatedMemoryEnabled())
+            return -1;
+        return b.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /* Regresa una cadena de JSON. */
+    private static String cadena(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\')
+                sb.append('\\').append(c);
+            else if (c < 0x20)
+                sb.append(String.format("\\u%04x", (int)c));
+            else
+                sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+}
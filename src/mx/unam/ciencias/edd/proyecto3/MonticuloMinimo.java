@@ -17,14 +17,14 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
 
         /* Nos dice si hay un siguiente elemento. */
         @Override public boolean hasNext() {
-            // Aquí va su código.
-            return true;
+            return indice < elementos;
         }
 
         /* Regresa el siguiente elemento. */
         @Override public T next() {
-            // Aquí va su código.
-            return null;
+            if (indice >= elementos)
+                throw new NoSuchElementException("No hay siguiente.");
+            return arbol[indice++];
         }
     }
 
@@ -39,24 +39,23 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
 
         /* Crea un nuevo comparable indexable. */
         public Adaptador(T elemento) {
-            // Aquí va su código.
+            this.elemento = elemento;
+            this.indice = -1;
         }
 
         /* Regresa el índice. */
         @Override public int getIndice() {
-            // Aquí va su código.
-            return 0;
+            return indice;
         }
 
         /* Define el índice. */
         @Override public void setIndice(int indice) {
-            // Aquí va su código.
+            this.indice = indice;
         }
 
         /* Compara un adaptador con otro. */
         @Override public int compareTo(Adaptador<T> adaptador) {
-            // Aquí va su código.
-            return 0;
+            return elemento.compareTo(adaptador.elemento);
         }
     }
 
@@ -78,7 +77,7 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * pero se ofrece este constructor por completez.
      */
     public MonticuloMinimo() {
-        // Aquí va su código.
+        arbol = nuevoArreglo(100);
     }
 
     /**
@@ -90,7 +89,7 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      *                  montículo.
      */
     public MonticuloMinimo(Coleccion<T> coleccion) {
-        // Aquí va su código.
+        this(coleccion, coleccion.getElementos());
     }
 
     /**
@@ -103,7 +102,13 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @param n el número de elementos en el iterable.
      */
     public MonticuloMinimo(Iterable<T> iterable, int n) {
-        // Aquí va su código.
+        arbol = nuevoArreglo(n > 0 ? n : 1);
+        for (T elemento : iterable) {
+            elemento.setIndice(elementos);
+            arbol[elementos++] = elemento;
+        }
+        for (int i = elementos / 2 - 1; i >= 0; i--)
+            baja(i);
     }
 
     /**
@@ -111,7 +116,15 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @param elemento el elemento a agregar en el montículo.
      */
     @Override public void agrega(T elemento) {
-        // Aquí va su código.
+        if (elementos == arbol.length) {
+            T[] nuevo = nuevoArreglo(arbol.length * 2);
+            for (int i = 0; i < elementos; i++)
+                nuevo[i] = arbol[i];
+            arbol = nuevo;
+        }
+        elemento.setIndice(elementos);
+        arbol[elementos++] = elemento;
+        sube(elementos - 1);
     }
 
     /**
@@ -120,8 +133,14 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @throws IllegalStateException si el montículo es vacío.
      */
     @Override public T elimina() {
-        // Aquí va su código.
-        return null;
+        if (elementos == 0)
+            throw new IllegalStateException("El montículo es vacío.");
+        T minimo = arbol[0];
+        intercambia(0, --elementos);
+        arbol[elementos] = null;
+        minimo.setIndice(-1);
+        baja(0);
+        return minimo;
     }
 
     /**
@@ -129,7 +148,14 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @param elemento a eliminar del montículo.
      */
     @Override public void elimina(T elemento) {
-        // Aquí va su código.
+        if (!contiene(elemento))
+            return;
+        int i = elemento.getIndice();
+        intercambia(i, --elementos);
+        arbol[elementos] = null;
+        elemento.setIndice(-1);
+        if (i < elementos)
+            reordena(arbol[i]);
     }
 
     /**
@@ -139,8 +165,8 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      *         <code>false</code> en otro caso.
      */
     @Override public boolean contiene(T elemento) {
-        // Aquí va su código.
-        return true;
+        int i = elemento.getIndice();
+        return i >= 0 && i < elementos && arbol[i] == elemento;
     }
 
     /**
@@ -149,15 +175,18 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      *         <tt>false</tt> en otro caso.
      */
     @Override public boolean esVacia() {
-        // Aquí va su código.
-        return true;
+        return elementos == 0;
     }
 
     /**
      * Limpia el montículo de elementos, dejándolo vacío.
      */
     @Override public void limpia() {
-        // Aquí va su código.
+        for (int i = 0; i < elementos; i++) {
+            arbol[i].setIndice(-1);
+            arbol[i] = null;
+        }
+        elementos = 0;
     }
 
    /**
@@ -165,7 +194,11 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @param elemento el elemento que hay que reordenar.
      */
     @Override public void reordena(T elemento) {
-        // Aquí va su código.
+        if (!contiene(elemento))
+            return;
+        int i = elemento.getIndice();
+        sube(i);
+        baja(elemento.getIndice());
     }
 
     /**
@@ -173,8 +206,7 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @return el número de elementos en el montículo mínimo.
      */
     @Override public int getElementos() {
-        // Aquí va su código.
-        return 0;
+        return elementos;
     }
 
     /**
@@ -185,8 +217,9 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      *         que el número de elementos.
      */
     @Override public T get(int i) {
-        // Aquí va su código.
-        return null;
+        if (i < 0 || i >= elementos)
+            throw new NoSuchElementException("Índice inválido.");
+        return arbol[i];
     }
 
     /**
@@ -194,8 +227,10 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      * @return una representación en cadena del montículo mínimo.
      */
     @Override public String toString() {
-        // Aquí va su código.
-        return null;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < elementos; i++)
+            sb.append(arbol[i]).append(", ");
+        return sb.toString();
     }
 
     /**
@@ -209,7 +244,11 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
             return false;
         @SuppressWarnings("unchecked") MonticuloMinimo<T> monticulo =
             (MonticuloMinimo<T>)o;
-        // Aquí va su código.
+        if (elementos != monticulo.elementos)
+            return false;
+        for (int i = 0; i < elementos; i++)
+            if (!arbol[i].equals(monticulo.arbol[i]))
+                return false;
         return true;
     }
 
@@ -230,7 +269,55 @@ public class MonticuloMinimo<T extends ComparableIndexable<T>>
      */
     public static <T extends Comparable<T>>
     Lista<T> heapSort(Coleccion<T> coleccion) {
-        // Aquí va su código.
-        return null;
+        Lista<Adaptador<T>> adaptadores = new Lista<Adaptador<T>>();
+        for (T elemento : coleccion)
+            adaptadores.agrega(new Adaptador<T>(elemento));
+        MonticuloMinimo<Adaptador<T>> monticulo =
+            new MonticuloMinimo<Adaptador<T>>(adaptadores,
+                                              adaptadores.getElementos());
+        Lista<T> lista = new Lista<T>();
+        while (!monticulo.esVacia())
+            lista.agrega(monticulo.elimina().elemento);
+        return lista;
+    }
+
+    /* Sube el elemento en la posición i mientras sea menor que su padre. */
+    private void sube(int i) {
+        while (i > 0) {
+            int padre = (i - 1) / 2;
+            if (arbol[i].compareTo(arbol[padre]) >= 0)
+                return;
+            intercambia(i, padre);
+            i = padre;
+        }
+    }
+
+    /* Baja el elemento en la posición i mientras sea mayor que alguno de sus
+       hijos. */
+    private void baja(int i) {
+        while (true) {
+            int izquierdo = 2 * i + 1;
+            if (izquierdo >= elementos)
+                return;
+            int menor = izquierdo;
+            int derecho = izquierdo + 1;
+            if (derecho < elementos &&
+                arbol[derecho].compareTo(arbol[izquierdo]) < 0)
+                menor = derecho;
+            if (arbol[i].compareTo(arbol[menor]) <= 0)
+                return;
+            intercambia(i, menor);
+            i = menor;
+        }
+    }
+
+    /* Intercambia los elementos en las posiciones i y j, actualizando sus
+       índices. */
+    private void intercambia(int i, int j) {
+        T t = arbol[i];
+        arbol[i] = arbol[j];
+        arbol[j] = t;
+        arbol[i].setIndice(i);
+        arbol[j].setIndice(j);
     }
 }
@@ -0,0 +1,109 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para palabras con su número de apariciones.</p>
+ *
+ * <p>Una palabra contada es menor que otra si aparece menos veces; si aparecen
+ * el mismo número de veces, es menor la que va después en orden
+ * lexicográfico. Así, el mínimo de un montículo de palabras contadas es
+ * siempre la palabra menos relevante, y es la primera que se descarta al
+ * buscar las palabras más usadas.</p>
+ */
+public class PalabraContada implements ComparableIndexable<PalabraContada> {
+
+    /* La palabra. */
+    private String palabra;
+    /* Su número de apariciones. */
+    private int cantidad;
+    /* Su índice. */
+    private int indice;
+
+    /**
+     * Crea una nueva palabra contada.
+     * @param palabra la palabra.
+     * @param cantidad su número de apariciones.
+     */
+    public PalabraContada(String palabra, int cantidad) {
+        this.palabra = palabra;
+        this.cantidad = cantidad;
+        this.indice = -1;
+    }
+
+    /**
+     * Regresa la palabra.
+     * @return la palabra.
+     */
+    public String getPalabra() {
+        return palabra;
+    }
+
+    /**
+     * Regresa el número de apariciones de la palabra.
+     * @return el número de apariciones de la palabra.
+     */
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    /**
+     * Regresa el índice de la palabra contada.
+     * @return el índice de la palabra contada.
+     */
+    @Override public int getIndice() {
+        return indice;
+    }
+
+    /**
+     * Define el índice de la palabra contada.
+     * @param indice el nuevo índice.
+     */
+    @Override public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    /**
+     * Compara la palabra contada con otra.
+     * @param palabraContada la palabra contada con la que se compara.
+     * @return un valor menor que cero si la palabra que llama el método
+     *         aparece menos veces que el parámetro (o las mismas, pero va
+     *         después en orden lexicográfico); cero si son iguales; o mayor
+     *         que cero en otro caso.
+     */
+    @Override public int compareTo(PalabraContada palabraContada) {
+        if (cantidad != palabraContada.cantidad)
+            return cantidad < palabraContada.cantidad ? -1 : 1;
+        return palabraContada.palabra.compareTo(palabra);
+    }
+
+    /**
+     * Nos dice si la palabra contada es igual al objeto recibido.
+     * @param o el objeto con el que queremos comparar la palabra contada.
+     * @return <code>true</code> si el objeto recibido es una palabra contada
+     *         con la misma palabra y el mismo número de apariciones;
+     *         <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        PalabraContada palabraContada = (PalabraContada)o;
+        return cantidad == palabraContada.cantidad &&
+            palabra.equals(palabraContada.palabra);
+    }
+
+    /**
+     * Regresa una dispersión de la palabra contada, consistente con {@link
+     * #equals}.
+     * @return una dispersión de la palabra contada.
+     */
+    @Override public int hashCode() {
+        return 31 * palabra.hashCode() + cantidad;
+    }
+
+    /**
+     * Regresa una representación en cadena de la palabra contada.
+     * @return una representación en cadena de la palabra contada.
+     */
+    @Override public String toString() {
+        return palabra + ": " + cantidad;
+    }
+}
@@ -10,16 +10,9 @@ public class Pila<T> extends MeteSaca<T> {
      * @return una representación en cadena de la pila.
      */
     @Override public String toString() {
-        if (esVacia()) {
-            return "";
-        }
-
-        Nodo aux = cabeza;
         String s = "";
-        while (aux != null) {
-            s += aux.elemento.toString() + "\n";
-            aux = aux.siguiente;
-        }
+        for (int i = 0; i < elementos; i++)
+            s += get(i).toString() + "\n";
         return s;
     }
 
@@ -33,13 +26,9 @@ public class Pila<T> extends MeteSaca<T> {
         if (elemento == null)
             throw new IllegalArgumentException("Elemento null");
 
-        if (esVacia()) {
-            this.cabeza = this.rabo = new Nodo(elemento);
-            return;
-        }
-        Nodo nw = new Nodo(elemento);
-        nw.siguiente = this.cabeza;
-        this.cabeza = nw;
-
+        aseguraEspacio();
+        cabeza = (cabeza - 1) & (arreglo.length - 1);
+        arreglo[cabeza] = elemento;
+        elementos++;
     }
 }
@@ -2,8 +2,18 @@ package mx.unam.ciencias.edd;
 
 import java.io.InputStreamReader;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 public class Proyecto3 {
@@ -13,14 +23,58 @@ public class Proyecto3 {
     if (args.length < 3) { // mínimo 3 (archivo -o directorio)
       System.err.println("*** Llamada incorrecta del programa, pock! ***");
       System.err.println("Puedes proporcionar en la línea de comandos archivos y el nombre del directorio de salida para tus resultados, precedido de la bandera '-o'");
+      System.err.println("Con la bandera '-j N' los archivos se procesan en paralelo con N hilos");
+      System.err.println("Con la bandera '-a K' las palabras se cuentan de forma aproximada con memoria fija, vigilando las K más frecuentes");
+      System.err.println("Con la bandera '-g N' también se cuentan los n-gramas de 2 hasta N palabras (N a lo más " + ContadorNGramas.MAXIMO + ")");
+      System.err.println("Con la bandera '-M archivo' se escriben en JSON el tiempo, los bytes, las palabras por segundo y la memoria asignada de cada etapa");
+      System.err.println("Con la bandera '-s' se lee un flujo ('-' para la entrada estándar, o una tubería con nombre) y su página se actualiza cada '-n N' palabras o '-t S' segundos, usando a lo más '-m MB' megabytes para las cuentas");
       return;
     }
     Cola filess = new Cola<String>();
     boolean hayDirectorio = false;
     String directorio = "";
     Cola archivos = new Cola<String>();
+    int hilos = 1;
+    boolean flujo = false;
+    int contadores = 0;
+    int ngramas = 0;
+    String metricas = null;
+    Compresion compresion = Compresion.NINGUNA;
+    long presupuesto = AnalizadorFlujo.PRESUPUESTO;
+    long cadaPalabras = AnalizadorFlujo.PALABRAS;
+    long cadaSegundos = AnalizadorFlujo.SEGUNDOS;
+    StringBuilder listaIndice = new StringBuilder();
     for (int i = 0; i < args.length; i++) {
-      if (args[i].equals("-o")){
+      if (args[i].equals("-j")){
+        hilos = (int) positivo(args, ++i, "El número de hilos debe ser un entero positivo");
+      } else if (args[i].equals("-a")){
+        contadores = (int) positivo(args, ++i, "El número de contadores debe ser un entero positivo");
+      } else if (args[i].equals("-g")){
+        ngramas = (int) positivo(args, ++i, "El tamaño de los n-gramas debe ser un entero positivo");
+        if (ngramas < 2 || ngramas > ContadorNGramas.MAXIMO){
+          System.err.println("El tamaño de los n-gramas debe estar entre 2 y " + ContadorNGramas.MAXIMO);
+          System.exit(0);
+        }
+      } else if (args[i].equals("-M")){
+        if (i + 1 >= args.length){
+          System.err.println("Falta el archivo donde escribir las métricas");
+          System.exit(0);
+        }
+        metricas = args[++i];
+        Metricas.activa();
+      } else if (args[i].equals("-z")){
+        compresion = Compresion.COPIA;
+      } else if (args[i].equals("-Z")){
+        compresion = Compresion.SOLO;
+      } else if (args[i].equals("-s")){
+        flujo = true;
+      } else if (args[i].equals("-m")){
+        presupuesto = positivo(args, ++i, "El límite de memoria debe ser un entero positivo") << 20;
+      } else if (args[i].equals("-n")){
+        cadaPalabras = positivo(args, ++i, "El número de palabras debe ser un entero positivo");
+      } else if (args[i].equals("-t")){
+        cadaSegundos = positivo(args, ++i, "El número de segundos debe ser un entero positivo");
+      } else if (args[i].equals("-o")){
         File dir = new File(args[++i]);
         if(dir.exists()){
           directorio = args[i];
@@ -38,7 +92,8 @@ public class Proyecto3 {
       hayDirectorio = true;
       } else {
         archivos.mete(args[i]);
-        filess.mete(args[i]);
+        filess.mete(flujo && args[i].equals("-") ? "stdin" : args[i]);
+        listaIndice.append(args[i]).append("\n");
         System.out.println("Encontrado archivo '" + args[i] + "'");
       }
     }
@@ -46,12 +101,172 @@ public class Proyecto3 {
       System.err.println("No se especificó directorio de salida o no se tiene acceso!!");
       System.exit(0);
     }
-    while(!archivos.esVacia() && !directorio.equals("")){
-      GeneradorHtml g = new GeneradorHtml((String) archivos.saca(), directorio);
+    if (flujo) {
+      analizaFlujo(archivos, directorio, filess, presupuesto, cadaPalabras, cadaSegundos, compresion);
+      return;
+    }
+    CacheAnalisis cache = new CacheAnalisis(directorio);
+    HiperLogLog corpus = new HiperLogLog(); // Palabras distintas de todos los archivos
+    EscritorAsincrono escritor = new EscritorAsincrono(); // Escribe las páginas mientras se analizan los demás archivos
+    GeneradorHtml.Opciones opciones = new GeneradorHtml.Opciones().setCache(cache).setContadores(contadores)
+      .setNGramas(ngramas).setCorpus(corpus).setEscritor(escritor).setCompresion(compresion);
+    try {
+      if (hilos > 1) {
+        generaEnParalelo(archivos, directorio, hilos, opciones);
+      } else {
+        while(!archivos.esVacia() && !directorio.equals("")){
+          GeneradorHtml g = new GeneradorHtml((String) archivos.saca(), directorio, opciones);
+        }
+      }
+    } finally {
+      cierra(escritor); // Antes de guardar el caché, que supone que las páginas ya existen
     }
-    Stylesheet stl = new Stylesheet(directorio);
+    Stylesheet stl = new Stylesheet(directorio, compresion);
     stl.generaArchivo();
-    GeneradorHtml index = new GeneradorHtml(directorio, filess);
+    // El índice sólo se reescribe si cambió la lista de archivos o alguno de ellos
+    long distintas = corpus.estima();
+    String[] nombres = listaIndice.toString().split("\n");
+    String[] rutas = new String[nombres.length];
+    Conjunto<String> juntadas = new Conjunto<String>(nombres.length); // Un archivo repetido se junta una vez
+    int enCache = 0;
+    StringBuilder huellas = new StringBuilder();
+    for (String nombre : nombres) {
+      String contenido = null;
+      try {
+        String ruta = new File(nombre).getCanonicalPath();
+        contenido = cache.getContenido(ruta);
+        if (contenido != null && !juntadas.contiene(ruta)) {
+          juntadas.agrega(ruta);
+          rutas[enCache++] = ruta;
+        }
+      } catch (IOException e) {
+        contenido = null;
+      }
+      huellas.append(contenido).append("\n");
+    }
+    String lista = directorio + "\n" + listaIndice.toString() + huellas.toString() + distintas + "\n";
+    boolean vigente = true;
+    for (File f : compresion.archivos(new File(directorio + "/index.html")))
+      vigente = vigente && cache.indiceVigente(lista, f);
+    if (vigente) {
+      System.out.println("Sin cambios en el archivo index.html");
+    } else {
+      DiccionarioContador global = null;
+      if (enCache > 0) {
+        try {
+          global = AgregadorCorpus.agrega(cache, Arrays.copyOf(rutas, enCache)); // Sin volver a leer los archivos
+        } catch (IOException e) {
+          System.err.println("No se pudieron juntar las cuentas de los archivos: " + e.getMessage());
+        }
+      }
+      GeneradorHtml index = new GeneradorHtml(directorio, filess, opciones, distintas, global, enCache);
+      try {
+        cache.guardaIndice(lista);
+      } catch (IOException e) {
+        System.err.println("No se pudo guardar el caché del índice");
+      }
+    }
+    try {
+      cache.escribe();
+    } catch (IOException e) {
+      System.err.println("No se pudo guardar el caché en '" + directorio + "'");
+    }
+    if (metricas != null) {
+      try {
+        Metricas.escribe(new File(metricas));
+      } catch (IOException e) {
+        System.err.println("No se pudieron escribir las métricas en '" + metricas + "'");
+      }
+    }
+  }
+
+  /**
+   *  Lee un flujo que puede no terminar nunca, actualizando su página con
+   *  cada análisis parcial. La hoja de estilo y el índice se generan antes
+   *  de empezar a leer.
+   *
+   */
+  private static void analizaFlujo(Cola<String> archivos, String directorio, Cola<String> filess, long presupuesto, long cadaPalabras, long cadaSegundos, Compresion compresion){
+    String entrada = archivos.esVacia() ? null : archivos.saca();
+    if (entrada == null || !archivos.esVacia()) {
+      System.err.println("Con la bandera '-s' se debe dar exactamente un flujo");
+      System.exit(0);
+    }
+    String nombre = entrada.equals("-") ? "stdin" : entrada;
+    Stylesheet stl = new Stylesheet(directorio, compresion);
+    stl.generaArchivo();
+    GeneradorHtml.Opciones opciones = new GeneradorHtml.Opciones().setCompresion(compresion);
+    GeneradorHtml index = new GeneradorHtml(directorio, filess, opciones);
+    AnalizadorFlujo analizador = new AnalizadorFlujo(presupuesto, cadaPalabras, cadaSegundos,
+        a -> new GeneradorHtml(nombre, directorio, opciones, a));
+    try (InputStream in = entrada.equals("-") ? System.in : new FileInputStream(entrada)) {
+      analizador.analiza(in);
+    } catch (IOException e) {
+      System.err.println("No se pudo leer el flujo '" + entrada + "': " + e.getMessage());
+    }
+  }
+
+  /**
+   *  Espera a que el escritor termine de escribir las páginas; si alguna no
+   *  se pudo escribir, avisa y termina.
+   *
+   */
+  private static void cierra(EscritorAsincrono escritor){
+    try {
+      escritor.cierra();
+    } catch (IOException e) {
+      System.err.println("Hay problemas con el directorio especificado :(");
+      System.err.println(e.getMessage());
+      System.exit(0);
+    }
+  }
+
+  /**
+   *  Regresa el argumento en la posición i como un entero positivo, o
+   *  termina el programa con el mensaje recibido.
+   *
+   */
+  private static long positivo(String[] args, int i, String mensaje){
+    long n = 0;
+    try{
+      n = Long.parseLong(args[i]);
+    } catch (Exception e){
+      n = 0;
+    }
+    if (n < 1 || n > Integer.MAX_VALUE){
+      System.err.println(mensaje);
+      System.exit(0);
+    }
+    return n;
+  }
+
+  /**
+   *  Genera las páginas de los archivos con un grupo de hilos. Cada archivo
+   *  escribe sus mensajes en su propio búfer, y los búferes se imprimen en el
+   *  orden de la línea de comandos conforme van terminando.
+   *
+   */
+  private static void generaEnParalelo(Cola<String> archivos, String directorio, int hilos, GeneradorHtml.Opciones opciones){
+    ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+    Cola<Future<String>> tareas = new Cola<Future<String>>();
+    while(!archivos.esVacia()){
+      String archivo = archivos.saca();
+      tareas.mete(ejecutor.submit(() -> {
+        ByteArrayOutputStream mensajes = new ByteArrayOutputStream();
+        PrintStream salida = new PrintStream(mensajes, true, "UTF-8");
+        new GeneradorHtml(archivo, directorio, opciones.copia().setSalida(salida));
+        salida.close();
+        return mensajes.toString("UTF-8");
+      }));
+    }
+    ejecutor.shutdown();
+    while(!tareas.esVacia()){
+      try{
+        System.out.print(tareas.saca().get());
+      } catch (InterruptedException | ExecutionException e){
+        System.err.println(e);
+      }
+    }
   }
 
 }
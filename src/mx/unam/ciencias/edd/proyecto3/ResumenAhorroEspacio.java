@@ -0,0 +1,217 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para resúmenes de ahorro de espacio (<i>Space-Saving</i>).</p>
+ *
+ * <p>Un resumen vigila a lo más <i>k</i> palabras con un contador cada una.
+ * Si llega una palabra vigilada, se incrementa su contador; si llega una
+ * palabra nueva y aún hay contadores libres, se le asigna uno; y si no, la
+ * palabra nueva reemplaza a la vigilada con el menor contador, heredando su
+ * cuenta más uno, y la cuenta heredada se guarda como el error del
+ * contador.</p>
+ *
+ * <p>Así, la cuenta de una palabra vigilada nunca es menor que su cuenta
+ * real, y la excede en a lo más su error, que a su vez es a lo más
+ * <i>N</i>/<i>k</i>, donde <i>N</i> es el total de palabras contadas. Toda
+ * palabra que aparece más de <i>N</i>/<i>k</i> veces está vigilada.</p>
+ *
+ * <p>Los contadores están en un {@link MonticuloMinimo} ordenado por cuenta,
+ * para encontrar el menor en tiempo constante y reacomodarlo en tiempo
+ * <i>O</i>(log <i>k</i>), y en una tabla de dispersión con sondeo lineal
+ * para buscarlos por palabra. Cada contador guarda su palabra en una {@link
+ * VistaPalabra} propia que se reutiliza al reemplazarla, por lo que contar
+ * no crea objetos una vez que se ocupan todos los contadores.</p>
+ */
+public class ResumenAhorroEspacio {
+
+    /* Clase privada para los contadores del resumen. */
+    private static class Contador implements ComparableIndexable<Contador> {
+
+        /* La palabra vigilada. */
+        private VistaPalabra palabra;
+        /* La cuenta de la palabra. */
+        private int cuenta;
+        /* El error de la cuenta. */
+        private int error;
+        /* El índice del contador en el montículo. */
+        private int indice;
+
+        /* Construye un contador vacío. */
+        public Contador() {
+            palabra = new VistaPalabra();
+            indice = -1;
+        }
+
+        /* Regresa el índice. */
+        @Override public int getIndice() {
+            return indice;
+        }
+
+        /* Define el índice. */
+        @Override public void setIndice(int indice) {
+            this.indice = indice;
+        }
+
+        /* Compara un contador con otro por su cuenta. */
+        @Override public int compareTo(Contador contador) {
+            return Integer.compare(cuenta, contador.cuenta);
+        }
+    }
+
+    /* La tabla de contadores por palabra; una casilla vacía es null. */
+    private Contador[] tabla;
+    /* Los contadores ordenados por cuenta. */
+    private MonticuloMinimo<Contador> monticulo;
+    /* El número máximo de contadores. */
+    private int capacidad;
+    /* El total de palabras contadas. */
+    private long total;
+
+    /**
+     * Construye un resumen con el número de contadores recibido.
+     * @param capacidad el número de contadores.
+     * @throws IllegalArgumentException si la capacidad no es positiva.
+     */
+    public ResumenAhorroEspacio(int capacidad) {
+        if (capacidad < 1 || capacidad > 1 << 28)
+            throw new IllegalArgumentException("Capacidad inválida.");
+        this.capacidad = capacidad;
+        int n = 4;
+        while (n < 2 * capacidad)
+            n <<= 1;
+        tabla = new Contador[n];
+        monticulo = new MonticuloMinimo<Contador>();
+    }
+
+    /**
+     * Cuenta una aparición de la palabra de la vista.
+     * @param palabra la vista con la palabra.
+     */
+    public void incrementa(VistaPalabra palabra) {
+        total++;
+        int i = busca(palabra);
+        Contador c = tabla[i];
+        if (c != null) {
+            c.cuenta++;
+            monticulo.reordena(c);
+            return;
+        }
+        if (monticulo.getElementos() < capacidad) {
+            c = new Contador();
+            copia(palabra, c.palabra);
+            c.cuenta = 1;
+            tabla[i] = c;
+            monticulo.agrega(c);
+            return;
+        }
+        c = monticulo.get(0);
+        quita(c);
+        copia(palabra, c.palabra);
+        c.error = c.cuenta;
+        c.cuenta++;
+        tabla[busca(palabra)] = c;
+        monticulo.reordena(c);
+    }
+
+    /**
+     * Regresa el número de palabras vigiladas.
+     * @return el número de palabras vigiladas.
+     */
+    public int getElementos() {
+        return monticulo.getElementos();
+    }
+
+    /**
+     * Regresa el total de palabras contadas.
+     * @return el total de palabras contadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa la palabra del <i>i</i>-ésimo contador.
+     * @param i el índice del contador.
+     * @return la palabra del contador.
+     * @throws java.util.NoSuchElementException si el índice es inválido.
+     */
+    public String getPalabra(int i) {
+        return monticulo.get(i).palabra.toString();
+    }
+
+    /**
+     * Regresa el código de dispersión de la palabra del <i>i</i>-ésimo
+     * contador, el mismo que el de {@link String#hashCode}.
+     * @param i el índice del contador.
+     * @return el código de dispersión de la palabra del contador.
+     * @throws java.util.NoSuchElementException si el índice es inválido.
+     */
+    public int getDispersion(int i) {
+        return monticulo.get(i).palabra.hashCode();
+    }
+
+    /**
+     * Regresa la cuenta del <i>i</i>-ésimo contador.
+     * @param i el índice del contador.
+     * @return la cuenta del contador.
+     * @throws java.util.NoSuchElementException si el índice es inválido.
+     */
+    public int getCuenta(int i) {
+        return monticulo.get(i).cuenta;
+    }
+
+    /**
+     * Regresa el error del <i>i</i>-ésimo contador; la cuenta real de su
+     * palabra es al menos la cuenta menos el error.
+     * @param i el índice del contador.
+     * @return el error del contador.
+     * @throws java.util.NoSuchElementException si el índice es inválido.
+     */
+    public int getError(int i) {
+        return monticulo.get(i).error;
+    }
+
+    /* Regresa la casilla donde está la palabra, o la casilla vacía donde
+     * debería ir. */
+    private int busca(VistaPalabra palabra) {
+        int m = tabla.length - 1;
+        int i = dispersa(palabra.hashCode()) & m;
+        while (tabla[i] != null && !tabla[i].palabra.equals(palabra))
+            i = (i + 1) & m;
+        return i;
+    }
+
+    /* Quita un contador de la tabla, recorriendo hacia atrás los que siguen
+     * en su racha de sondeo. */
+    private void quita(Contador c) {
+        int m = tabla.length - 1;
+        int i = busca(c.palabra);
+        int j = i;
+        while (true) {
+            tabla[i] = null;
+            int casilla;
+            do {
+                j = (j + 1) & m;
+                if (tabla[j] == null)
+                    return;
+                casilla = dispersa(tabla[j].palabra.hashCode()) & m;
+            } while (i <= j ? (i < casilla && casilla <= j)
+                            : (i < casilla || casilla <= j));
+            tabla[i] = tabla[j];
+            i = j;
+        }
+    }
+
+    /* Copia los caracteres de una vista a otra. */
+    private static void copia(VistaPalabra origen, VistaPalabra destino) {
+        destino.limpia();
+        for (int i = 0; i < origen.length(); i++)
+            destino.agrega(origen.charAt(i));
+    }
+
+    /* Mezcla los bits altos del código con los bajos. */
+    private static int dispersa(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
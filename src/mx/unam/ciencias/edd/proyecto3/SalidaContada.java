@@ -0,0 +1,54 @@
+package mx.unam.ciencias.edd;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Clase para flujos de salida que cuentan los bytes que escriben.
+ */
+public class SalidaContada extends FilterOutputStream {
+
+    /* Los bytes escritos. */
+    private long bytes;
+
+    /**
+     * Construye un flujo que cuenta los bytes que escribe en el flujo
+     * recibido.
+     * @param salida el flujo donde se escribe.
+     */
+    public SalidaContada(OutputStream salida) {
+        super(salida);
+    }
+
+    /**
+     * Escribe un byte.
+     * @param b el byte a escribir.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override public void write(int b) throws IOException {
+        out.write(b);
+        bytes++;
+    }
+
+    /**
+     * Escribe un pedazo de un arreglo de bytes.
+     * @param b el arreglo.
+     * @param inicio el inicio del pedazo.
+     * @param n el número de bytes del pedazo.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    @Override public void write(byte[] b, int inicio, int n)
+        throws IOException {
+        out.write(b, inicio, n);
+        bytes += n;
+    }
+
+    /**
+     * Regresa el número de bytes escritos.
+     * @return el número de bytes escritos.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+}
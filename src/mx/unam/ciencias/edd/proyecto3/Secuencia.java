@@ -0,0 +1,140 @@
+package mx.unam.ciencias.edd;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Interfaz para colecciones cuyos elementos tienen un orden y un índice,
+ * como las listas.</p>
+ *
+ * <p>La implementan {@link Lista}, ligada, y {@link ListaArreglo}, sobre un
+ * arreglo; el código que sólo usa esta interfaz puede cambiar de una a otra
+ * según le convenga: agregar y eliminar en medio, o acceder por índice.</p>
+ */
+public interface Secuencia<T> extends Coleccion<T> {
+
+    /**
+     * Regresa la longitud de la secuencia. El método es idéntico a {@link
+     * #getElementos}.
+     * @return la longitud de la secuencia, el número de elementos que
+     *         contiene.
+     */
+    public int getLongitud();
+
+    /**
+     * Agrega un elemento al final de la secuencia.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agregaFinal(T elemento);
+
+    /**
+     * Agrega un elemento al inicio de la secuencia.
+     * @param elemento el elemento a agregar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void agregaInicio(T elemento);
+
+    /**
+     * Inserta un elemento en un índice explícito. Si el índice es menor o
+     * igual que cero, el elemento se agrega al inicio; si es mayor o igual que
+     * el número de elementos, se agrega al final.
+     * @param i el índice dónde insertar el elemento.
+     * @param elemento el elemento a insertar.
+     * @throws IllegalArgumentException si <code>elemento</code> es
+     *         <code>null</code>.
+     */
+    public void inserta(int i, T elemento);
+
+    /**
+     * Elimina la primera aparición de un elemento de la secuencia. Si el
+     * elemento no está contenido en la secuencia, el método no la modifica.
+     * @param elemento el elemento a eliminar.
+     */
+    public void elimina(T elemento);
+
+    /**
+     * Elimina el primer elemento de la secuencia y lo regresa.
+     * @return el primer elemento de la secuencia antes de eliminarlo.
+     * @throws NoSuchElementException si la secuencia es vacía.
+     */
+    public T eliminaPrimero();
+
+    /**
+     * Elimina el último elemento de la secuencia y lo regresa.
+     * @return el último elemento de la secuencia antes de eliminarlo.
+     * @throws NoSuchElementException si la secuencia es vacía.
+     */
+    public T eliminaUltimo();
+
+    /**
+     * Regresa la reversa de la secuencia.
+     * @return una nueva secuencia que es la reversa de la que manda llamar el
+     *         método.
+     */
+    public Secuencia<T> reversa();
+
+    /**
+     * Regresa una copia de la secuencia, con los mismos elementos en el mismo
+     * orden.
+     * @return una copia de la secuencia.
+     */
+    public Secuencia<T> copia();
+
+    /**
+     * Regresa el primer elemento de la secuencia.
+     * @return el primer elemento de la secuencia.
+     * @throws NoSuchElementException si la secuencia es vacía.
+     */
+    public T getPrimero();
+
+    /**
+     * Regresa el último elemento de la secuencia.
+     * @return el último elemento de la secuencia.
+     * @throws NoSuchElementException si la secuencia es vacía.
+     */
+    public T getUltimo();
+
+    /**
+     * Regresa el <em>i</em>-ésimo elemento de la secuencia.
+     * @param i el índice del elemento que queremos.
+     * @return el <em>i</em>-ésimo elemento de la secuencia.
+     * @throws ExcepcionIndiceInvalido si <em>i</em> es menor que cero o mayor
+     *         o igual que el número de elementos.
+     */
+    public T get(int i);
+
+    /**
+     * Regresa el índice del elemento recibido en la secuencia.
+     * @param elemento el elemento del que se busca el índice.
+     * @return el índice del elemento recibido, o -1 si el elemento no está
+     *         contenido en la secuencia.
+     */
+    public int indiceDe(T elemento);
+
+    /**
+     * Regresa un iterador para recorrer la secuencia en ambas direcciones.
+     * @return un iterador para recorrer la secuencia en ambas direcciones.
+     */
+    public IteradorLista<T> iteradorLista();
+
+    /**
+     * Regresa una copia de la secuencia, pero ordenada con el comparador
+     * recibido. El ordenamiento es estable.
+     * @param comparador el comparador para ordenar.
+     * @return una copia de la secuencia, pero ordenada.
+     */
+    public Secuencia<T> mergeSort(Comparator<T> comparador);
+
+    /**
+     * Busca un elemento en la secuencia ordenada, usando el comparador
+     * recibido.
+     * @param elemento el elemento a buscar.
+     * @param comparador el comparador con el que la secuencia está ordenada.
+     * @return <tt>true</tt> si elemento está contenido en la secuencia,
+     *         <tt>false</tt> en otro caso.
+     */
+    public boolean busquedaLineal(T elemento, Comparator<T> comparador);
+}
@@ -2,18 +2,31 @@ package mx.unam.ciencias.edd;
 
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 
 public class Stylesheet{
 
   public String codigo;
   private String directorio;
+  private Compresion compresion = Compresion.NINGUNA;
 
   public Stylesheet(String dir){
     this.directorio = dir;
     generaArchivo();
   }
 
+  /**
+   *  Genera la hoja de estilo también, o sólo, comprimida con gzip.
+   *
+   */
+  public Stylesheet(String dir, Compresion compresion){
+    this.directorio = dir;
+    this.compresion = compresion;
+    generaArchivo();
+  }
+
   public void generaArchivo(){
     codigo = ".bar {\n  fill: #aaa\n  height: 21px;\n  -webkit-transition: fill .3s ease;\n  transition: fill .3s ease;\n  cursor: pointer;\n  font-family: Helvetica, sans-serif;\n}\n.bar text {\n  fill: #555;\n}\n\n.chart:hover .bar,\n.chart:focus .bar {\n  fill: #aaa;\n}\n\n.bar:hover,\n.bar:focus {\n  fill: red !important;\n}\n.bar:hover text,\n.bar:focus text {\n  fill: red;\n}\n\nfigcaption {\n  font-weight: bold;\n  color: #000;\n  margin-bottom: 20px;\n}\n\nbody {\n  font-family: 'Open Sans', sans-serif;\n}";
     codigo += ".nodo:hover { fill: white; transition: .3s ease}\n";
@@ -24,14 +37,14 @@ public class Stylesheet{
 
   private void escribirArchivo(){
     try{
-      File newFile = new File(directorio + "/stylesheet.css");
+      File destino = new File(directorio + "/stylesheet.css");
+      File newFile = compresion.principal(destino);
       if (newFile.createNewFile()){
          System.out.println("Archivo css creado!");
        }else{
-         System.out.println("Se sobreescribió el archivo stylesheet.css");
+         System.out.println("Se sobreescribió el archivo " + newFile.getName());
        }
-       FileWriter fw = new FileWriter(newFile.getAbsoluteFile());
-          BufferedWriter bw = new BufferedWriter(fw);
+          BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(compresion.abre(destino.getAbsoluteFile(), FileOutputStream::new), StandardCharsets.UTF_8));
 
           // Write in file
           bw.write(this.codigo);
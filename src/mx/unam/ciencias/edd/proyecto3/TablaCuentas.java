@@ -0,0 +1,357 @@
+package mx.unam.ciencias.edd;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.NoSuchElementException;
+
+/**
+ * <p>Clase para tablas de cuentas de palabras guardadas en disco.</p>
+ *
+ * <p>Una tabla guarda las cuentas de un {@link DiccionarioContador} en un
+ * formato binario compacto:</p>
+ *
+ * <ul>
+ *   <li>Un encabezado de {@link #ENCABEZADO} bytes con el número mágico, la
+ *       versión, el total de palabras contadas, el número de palabras
+ *       distintas, el intervalo de reinicio, el número de bloques y la
+ *       posición del índice de bloques.</li>
+ *   <li>Las palabras en UTF-8, ordenadas por sus bytes. Cada entrada guarda,
+ *       como enteros de longitud variable, cuántos bytes comparte con la
+ *       palabra anterior y cuántos bytes nuevos tiene; después los bytes
+ *       nuevos y al final la cuenta, también de longitud variable.</li>
+ *   <li>Cada {@link #INTERVALO} entradas empieza un bloque cuya primera
+ *       palabra se guarda completa, y al final del archivo hay un índice con
+ *       la posición de cada bloque.</li>
+ * </ul>
+ *
+ * <p>Para leer una tabla, el archivo se mapea en memoria; una búsqueda hace
+ * búsqueda binaria sobre las primeras palabras de los bloques y recorre un
+ * solo bloque, sin cargar la tabla completa en el <i>heap</i>. Las búsquedas
+ * se pueden hacer desde varios hilos a la vez.</p>
+ */
+public class TablaCuentas implements Closeable {
+
+    /** Tamaño en bytes del encabezado. */
+    public static final int ENCABEZADO = 36;
+
+    /** Número de entradas de cada bloque. */
+    public static final int INTERVALO = 16;
+
+    /* Número mágico de las tablas ("EDDT"). */
+    private static final int MAGICO = 0x45444454;
+    /* Versión del formato. */
+    private static final int VERSION = 1;
+
+    /* Clase privada para las entradas que se ordenan al escribir. */
+    private static class Entrada {
+        /* La palabra en UTF-8. */
+        private byte[] llave;
+        /* Su cuenta. */
+        private int cuenta;
+    }
+
+    /* El canal del archivo. */
+    private FileChannel canal;
+    /* El archivo mapeado. */
+    private MappedByteBuffer tabla;
+    /* Número de palabras contadas. */
+    private long total;
+    /* Número de palabras distintas. */
+    private int elementos;
+    /* Número de entradas de cada bloque. */
+    private int intervalo;
+    /* Número de bloques. */
+    private int bloques;
+    /* Posición del índice de bloques. */
+    private int indice;
+
+    /**
+     * Abre una tabla de cuentas, mapeando el archivo en memoria.
+     * @param archivo el archivo de la tabla.
+     * @throws IOException si ocurre un error al leer el archivo, o si el
+     *         archivo no es una tabla de cuentas válida.
+     */
+    public TablaCuentas(File archivo) throws IOException {
+        canal = FileChannel.open(archivo.toPath(), StandardOpenOption.READ);
+        try {
+            long tamaño = canal.size();
+            if (tamaño < ENCABEZADO || tamaño > Integer.MAX_VALUE)
+                throw new IOException("Tabla de cuentas inválida.");
+            tabla = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamaño);
+            if (tabla.getInt(0) != MAGICO || tabla.getInt(4) != VERSION)
+                throw new IOException("Tabla de cuentas inválida.");
+            total = tabla.getLong(8);
+            elementos = tabla.getInt(16);
+            intervalo = tabla.getInt(20);
+            bloques = tabla.getInt(24);
+            long posicion = tabla.getLong(28);
+            if (elementos < 0 || intervalo < 1 || bloques < 0 ||
+                posicion < ENCABEZADO || posicion + 4L * bloques > tamaño)
+                throw new IOException("Tabla de cuentas inválida.");
+            indice = (int)posicion;
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Escribe las cuentas de un diccionario en un archivo.
+     * @param dic el diccionario a escribir.
+     * @param archivo el archivo destino.
+     * @throws IOException si ocurre un error al escribir el archivo.
+     */
+    public static void escribe(DiccionarioContador dic, File archivo)
+        throws IOException {
+        try (OutputStream out =
+             new BufferedOutputStream(new FileOutputStream(archivo))) {
+            escribe(dic, out);
+        }
+    }
+
+    /**
+     * Escribe las cuentas de un diccionario en una salida. La salida no se
+     * cierra.
+     * @param dic el diccionario a escribir.
+     * @param salida la salida.
+     * @throws IOException si ocurre un error al escribir.
+     */
+    public static void escribe(DiccionarioContador dic, OutputStream salida)
+        throws IOException {
+        Entrada[] entradas = new Entrada[dic.getElementos()];
+        int n = 0;
+        for (int i = 0; i < dic.getTamanioEntradas(); i++) {
+            String palabra = dic.getPalabraEnIndice(i);
+            if (palabra == null)
+                continue;
+            Entrada e = new Entrada();
+            e.llave = palabra.getBytes(StandardCharsets.UTF_8);
+            e.cuenta = dic.getCantidadEnIndice(i);
+            entradas[n++] = e;
+        }
+        Arreglos.quickSort(entradas, (a, b) -> compara(a.llave, b.llave));
+
+        int bloques = (n + INTERVALO - 1) / INTERVALO;
+        int[] posiciones = new int[bloques];
+        ByteArrayOutputStream datos = new ByteArrayOutputStream();
+        byte[] anterior = new byte[0];
+        for (int i = 0; i < n; i++) {
+            byte[] llave = entradas[i].llave;
+            int compartidos = 0;
+            if (i % INTERVALO == 0) {
+                posiciones[i / INTERVALO] = ENCABEZADO + datos.size();
+            } else {
+                int m = Math.min(anterior.length, llave.length);
+                while (compartidos < m &&
+                       anterior[compartidos] == llave[compartidos])
+                    compartidos++;
+            }
+            escribeVariable(datos, compartidos);
+            escribeVariable(datos, llave.length - compartidos);
+            datos.write(llave, compartidos, llave.length - compartidos);
+            escribeVariable(datos, entradas[i].cuenta);
+            anterior = llave;
+        }
+
+        DataOutputStream out = new DataOutputStream(salida);
+        out.writeInt(MAGICO);
+        out.writeInt(VERSION);
+        out.writeLong(dic.getTotal());
+        out.writeInt(n);
+        out.writeInt(INTERVALO);
+        out.writeInt(bloques);
+        out.writeLong(ENCABEZADO + (long)datos.size());
+        datos.writeTo(out);
+        for (int p : posiciones)
+            out.writeInt(p);
+        out.flush();
+    }
+
+    /**
+     * Regresa el número total de palabras contadas.
+     * @return el número total de palabras contadas.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Regresa el número de palabras distintas de la tabla.
+     * @return el número de palabras distintas de la tabla.
+     */
+    public int getElementos() {
+        return elementos;
+    }
+
+    /**
+     * Regresa la cuenta de una palabra.
+     * @param palabra la palabra.
+     * @return la cuenta de la palabra.
+     * @throws NoSuchElementException si la palabra no está en la tabla.
+     */
+    public int get(String palabra) {
+        int cuenta = busca(palabra.getBytes(StandardCharsets.UTF_8));
+        if (cuenta == 0)
+            throw new NoSuchElementException("La palabra no está en la tabla.");
+        return cuenta;
+    }
+
+    /**
+     * Nos dice si una palabra está en la tabla.
+     * @param palabra la palabra.
+     * @return <code>true</code> si la palabra está en la tabla,
+     *         <code>false</code> en otro caso.
+     */
+    public boolean contiene(String palabra) {
+        return busca(palabra.getBytes(StandardCharsets.UTF_8)) != 0;
+    }
+
+    /**
+     * Suma todas las cuentas de la tabla a un diccionario, junto con las
+     * apariciones que se desbordaron al contarlas.
+     * @param dic el diccionario donde se suman las cuentas.
+     */
+    public void sumaA(DiccionarioContador dic) {
+        ByteBuffer b = tabla.duplicate();
+        b.position(ENCABEZADO);
+        byte[] llave = new byte[64];
+        int longitud = 0;
+        long suma = 0;
+        for (int i = 0; i < elementos; i++) {
+            int compartidos = leeVariable(b);
+            int nuevos = leeVariable(b);
+            longitud = compartidos + nuevos;
+            if (longitud > llave.length)
+                llave = copia(llave, compartidos, longitud);
+            b.get(llave, compartidos, nuevos);
+            int cuenta = leeVariable(b);
+            dic.agrega(new String(llave, 0, longitud, StandardCharsets.UTF_8),
+                       cuenta);
+            suma += cuenta;
+        }
+        if (total > suma)
+            dic.agregaDesbordadas(total - suma);
+    }
+
+    /**
+     * Carga la tabla completa en un diccionario nuevo.
+     * @return un diccionario con las cuentas de la tabla.
+     */
+    public DiccionarioContador carga() {
+        DiccionarioContador dic = new DiccionarioContador(elementos);
+        sumaA(dic);
+        return dic;
+    }
+
+    /**
+     * Cierra la tabla.
+     * @throws IOException si ocurre un error al cerrar el archivo.
+     */
+    @Override public void close() throws IOException {
+        canal.close();
+    }
+
+    /* Regresa la cuenta de la llave, o cero si no está. */
+    private int busca(byte[] buscada) {
+        if (bloques == 0)
+            return 0;
+        ByteBuffer b = tabla.duplicate();
+        /* El último bloque cuya primera llave es menor o igual. */
+        int a = 0, z = bloques - 1;
+        while (a < z) {
+            int m = (a + z + 1) >>> 1;
+            b.position(tabla.getInt(indice + 4 * m));
+            leeVariable(b);
+            int longitud = leeVariable(b);
+            if (comparaEnTabla(b, longitud, buscada) <= 0)
+                a = m;
+            else
+                z = m - 1;
+        }
+        b.position(tabla.getInt(indice + 4 * a));
+        int n = Math.min(intervalo, elementos - a * intervalo);
+        byte[] llave = new byte[Math.max(64, buscada.length)];
+        for (int i = 0; i < n; i++) {
+            int compartidos = leeVariable(b);
+            int nuevos = leeVariable(b);
+            int longitud = compartidos + nuevos;
+            if (longitud > llave.length)
+                llave = copia(llave, compartidos, longitud);
+            b.get(llave, compartidos, nuevos);
+            int cuenta = leeVariable(b);
+            int c = compara(llave, longitud, buscada);
+            if (c == 0)
+                return cuenta;
+            if (c > 0)
+                return 0;
+        }
+        return 0;
+    }
+
+    /* Compara los siguientes bytes del búfer con la llave, sin moverlo. */
+    private static int comparaEnTabla(ByteBuffer b, int longitud,
+                                      byte[] llave) {
+        int p = b.position();
+        int m = Math.min(longitud, llave.length);
+        for (int i = 0; i < m; i++) {
+            int c = (b.get(p + i) & 0xff) - (llave[i] & 0xff);
+            if (c != 0)
+                return c;
+        }
+        return longitud - llave.length;
+    }
+
+    /* Compara dos llaves byte por byte, sin signo. */
+    private static int compara(byte[] a, byte[] b) {
+        return compara(a, a.length, b);
+    }
+
+    /* Compara los primeros bytes de a con la llave b, sin signo. */
+    private static int compara(byte[] a, int longitud, byte[] b) {
+        int m = Math.min(longitud, b.length);
+        for (int i = 0; i < m; i++) {
+            int c = (a[i] & 0xff) - (b[i] & 0xff);
+            if (c != 0)
+                return c;
+        }
+        return longitud - b.length;
+    }
+
+    /* Copia los primeros n bytes a un arreglo de al menos la longitud. */
+    private static byte[] copia(byte[] a, int n, int longitud) {
+        byte[] nuevo = new byte[Math.max(longitud, a.length * 2)];
+        System.arraycopy(a, 0, nuevo, 0, n);
+        return nuevo;
+    }
+
+    /* Escribe un entero no negativo con 7 bits por byte. */
+    private static void escribeVariable(ByteArrayOutputStream out, int n) {
+        while ((n & ~0x7f) != 0) {
+            out.write((n & 0x7f) | 0x80);
+            n >>>= 7;
+        }
+        out.write(n);
+    }
+
+    /* Lee un entero escrito con escribeVariable. */
+    private static int leeVariable(ByteBuffer b) {
+        int n = 0;
+        for (int corrimiento = 0; ; corrimiento += 7) {
+            byte x = b.get();
+            n |= (x & 0x7f) << corrimiento;
+            if (x >= 0)
+                return n;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package mx.unam.ciencias.edd;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * <p>Clase para separar texto en palabras. Las palabras se normalizan
+ * quitándoles los acentos y pasándolas a minúsculas, y se separan en cualquier
+ * carácter que no sea letra.</p>
+ *
+ * <p>El tokenizador hace todo en una sola pasada sobre los caracteres: los
+ * caracteres ASCII se resuelven directamente, y para los demás se consulta una
+ * tabla calculada una sola vez con la descomposición canónica (NFD) de cada
+ * carácter, sin sus marcas diacríticas y en minúsculas. Las palabras se
+ * acumulan en una {@link VistaPalabra} que se reutiliza y que calcula su
+ * código de dispersión letra por letra, y se entregan a una {@link
+ * AccionPalabra} sin construir ninguna cadena.</p>
+ *
+ * <p>Las minúsculas no dependen del <em>locale</em>. La única letra cuya
+ * minúscula depende del contexto es la sigma mayúscula, que {@link
+ * String#toLowerCase} convierte en sigma final según las letras que la
+ * rodean dentro de lo que su {@code BreakIterator} de palabras considera una
+ * palabra. Para dar exactamente el mismo resultado que normalizar cada línea
+ * con {@link Normalizer}, quitarle las marcas y pasarla a minúsculas, las
+ * palabras con una sigma mayúscula no se resuelven aquí: se espera al final
+ * de la línea y se le pregunta a {@link String#toLowerCase} por la línea
+ * completa. Mientras tanto las palabras que siguen se forman en una cola,
+ * para entregarlas en orden. Las líneas de más de {@link #LIMITE} caracteres
+ * se resuelven por pedazos que se cortan justo antes de un espacio en
+ * blanco, lo que no cambia el resultado; sólo si en todo ese tramo no hay
+ * espacios se corta antes de cualquier otro carácter que no sea letra, y ahí
+ * una sigma junto al corte podría resolverse distinto.</p>
+ *
+ * <p>El tokenizador guarda la palabra incompleta entre llamadas, de forma que
+ * el texto se le puede dar en pedazos arbitrarios; al terminar hay que llamar
+ * {@link #termina}.</p>
+ */
+public class Tokenizador {
+
+    /* Clase de un carácter que se ignora (las marcas diacríticas). */
+    private static final int IGNORADO = 1 << 16;
+    /* Clase de un carácter que separa palabras. */
+    private static final int SEPARADOR = 2 << 16;
+    /* Clase de una letra; los 16 bits bajos son la letra normalizada. */
+    private static final int LETRA = 3 << 16;
+    /* Clase de un carácter que se descompone en varios; los 16 bits bajos son
+     * el índice de su descomposición. */
+    private static final int EXPANSION = 4 << 16;
+    /* Máscara para obtener la clase. */
+    private static final int CLASE = 0xffff0000;
+
+    /* La clase de cada carácter del plano básico. */
+    private static final int[] TABLA = new int[1 << 16];
+    /* Las descomposiciones de varios caracteres. */
+    private static final String[] EXPANSIONES;
+
+    /** Longitud a partir de la cual una línea se resuelve por pedazos. */
+    public static final int LIMITE = 1 << 16;
+
+    /* Tamaño de los bloques en que se copia una secuencia de caracteres. */
+    private static final int BLOQUE = 1 << 12;
+    /* La sigma mayúscula, que se deja así en la palabra mientras se
+     * resuelve. */
+    private static final char SIGMA = '\u03a3';
+
+    static {
+        Lista<String> expansiones = new Lista<String>();
+        for (int c = 0; c < TABLA.length; c++) {
+            if (Character.isSurrogate((char)c)) {
+                TABLA[c] = SEPARADOR;
+                continue;
+            }
+            String s = normaliza(String.valueOf((char)c));
+            if (s.isEmpty())
+                TABLA[c] = IGNORADO;
+            else if (s.length() > 1)
+                TABLA[c] = EXPANSION | agrega(expansiones, s);
+            else if (Character.isLetter(s.charAt(0)))
+                TABLA[c] = LETRA | s.charAt(0);
+            else
+                TABLA[c] = SEPARADOR;
+        }
+        EXPANSIONES = new String[expansiones.getLongitud()];
+        int i = 0;
+        for (String s : expansiones)
+            EXPANSIONES[i++] = s;
+    }
+
+    /* La acción a realizar con cada palabra. */
+    private AccionPalabra accion;
+    /* La palabra actual. */
+    private VistaPalabra palabra;
+    /* La vista con que se entregan las palabras que esperaron en la cola. */
+    private VistaPalabra diferida;
+    /* Las palabras que esperan a que se resuelvan sus sigmas o las de una
+     * palabra anterior. */
+    private Cola<String> pendientes;
+    /* Si la palabra actual tiene una sigma mayúscula. */
+    private boolean conSigma;
+    /* El número de sigmas mayúsculas de la línea sin resolver. */
+    private int sigmas;
+    /* Los caracteres de la línea que llegaron en llamadas anteriores. */
+    private StringBuilder linea;
+    /* El arreglo que se está separando. */
+    private char[] actual;
+    /* El índice en el arreglo actual donde empieza lo que falta guardar de
+     * la línea. */
+    private int inicioLinea;
+    /* El búfer para copiar secuencias de caracteres. */
+    private char[] búfer;
+    /* Un surrogate alto que espera a su pareja. */
+    private char alto;
+
+    /**
+     * Construye un tokenizador que realiza la acción recibida con cada
+     * palabra.
+     * @param accion la acción a realizar con cada palabra.
+     */
+    public Tokenizador(AccionPalabra accion) {
+        this.accion = accion;
+        this.palabra = new VistaPalabra();
+        this.diferida = new VistaPalabra();
+        this.pendientes = new Cola<String>();
+        this.linea = new StringBuilder();
+    }
+
+    /**
+     * Separa en palabras los caracteres recibidos. Si el texto termina a la
+     * mitad de una palabra, la palabra continúa en la siguiente llamada.
+     * @param texto el arreglo con los caracteres.
+     * @param inicio el índice del primer carácter.
+     * @param fin el índice después del último carácter.
+     */
+    public void tokeniza(char[] texto, int inicio, int fin) {
+        actual = texto;
+        inicioLinea = inicio;
+        for (int i = inicio; i < fin; i++) {
+            char c = texto[i];
+            if (c < 0x80 && alto == 0) {
+                if (c >= 'a' && c <= 'z')
+                    palabra.agrega(c);
+                else if (c >= 'A' && c <= 'Z')
+                    palabra.agrega((char)(c + ('a' - 'A')));
+                else if (c == '\n' || c == '\r')
+                    terminaLinea(i);
+                else
+                    emite();
+            } else {
+                procesa(c, i);
+            }
+        }
+        guardaLinea(fin);
+        actual = null;
+    }
+
+    /**
+     * Separa en palabras los caracteres de la secuencia recibida. Si el texto
+     * termina a la mitad de una palabra, la palabra continúa en la siguiente
+     * llamada.
+     * @param texto la secuencia de caracteres.
+     */
+    public void tokeniza(CharSequence texto) {
+        if (búfer == null)
+            búfer = new char[BLOQUE];
+        for (int i = 0; i < texto.length(); i += BLOQUE) {
+            int n = Math.min(BLOQUE, texto.length() - i);
+            for (int j = 0; j < n; j++)
+                búfer[j] = texto.charAt(i + j);
+            tokeniza(búfer, 0, n);
+        }
+    }
+
+    /**
+     * Termina el texto, entregando la última palabra si la hay.
+     */
+    public void termina() {
+        alto = 0;
+        emite();
+        if (sigmas > 0)
+            resuelve(linea.toString());
+        linea.setLength(0);
+    }
+
+    /**
+     * Nos dice si el carácter es un espacio en blanco. El texto se puede
+     * cortar justo antes de un espacio en blanco y separar cada pedazo con su
+     * propio tokenizador sin que cambien las palabras.
+     * @param c el carácter.
+     * @return <code>true</code> si el carácter es un espacio en blanco,
+     *         <code>false</code> en otro caso.
+     */
+    public static boolean esBlanco(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' ||
+            c == '\f' || c == '\u2028' || c == '\u2029' ||
+            Character.getType(c) == Character.SPACE_SEPARATOR;
+    }
+
+    /* Procesa un carácter cualquiera; i es su índice en el arreglo
+     * actual. */
+    private void procesa(char c, int i) {
+        if (alto != 0) {
+            char h = alto;
+            alto = 0;
+            if (Character.isLowSurrogate(c)) {
+                procesaSuplementario(Character.toCodePoint(h, c));
+                return;
+            }
+            emite();
+        }
+        if (Character.isHighSurrogate(c)) {
+            alto = c;
+            return;
+        }
+        if (c < 0x80) {
+            if (c >= 'a' && c <= 'z')
+                palabra.agrega(c);
+            else if (c >= 'A' && c <= 'Z')
+                palabra.agrega((char)(c + ('a' - 'A')));
+            else if (c == '\n' || c == '\r')
+                terminaLinea(i);
+            else
+                emite();
+            return;
+        }
+        int t = TABLA[c];
+        switch (t & CLASE) {
+        case LETRA:
+            if (c == SIGMA) {
+                conSigma = true;
+                sigmas++;
+                palabra.agrega(SIGMA);
+            } else {
+                palabra.agrega((char)t);
+            }
+            break;
+        case SEPARADOR:
+            emite();
+            break;
+        case EXPANSION:
+            String s = EXPANSIONES[t & 0xffff];
+            for (int j = 0; j < s.length(); j++) {
+                if (Character.isLetter(s.charAt(j)))
+                    palabra.agrega(s.charAt(j));
+                else
+                    emite();
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    /* Procesa un carácter fuera del plano básico; son raros, así que se
+     * normalizan sin tabla. */
+    private void procesaSuplementario(int cp) {
+        String s = normaliza(new String(Character.toChars(cp)));
+        for (int i = 0; i < s.length(); ) {
+            int d = s.codePointAt(i);
+            int n = Character.charCount(d);
+            if (Character.isLetter(d)) {
+                for (int j = 0; j < n; j++)
+                    palabra.agrega(s.charAt(i + j));
+            } else {
+                emite();
+            }
+            i += n;
+        }
+    }
+
+    /* Entrega la palabra actual, si la hay, y empieza una nueva. Si tiene
+     * una sigma mayúscula, o si ya hay palabras esperando, se forma en la
+     * cola. */
+    private void emite() {
+        if (palabra.length() == 0)
+            return;
+        if (conSigma || !pendientes.esVacia())
+            pendientes.mete(palabra.toString());
+        else
+            accion.actua(palabra);
+        conSigma = false;
+        palabra.limpia();
+    }
+
+    /* Termina la línea en el carácter con el índice recibido, resolviendo
+     * sus sigmas. */
+    private void terminaLinea(int i) {
+        emite();
+        if (sigmas > 0)
+            resuelve(linea(i));
+        linea.setLength(0);
+        inicioLinea = i + 1;
+    }
+
+    /* Guarda lo que queda de la línea en el arreglo actual para la siguiente
+     * llamada. Si la línea es muy larga, antes se resuelve y se olvida lo que
+     * está antes del último corte. */
+    private void guardaLinea(int fin) {
+        if (linea.length() + fin - inicioLinea > LIMITE) {
+            int corte = corte(fin);
+            if (corte >= inicioLinea) {
+                if (sigmas > 0)
+                    resuelve(linea(corte));
+                linea.setLength(0);
+                inicioLinea = corte;
+            }
+        }
+        linea.append(actual, inicioLinea, fin - inicioLinea);
+    }
+
+    /* Regresa el índice del último espacio en blanco de lo que queda de la
+     * línea en el arreglo actual; si no hay, el del último carácter que no
+     * es letra, y si tampoco hay, -1. Ninguna palabra cruza ese índice. */
+    private int corte(int fin) {
+        int separador = -1;
+        for (int i = fin - 1; i >= inicioLinea; i--) {
+            char c = actual[i];
+            if (esBlanco(c))
+                return i;
+            if (separador < 0 && !Character.isSurrogate(c) &&
+                (c < 0x80 ? !Character.isLetter(c) :
+                 (TABLA[c] & CLASE) == SEPARADOR))
+                separador = i;
+        }
+        return separador;
+    }
+
+    /* Regresa la línea desde su inicio hasta el índice recibido del arreglo
+     * actual. */
+    private String linea(int fin) {
+        if (linea.length() == 0)
+            return new String(actual, inicioLinea, fin - inicioLinea);
+        return linea.append(actual, inicioLinea, fin - inicioLinea).toString();
+    }
+
+    /* Resuelve las sigmas de un pedazo de línea como lo hace
+     * String#toLowerCase, y entrega las palabras de la cola que ya quedaron
+     * completas. */
+    private void resuelve(String texto) {
+        String s = quitaMarcas(Normalizer.normalize(texto, Normalizer.Form.NFD));
+        String minusculas = s.toLowerCase(Locale.ROOT);
+        StringBuilder decisiones = new StringBuilder();
+        for (int i = 0; i < s.length(); i++)
+            if (s.charAt(i) == SIGMA)
+                decisiones.append(minusculas.charAt(i));
+        sigmas -= decisiones.length();
+        int k = 0;
+        while (!pendientes.esVacia()) {
+            String p = pendientes.mira();
+            if (cuentaSigmas(p) > decisiones.length() - k)
+                break;
+            pendientes.saca();
+            diferida.limpia();
+            for (int i = 0; i < p.length(); i++) {
+                char c = p.charAt(i);
+                diferida.agrega(c == SIGMA ? decisiones.charAt(k++) : c);
+            }
+            accion.actua(diferida);
+        }
+    }
+
+    /* Regresa el número de sigmas mayúsculas de la cadena. */
+    private static int cuentaSigmas(String s) {
+        int n = 0;
+        for (int i = 0; i < s.length(); i++)
+            if (s.charAt(i) == SIGMA)
+                n++;
+        return n;
+    }
+
+    /* Descompone la cadena en NFD, le quita las marcas diacríticas combinables
+     * y la pasa a minúsculas. */
+    private static String normaliza(String s) {
+        s = Normalizer.normalize(s, Normalizer.Form.NFD);
+        return quitaMarcas(s).toLowerCase(Locale.ROOT);
+    }
+
+    /* Le quita a la cadena las marcas diacríticas combinables (U+0300 a
+     * U+036F). */
+    private static String quitaMarcas(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '\u0300' || c > '\u036f')
+                sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /* Agrega una descomposición a la lista y regresa su índice. */
+    private static int agrega(Lista<String> expansiones, String s) {
+        expansiones.agrega(s);
+        return expansiones.getLongitud() - 1;
+    }
+}
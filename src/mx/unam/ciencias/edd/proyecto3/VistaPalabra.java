@@ -0,0 +1,137 @@
+package mx.unam.ciencias.edd;
+
+/**
+ * <p>Clase para vistas mutables de palabras.</p>
+ *
+ * <p>Una vista es un búfer de caracteres reutilizable que se llena letra por
+ * letra, y que calcula su código de dispersión conforme crece. El código es
+ * el mismo que regresaría {@link String#hashCode} para la cadena con los
+ * mismos caracteres, de forma que un {@link DiccionarioContador} puede buscar
+ * la palabra sin construir una cadena ni volver a recorrer sus
+ * caracteres.</p>
+ *
+ * <p>Como la vista se reutiliza, quien la recibe no debe guardar una
+ * referencia a ella; si necesita la palabra, debe llamar a {@link
+ * #toString}.</p>
+ */
+public class VistaPalabra implements CharSequence {
+
+    /* Los caracteres de la palabra. */
+    private char[] caracteres;
+    /* El número de caracteres de la palabra. */
+    private int longitud;
+    /* El código de dispersión de la palabra. */
+    private int dispersion;
+
+    /**
+     * Construye una vista vacía.
+     */
+    public VistaPalabra() {
+        caracteres = new char[64];
+    }
+
+    /**
+     * Agrega un carácter al final de la palabra.
+     * @param c el carácter a agregar.
+     */
+    public void agrega(char c) {
+        if (longitud == caracteres.length) {
+            char[] nuevo = new char[caracteres.length * 2];
+            System.arraycopy(caracteres, 0, nuevo, 0, longitud);
+            caracteres = nuevo;
+        }
+        caracteres[longitud++] = c;
+        dispersion = 31 * dispersion + c;
+    }
+
+    /**
+     * Vacía la palabra para reutilizar la vista.
+     */
+    public void limpia() {
+        longitud = 0;
+        dispersion = 0;
+    }
+
+    /**
+     * Nos dice si la palabra tiene los mismos caracteres que la cadena.
+     * @param cadena la cadena con la que se compara.
+     * @return <code>true</code> si la palabra tiene los mismos caracteres
+     *         que la cadena, <code>false</code> en otro caso.
+     */
+    public boolean iguales(String cadena) {
+        if (cadena.length() != longitud)
+            return false;
+        for (int i = 0; i < longitud; i++)
+            if (cadena.charAt(i) != caracteres[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa el número de caracteres de la palabra.
+     * @return el número de caracteres de la palabra.
+     */
+    @Override public int length() {
+        return longitud;
+    }
+
+    /**
+     * Regresa el carácter en el índice recibido.
+     * @param i el índice.
+     * @return el carácter en el índice recibido.
+     * @throws ExcepcionIndiceInvalido si el índice no es válido.
+     */
+    @Override public char charAt(int i) {
+        if (i < 0 || i >= longitud)
+            throw new ExcepcionIndiceInvalido("Índice inválido.");
+        return caracteres[i];
+    }
+
+    /**
+     * Regresa una cadena con los caracteres en el rango recibido.
+     * @param inicio el índice del primer carácter.
+     * @param fin el índice después del último carácter.
+     * @return una cadena con los caracteres en el rango.
+     * @throws ExcepcionIndiceInvalido si el rango no es válido.
+     */
+    @Override public CharSequence subSequence(int inicio, int fin) {
+        if (inicio < 0 || fin > longitud || inicio > fin)
+            throw new ExcepcionIndiceInvalido("Rango inválido.");
+        return new String(caracteres, inicio, fin - inicio);
+    }
+
+    /**
+     * Regresa el código de dispersión de la palabra, que es el mismo que el
+     * de la cadena con los mismos caracteres.
+     * @return el código de dispersión de la palabra.
+     */
+    @Override public int hashCode() {
+        return dispersion;
+    }
+
+    /**
+     * Nos dice si la vista es igual al objeto recibido.
+     * @param o el objeto con el que queremos comparar la vista.
+     * @return <code>true</code> si el objeto recibido es una vista con los
+     *         mismos caracteres; <code>false</code> en otro caso.
+     */
+    @Override public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass())
+            return false;
+        VistaPalabra vista = (VistaPalabra)o;
+        if (vista.longitud != longitud || vista.dispersion != dispersion)
+            return false;
+        for (int i = 0; i < longitud; i++)
+            if (vista.caracteres[i] != caracteres[i])
+                return false;
+        return true;
+    }
+
+    /**
+     * Regresa una cadena nueva con los caracteres de la palabra.
+     * @return una cadena con los caracteres de la palabra.
+     */
+    @Override public String toString() {
+        return new String(caracteres, 0, longitud);
+    }
+}
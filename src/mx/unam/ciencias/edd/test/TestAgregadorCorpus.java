@@ -0,0 +1,81 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import mx.unam.ciencias.edd.AgregadorCorpus;
+import mx.unam.ciencias.edd.CacheAnalisis;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.HiperLogLog;
+import mx.unam.ciencias.edd.LectorMapeado;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AgregadorCorpus}.
+ */
+public class TestAgregadorCorpus {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* Escribe un archivo con el texto, lo analiza y guarda sus cuentas en el
+     * caché; regresa sus cuentas. */
+    private DiccionarioContador guarda(CacheAnalisis cache, File archivo,
+                                       String texto) throws IOException {
+        Files.write(archivo.toPath(), texto.getBytes(StandardCharsets.UTF_8));
+        DiccionarioContador dic = new DiccionarioContador();
+        LectorMapeado.analiza(archivo, dic);
+        HiperLogLog hll = new HiperLogLog();
+        for (String palabra : dic)
+            hll.agrega(palabra);
+        String pagina = archivo.getName() + ".html";
+        cache.registraPagina(pagina, archivo);
+        Assert.assertTrue(cache.guarda(cache.huella(archivo), pagina, dic, hll));
+        return dic;
+    }
+
+    /**
+     * Prueba que las cuentas juntas sean la suma de las de cada archivo.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testAgrega() throws IOException {
+        CacheAnalisis cache = new CacheAnalisis(carpeta.newFolder().getPath());
+        DiccionarioContador esperado = new DiccionarioContador();
+        String[] rutas = new String[20];
+        for (int i = 0; i < rutas.length; i++) {
+            File archivo = carpeta.newFile();
+            esperado.combina(guarda(cache, archivo, "uno dos " + i + " tres " +
+                                    (char)('a' + i)));
+            rutas[i] = archivo.getCanonicalPath();
+        }
+        Assert.assertEquals(esperado, AgregadorCorpus.agrega(cache, rutas));
+        Assert.assertTrue(AgregadorCorpus.agrega(cache, new String[0]).esVacia());
+    }
+
+    /**
+     * Prueba que un archivo que se recibe varias veces, aunque sea con rutas
+     * escritas de otra forma, cuente una sola vez.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testRutasRepetidas() throws IOException {
+        CacheAnalisis cache = new CacheAnalisis(carpeta.newFolder().getPath());
+        File directorio = carpeta.newFolder("textos");
+        File a = new File(directorio, "a.txt");
+        File b = new File(directorio, "b.txt");
+        DiccionarioContador esperado = guarda(cache, a, "hola mundo hola");
+        esperado.combina(guarda(cache, b, "adiós mundo"));
+        String rodeo = directorio.getPath() + "/../textos/./a.txt";
+        String[] rutas = { a.getCanonicalPath(), b.getCanonicalPath(),
+                           a.getCanonicalPath(), rodeo };
+        DiccionarioContador global = AgregadorCorpus.agrega(cache, rutas);
+        Assert.assertEquals(esperado, global);
+        Assert.assertEquals(2, global.get("hola"));
+    }
+}
@@ -0,0 +1,140 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import mx.unam.ciencias.edd.Analisis;
+import mx.unam.ciencias.edd.AnalizadorFlujo;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.PalabraContada;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnalizadorFlujo}.
+ */
+public class TestAnalizadorFlujo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestAnalizadorFlujo() {
+        random = new Random(41);
+    }
+
+    /* Regresa una palabra de letras a partir de un número. */
+    private static String palabra(int n) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char)('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return sb.toString();
+    }
+
+    /**
+     * Prueba que un flujo que deja de escribir sin cerrarse reciba su
+     * análisis cuando se cumple el tiempo, y el final cuando se cierra.
+     * @throws Exception si ocurre un error con el flujo o los hilos.
+     */
+    @Test public void testFlujoOcioso() throws Exception {
+        PipedOutputStream escritor = new PipedOutputStream();
+        PipedInputStream entrada = new PipedInputStream(escritor);
+        BlockingQueue<Analisis> analisis = new LinkedBlockingQueue<Analisis>();
+        AnalizadorFlujo analizador =
+            new AnalizadorFlujo(AnalizadorFlujo.PRESUPUESTO,
+                                AnalizadorFlujo.PALABRAS, 1, analisis::add);
+        Thread hilo = new Thread(() -> {
+                try {
+                    analizador.analiza(entrada);
+                } catch (IOException e) {
+                    Assert.fail(e.getMessage());
+                }
+            });
+        hilo.start();
+        escritor.write("hola mundo hola\n".getBytes(StandardCharsets.UTF_8));
+        escritor.flush();
+        Analisis a = analisis.poll(3, TimeUnit.SECONDS);
+        Assert.assertNotNull(a);
+        Assert.assertEquals(3, a.getTotal());
+        Assert.assertEquals("hola", a.get(0).getPalabra());
+        escritor.close();
+        hilo.join();
+        a = analisis.poll();
+        Assert.assertNotNull(a);
+        Assert.assertEquals(3, a.getTotal());
+        Assert.assertTrue(analisis.isEmpty());
+    }
+
+    /**
+     * Prueba que cada análisis incluya sólo las palabras más usadas, con los
+     * totales de todo el flujo.
+     * @throws IOException si ocurre un error con el flujo.
+     */
+    @Test public void testAnalisisAcotado() throws IOException {
+        DiccionarioContador dic = new DiccionarioContador();
+        StringBuilder sb = new StringBuilder();
+        int distintas = 3 * AnalizadorFlujo.MAYORES;
+        for (int i = 0; i < 10 * distintas; i++) {
+            String p = palabra(random.nextInt(distintas));
+            dic.incrementa(p);
+            sb.append(p).append(' ');
+        }
+        List<Analisis> analisis = new ArrayList<Analisis>();
+        AnalizadorFlujo analizador =
+            new AnalizadorFlujo(AnalizadorFlujo.PRESUPUESTO,
+                                AnalizadorFlujo.PALABRAS,
+                                AnalizadorFlujo.SEGUNDOS, analisis::add);
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        analizador.analiza(new ByteArrayInputStream(bytes));
+        Analisis a = analisis.get(analisis.size() - 1);
+        Assert.assertEquals(dic.getTotal(), a.getTotal());
+        Assert.assertEquals(dic.getElementos(), a.getDistintas());
+        Assert.assertEquals(AnalizadorFlujo.MAYORES, a.getIncluidas());
+        PalabraContada[] mayores = dic.mayores(AnalizadorFlujo.MAYORES);
+        int i = 0;
+        for (PalabraContada p : a) {
+            Assert.assertEquals(mayores[i].getPalabra(), p.getPalabra());
+            Assert.assertEquals(mayores[i++].getCantidad(), p.getCantidad());
+        }
+        Assert.assertEquals(mayores.length, i);
+    }
+
+    /**
+     * Prueba que el análisis de las palabras más usadas sea un prefijo del
+     * análisis completo.
+     */
+    @Test public void testAnalisisMayores() {
+        DiccionarioContador dic = new DiccionarioContador();
+        for (int i = 0; i < 5000; i++)
+            dic.incrementa(palabra(random.nextInt(500)));
+        Analisis completo = new Analisis(dic);
+        for (int k : new int[] { 0, 1, 10, 499, 500, 1000 }) {
+            Analisis a = new Analisis(dic, k, dic.getTotal(), null);
+            Assert.assertEquals(Math.min(k, completo.getDistintas()),
+                                a.getIncluidas());
+            Assert.assertEquals(completo.getDistintas(), a.getDistintas());
+            Assert.assertEquals(completo.getDistintasEstimadas(),
+                                a.getDistintasEstimadas());
+            for (int i = 0; i < a.getIncluidas(); i++)
+                Assert.assertEquals(completo.get(i).getPalabra(),
+                                    a.get(i).getPalabra());
+        }
+    }
+}
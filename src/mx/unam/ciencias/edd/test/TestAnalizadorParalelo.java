@@ -0,0 +1,110 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+import mx.unam.ciencias.edd.AnalizadorParalelo;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.LectorMapeado;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link AnalizadorParalelo}.
+ */
+public class TestAnalizadorParalelo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* Pedazos con los que se arma el texto: letras con y sin caso, sigmas,
+     * signos que unen palabras, acentos combinables, caracteres de varios
+     * bytes y letras fuera del plano básico. */
+    private static final String[] PEDAZOS = {
+        "hola", "Árbol", "ΑΣ", "Σ", "ς", "'", "1", ".", "é", "中文", "あ",
+        "א", "\u00ad", "𐐀", "𐐨", "ß", "İ"
+    };
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestAnalizadorParalelo() {
+        random = new Random(31);
+    }
+
+    /* Escribe un texto aleatorio separando los pedazos con los blancos
+     * recibidos. */
+    private File escribe(int pedazos, String[] blancos) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pedazos; i++) {
+            sb.append(PEDAZOS[random.nextInt(PEDAZOS.length)]);
+            if (blancos.length > 0 && random.nextInt(3) == 0)
+                sb.append(blancos[random.nextInt(blancos.length)]);
+        }
+        File archivo = carpeta.newFile();
+        Files.write(archivo.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+
+    /* Compara el análisis en paralelo con el secuencial. */
+    private void valida(File archivo, long umbral) throws IOException {
+        DiccionarioContador secuencial = new DiccionarioContador();
+        LectorMapeado.analiza(archivo, secuencial);
+        DiccionarioContador paralelo = AnalizadorParalelo.analiza(archivo, umbral);
+        Assert.assertEquals(secuencial.getTotal(), paralelo.getTotal());
+        Assert.assertEquals(secuencial, paralelo);
+    }
+
+    /**
+     * Prueba que un archivo con saltos de línea partido en rangos pequeños
+     * tenga las mismas cuentas que el análisis secuencial.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testConSaltos() throws IOException {
+        File archivo = escribe(20000, new String[] { "\n", " ", ", " });
+        for (long umbral : new long[] { 1, 7, 64, 1000, 1 << 20 })
+            valida(archivo, umbral);
+    }
+
+    /**
+     * Prueba que un archivo sin saltos de línea, con espacios de uno y de
+     * varios bytes, se parta y tenga las mismas cuentas que el análisis
+     * secuencial.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testSinSaltos() throws IOException {
+        File archivo = escribe(20000, new String[] {
+                " ", "\t", "\u00a0", "\u3000", "\u2028" });
+        for (long umbral : new long[] { 1, 5, 100, 4096 })
+            valida(archivo, umbral);
+    }
+
+    /**
+     * Prueba que un archivo sin espacios en blanco se analice completo en un
+     * solo rango.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testSinBlancos() throws IOException {
+        File archivo = escribe(5000, new String[0]);
+        valida(archivo, 16);
+    }
+
+    /**
+     * Prueba que un umbral que no es positivo lance una excepción.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testUmbralInvalido() throws IOException {
+        AnalizadorParalelo.analiza(carpeta.newFile(), 0);
+    }
+}
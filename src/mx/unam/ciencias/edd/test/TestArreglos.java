@@ -0,0 +1,166 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Comparator;
+import java.util.Random;
+import mx.unam.ciencias.edd.Arreglos;
+import mx.unam.ciencias.edd.IteradorLista;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de los ordenamientos en paralelo de la clase
+ * {@link Arreglos}, y de los de {@link Lista} que los usan.
+ */
+public class TestArreglos {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Compara los elementos sólo por su llave, para que haya empates. */
+    private static final Comparator<int[]> POR_LLAVE =
+        (a, b) -> Integer.compare(a[0], b[0]);
+
+    /* Tamaños de los dos lados del umbral en que se deja de partir en
+     * tareas. */
+    private static final int[] TAMAÑOS = {
+        0, 1, Arreglos.UMBRAL_PARALELO - 1, Arreglos.UMBRAL_PARALELO,
+        10 * Arreglos.UMBRAL_PARALELO + 3
+    };
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestArreglos() {
+        random = new Random(13);
+    }
+
+    /* Regresa un arreglo con las llaves recibidas; cada elemento lleva
+     * también su posición original. */
+    private static int[][] arreglo(int[] llaves) {
+        int[][] arreglo = new int[llaves.length][];
+        for (int i = 0; i < llaves.length; i++)
+            arreglo[i] = new int[] { llaves[i], i };
+        return arreglo;
+    }
+
+    /* Regresa una lista con las llaves recibidas; cada elemento lleva
+     * también su posición original. */
+    private static Lista<int[]> lista(int[] llaves) {
+        Lista<int[]> lista = new Lista<int[]>();
+        for (int[] e : arreglo(llaves))
+            lista.agrega(e);
+        return lista;
+    }
+
+    /* Revisa que los elementos estén ordenados por llave y sean una
+     * permutación de los originales; si el ordenamiento debe ser estable,
+     * revisa también que los empates conserven su orden original. */
+    private static void valida(int[][] elementos, boolean estable) {
+        boolean[] visto = new boolean[elementos.length];
+        for (int i = 0; i < elementos.length; i++) {
+            Assert.assertFalse(visto[elementos[i][1]]);
+            visto[elementos[i][1]] = true;
+            if (i == 0)
+                continue;
+            int[] a = elementos[i - 1];
+            int[] b = elementos[i];
+            Assert.assertTrue(a[0] <= b[0]);
+            if (estable && a[0] == b[0])
+                Assert.assertTrue("Ordenamiento inestable", a[1] < b[1]);
+        }
+    }
+
+    /* Revisa que la lista esté ordenada de forma estable, y que se pueda
+     * recorrer igual en las dos direcciones. */
+    private static void valida(Lista<int[]> lista, int n) {
+        Assert.assertEquals(n, lista.getLongitud());
+        int[][] elementos = new int[n][];
+        int i = 0;
+        for (int[] e : lista)
+            elementos[i++] = e;
+        Assert.assertEquals(n, i);
+        valida(elementos, true);
+        IteradorLista<int[]> iterador = lista.iteradorLista();
+        iterador.end();
+        for (i = n - 1; i >= 0; i--)
+            Assert.assertSame(elementos[i], iterador.previous());
+        Assert.assertFalse(iterador.hasPrevious());
+        if (n > 0) {
+            Assert.assertSame(elementos[0], lista.getPrimero());
+            Assert.assertSame(elementos[n - 1], lista.getUltimo());
+        }
+    }
+
+    /* Regresa llaves con distintos patrones. */
+    private int[][] patrones(int n) {
+        int[] azar = new int[n];
+        int[] pocas = new int[n];
+        int[] creciente = new int[n];
+        int[] decreciente = new int[n];
+        int[] sierra = new int[n];
+        int[] iguales = new int[n];
+        for (int i = 0; i < n; i++) {
+            azar[i] = random.nextInt();
+            pocas[i] = random.nextInt(4);
+            creciente[i] = i / 3;
+            decreciente[i] = (n - i) / 3;
+            sierra[i] = i % 7;
+        }
+        return new int[][] { azar, pocas, creciente, decreciente, sierra,
+                             iguales };
+    }
+
+    /**
+     * Prueba que {@link Arreglos#mergeSortParalelo(Object[], Comparator)}
+     * sea estable, de los dos lados del umbral.
+     */
+    @Test public void testMergeSortParaleloEsEstable() {
+        for (int n : TAMAÑOS) {
+            for (int[] llaves : patrones(n)) {
+                int[][] arreglo = arreglo(llaves);
+                Arreglos.mergeSortParalelo(arreglo, POR_LLAVE);
+                valida(arreglo, true);
+            }
+        }
+    }
+
+    /**
+     * Prueba que {@link Arreglos#quickSortParalelo(Object[], Comparator)}
+     * ordene, de los dos lados del umbral y con muchas llaves iguales.
+     */
+    @Test public void testQuickSortParalelo() {
+        for (int n : TAMAÑOS) {
+            for (int[] llaves : patrones(n)) {
+                int[][] arreglo = arreglo(llaves);
+                Arreglos.quickSortParalelo(arreglo, POR_LLAVE);
+                valida(arreglo, false);
+            }
+        }
+    }
+
+    /**
+     * Prueba que {@link Lista#ordenaParalelo} y {@link
+     * Lista#mergeSortParalelo} sean estables y dejen bien ligados los nodos,
+     * de los dos lados del umbral.
+     */
+    @Test public void testListaParaleloEsEstable() {
+        for (int n : TAMAÑOS) {
+            for (int[] llaves : patrones(n)) {
+                Lista<int[]> lista = lista(llaves);
+                lista.ordenaParalelo(POR_LLAVE);
+                valida(lista, n);
+                Lista<int[]> original = lista(llaves);
+                valida(original.mergeSortParalelo(POR_LLAVE), n);
+                int i = 0;
+                for (int[] e : original)
+                    Assert.assertEquals(i++, e[1]);
+            }
+        }
+    }
+}
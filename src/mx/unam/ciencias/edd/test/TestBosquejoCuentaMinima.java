@@ -0,0 +1,69 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Random;
+import mx.unam.ciencias.edd.BosquejoCuentaMinima;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link BosquejoCuentaMinima}.
+ */
+public class TestBosquejoCuentaMinima {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestBosquejoCuentaMinima() {
+        random = new Random(43);
+    }
+
+    /**
+     * Prueba que ninguna estimación sea menor que la cuenta real, y que el
+     * total sea el número de palabras contadas.
+     */
+    @Test public void testCotas() {
+        BosquejoCuentaMinima bosquejo = new BosquejoCuentaMinima(0.01, 0.01);
+        DiccionarioContador dic = new DiccionarioContador();
+        for (int i = 0; i < 20000; i++) {
+            String palabra = "p" + (int)Math.abs(random.nextGaussian() * 300);
+            dic.incrementa(palabra);
+            Assert.assertTrue(bosquejo.incrementa(palabra) >= dic.get(palabra));
+        }
+        Assert.assertEquals(dic.getTotal(), bosquejo.getTotal());
+        int excedidas = 0;
+        for (String palabra : dic) {
+            int estimacion = bosquejo.estima(palabra);
+            Assert.assertTrue(estimacion >= dic.get(palabra));
+            if (estimacion - dic.get(palabra) > bosquejo.getError())
+                excedidas++;
+        }
+        Assert.assertTrue(excedidas <= dic.getElementos() * 0.01 + 1);
+    }
+
+    /**
+     * Prueba que palabras que chocan en {@link String#hashCode} porque el
+     * polinomio se desborda en 32 bits no compartan contadores.
+     */
+    @Test public void testMismoHashCode() {
+        BosquejoCuentaMinima bosquejo = new BosquejoCuentaMinima(0.001, 0.01);
+        String[] palabras = { "wejdaffb", "dwhuazjz", "hqdzohdy", "mbonecvq",
+                              "ukqngmhf", "abmwpqbm" };
+        for (int i = 0; i < palabras.length; i += 2)
+            Assert.assertEquals(palabras[i].hashCode(),
+                                palabras[i + 1].hashCode());
+        for (int i = 0; i < palabras.length; i++)
+            for (int j = 0; j <= i; j++)
+                bosquejo.incrementa(palabras[i]);
+        for (int i = 0; i < palabras.length; i++)
+            Assert.assertEquals(i + 1, bosquejo.estima(palabras[i]));
+    }
+}
@@ -0,0 +1,119 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import mx.unam.ciencias.edd.CacheAnalisis;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.HiperLogLog;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link CacheAnalisis}.
+ */
+public class TestCacheAnalisis {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los archivos. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* El directorio de salida. */
+    private File salida;
+    /* Dos entradas con el mismo nombre en directorios distintos. */
+    private File a, b;
+
+    /**
+     * Crea el directorio de salida y las dos entradas.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Before public void creaArchivos() throws IOException {
+        salida = carpeta.newFolder("salida");
+        a = escribe(carpeta.newFolder("a"), "uno dos");
+        b = escribe(carpeta.newFolder("b"), "tres cuatro cinco");
+    }
+
+    /* Escribe un archivo notas.txt con el texto en el directorio. */
+    private static File escribe(File directorio, String texto)
+        throws IOException {
+        File archivo = new File(directorio, "notas.txt");
+        Files.write(archivo.toPath(), texto.getBytes(StandardCharsets.UTF_8));
+        return archivo;
+    }
+
+    /* Simula generar la página de la entrada y guardarla en el caché. */
+    private static File genera(CacheAnalisis cache, File archivo,
+                               File salida) throws IOException {
+        CacheAnalisis.Huella huella = cache.huella(archivo);
+        String nombre = archivo.getName() + ".html";
+        File pagina = new File(salida, nombre);
+        Files.write(pagina.toPath(),
+                    archivo.getPath().getBytes(StandardCharsets.UTF_8));
+        cache.registraPagina(nombre, archivo);
+        cache.guarda(huella, nombre, new DiccionarioContador(),
+                     new HiperLogLog());
+        return pagina;
+    }
+
+    /* Nos dice si la página de la entrada está al día. */
+    private static boolean vigente(CacheAnalisis cache, File archivo,
+                                   File pagina) throws IOException {
+        return cache.vigente(cache.huella(archivo), pagina.getName(),
+                             new File[] { pagina });
+    }
+
+    /**
+     * Prueba que una entrada generada sea vigente en la siguiente ejecución.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testVigente() throws IOException {
+        CacheAnalisis cache = new CacheAnalisis(salida.getPath());
+        File pagina = genera(cache, a, salida);
+        Assert.assertTrue(vigente(cache, a, pagina));
+        cache.escribe();
+        cache = new CacheAnalisis(salida.getPath());
+        Assert.assertTrue(vigente(cache, a, pagina));
+        Assert.assertTrue(pagina.delete());
+        Assert.assertFalse(vigente(cache, a, pagina));
+    }
+
+    /**
+     * Prueba que si dos entradas con el mismo nombre escriben la misma
+     * página en una ejecución, ninguna sea vigente en la siguiente.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testMismoNombreEnUnaEjecucion() throws IOException {
+        CacheAnalisis cache = new CacheAnalisis(salida.getPath());
+        File pagina = genera(cache, a, salida);
+        genera(cache, b, salida);
+        cache.escribe();
+        cache = new CacheAnalisis(salida.getPath());
+        Assert.assertFalse(vigente(cache, a, pagina));
+        Assert.assertFalse(vigente(cache, b, pagina));
+    }
+
+    /**
+     * Prueba que si otra entrada con el mismo nombre sobrescribe la página
+     * en una ejecución posterior, la página deje de ser de la primera.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testMismoNombreEnOtraEjecucion() throws IOException {
+        CacheAnalisis cache = new CacheAnalisis(salida.getPath());
+        File pagina = genera(cache, a, salida);
+        cache.escribe();
+        cache = new CacheAnalisis(salida.getPath());
+        genera(cache, b, salida);
+        Assert.assertFalse(vigente(cache, a, pagina));
+        Assert.assertTrue(vigente(cache, b, pagina));
+        cache.escribe();
+        cache = new CacheAnalisis(salida.getPath());
+        Assert.assertFalse(vigente(cache, a, pagina));
+        Assert.assertTrue(vigente(cache, b, pagina));
+    }
+}
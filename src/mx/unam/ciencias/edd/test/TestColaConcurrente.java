@@ -0,0 +1,158 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import mx.unam.ciencias.edd.Cola;
+import mx.unam.ciencias.edd.ColaConcurrente;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ColaConcurrente}.
+ */
+public class TestColaConcurrente {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Número de productores. */
+    private static final int PRODUCTORES = 4;
+    /* Número de consumidores. */
+    private static final int CONSUMIDORES = 3;
+    /* Elementos que mete cada productor. */
+    private static final int POR_PRODUCTOR = 20000;
+    /* Elemento que le indica a un consumidor que termine; el consumidor
+     * lo vuelve a meter para el siguiente. */
+    private static final Long FIN = -1L;
+
+    /**
+     * Prueba las operaciones de la cola desde un solo hilo.
+     */
+    @Test public void testUnHilo() {
+        ColaConcurrente<Integer> cola = new ColaConcurrente<Integer>(5);
+        Assert.assertEquals(8, cola.getCapacidad());
+        Assert.assertTrue(cola.esVacia());
+        Assert.assertNull(cola.intentaSacar());
+        for (int vuelta = 0; vuelta < 3; vuelta++) {
+            for (int i = 0; i < 8; i++)
+                Assert.assertTrue(cola.ofrece(i));
+            Assert.assertFalse(cola.ofrece(8));
+            Assert.assertEquals(8, cola.getElementos());
+            Assert.assertEquals(0, (int)cola.mira());
+            Assert.assertEquals(0, (int)cola.saca());
+            Cola<Integer> destino = new Cola<Integer>();
+            Assert.assertEquals(3, cola.sacaTodos(destino, 3));
+            for (int i = 1; i <= 3; i++)
+                Assert.assertEquals(i, (int)destino.saca());
+            Assert.assertEquals(4, cola.sacaTodos(destino, 100));
+            for (int i = 4; i < 8; i++)
+                Assert.assertEquals(i, (int)destino.saca());
+            Assert.assertTrue(cola.esVacia());
+        }
+    }
+
+    /**
+     * Prueba que sacar de una cola vacía lance una excepción.
+     */
+    @Test(expected=NoSuchElementException.class)
+    public void testSacaVacia() {
+        new ColaConcurrente<Integer>(4).saca();
+    }
+
+    /**
+     * Prueba que no se pueda meter <code>null</code>.
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testOfreceNull() {
+        new ColaConcurrente<Integer>(4).ofrece(null);
+    }
+
+    /**
+     * Prueba que con varios productores y varios consumidores sobre una
+     * cola pequeña cada elemento salga exactamente una vez, y que cada
+     * consumidor vea los elementos de un mismo productor en el orden en que
+     * se metieron.
+     * @throws InterruptedException si se interrumpe la espera de los hilos.
+     */
+    @Test public void testVariosProductores() throws InterruptedException {
+        ColaConcurrente<Long> cola = new ColaConcurrente<Long>(8);
+        int[][] vistos = new int[CONSUMIDORES][PRODUCTORES * POR_PRODUCTOR];
+        AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        Thread[] hilos = new Thread[PRODUCTORES + CONSUMIDORES];
+        for (int p = 0; p < PRODUCTORES; p++) {
+            final int productor = p;
+            hilos[p] = new Thread(() -> {
+                try {
+                    for (int i = 0; i < POR_PRODUCTOR; i++) {
+                        Long e = (long)productor * POR_PRODUCTOR + i;
+                        if (i % 2 == 0)
+                            cola.mete(e);
+                        else
+                            while (!cola.ofrece(e))
+                                Thread.yield();
+                    }
+                } catch (Throwable t) {
+                    error.compareAndSet(null, t);
+                }
+            });
+        }
+        for (int c = 0; c < CONSUMIDORES; c++) {
+            final int consumidor = c;
+            hilos[PRODUCTORES + c] = new Thread(() -> {
+                try {
+                    consume(cola, vistos[consumidor], consumidor);
+                } catch (Throwable t) {
+                    error.compareAndSet(null, t);
+                }
+            });
+        }
+        for (Thread hilo : hilos)
+            hilo.start();
+        for (int p = 0; p < PRODUCTORES; p++)
+            hilos[p].join();
+        cola.mete(FIN);
+        for (int c = 0; c < CONSUMIDORES; c++)
+            hilos[PRODUCTORES + c].join();
+        if (error.get() != null)
+            throw new AssertionError(error.get());
+        Assert.assertEquals(FIN, cola.saca());
+        Assert.assertTrue(cola.esVacia());
+        for (int e = 0; e < PRODUCTORES * POR_PRODUCTOR; e++) {
+            int veces = 0;
+            for (int c = 0; c < CONSUMIDORES; c++)
+                veces += vistos[c][e];
+            Assert.assertEquals("Elemento " + e, 1, veces);
+        }
+    }
+
+    /* Saca elementos hasta encontrar el fin, alternando entre sacar de uno
+     * en uno y sacar varios a la vez, y marca los que ve. */
+    private static void consume(ColaConcurrente<Long> cola, int[] vistos,
+                                int consumidor) throws InterruptedException {
+        long[] ultimo = new long[PRODUCTORES];
+        for (int p = 0; p < PRODUCTORES; p++)
+            ultimo[p] = -1;
+        Cola<Long> lote = new Cola<Long>();
+        for (int vuelta = 0; ; vuelta++) {
+            if (consumidor == 0 && vuelta % 2 == 0) {
+                if (cola.sacaTodos(lote, 5) == 0)
+                    Thread.yield();
+            } else {
+                lote.mete(cola.sacaEsperando());
+            }
+            while (!lote.esVacia()) {
+                long e = lote.saca();
+                if (e == FIN) {
+                    cola.mete(FIN);
+                    return;
+                }
+                int p = (int)(e / POR_PRODUCTOR);
+                Assert.assertTrue(e > ultimo[p]);
+                ultimo[p] = e;
+                vistos[(int)e]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import mx.unam.ciencias.edd.ContadorNGramas;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.PalabraContada;
+import mx.unam.ciencias.edd.VistaPalabra;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ContadorNGramas}.
+ */
+public class TestContadorNGramas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La vista con la que se agregan las palabras. */
+    private VistaPalabra vista;
+
+    /**
+     * Crea un generador de números aleatorios y una vista.
+     */
+    public TestContadorNGramas() {
+        random = new Random(47);
+        vista = new VistaPalabra();
+    }
+
+    /* Regresa la vista con la palabra. */
+    private VistaPalabra vista(String palabra) {
+        vista.limpia();
+        for (int i = 0; i < palabra.length(); i++)
+            vista.agrega(palabra.charAt(i));
+        return vista;
+    }
+
+    /* Regresa una palabra de letras a partir de un número. */
+    private static String palabra(int n) {
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.append((char)('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        return sb.toString();
+    }
+
+    /* Cuenta los k-gramas del texto en un mapa, con sus palabras separadas
+     * por un espacio. */
+    private static Map<String, Integer> referencia(String[] texto, int k) {
+        Map<String, Integer> m = new HashMap<String, Integer>();
+        for (int i = 0; i + k <= texto.length; i++) {
+            StringBuilder sb = new StringBuilder(texto[i]);
+            for (int j = 1; j < k; j++)
+                sb.append(' ').append(texto[i + j]);
+            m.merge(sb.toString(), 1, Integer::sum);
+        }
+        return m;
+    }
+
+    /* Valida que los k-gramas del contador sean los de la referencia. */
+    private static void valida(ContadorNGramas contador, String[] texto,
+                               int k) {
+        Map<String, Integer> m = referencia(texto, k);
+        Assert.assertEquals(Math.max(0, texto.length - k + 1),
+                            contador.getTotal(k));
+        Assert.assertEquals(m.size(), contador.getDistintos(k));
+        Assert.assertEquals(0, contador.getDescartados(k));
+        PalabraContada[] mayores = contador.mayores(k, m.size() + 10);
+        Assert.assertEquals(m.size(), mayores.length);
+        for (int i = 0; i < mayores.length; i++) {
+            Assert.assertEquals(m.get(mayores[i].getPalabra()).intValue(),
+                                mayores[i].getCantidad());
+            if (i > 0)
+                Assert.assertTrue(mayores[i - 1].compareTo(mayores[i]) > 0);
+        }
+    }
+
+    /**
+     * Prueba que los bigramas y trigramas empacados se cuenten igual que
+     * contando sus cadenas, con o sin diccionario de palabras.
+     */
+    @Test public void testBigramasYTrigramas() {
+        for (int l : new int[] { 0, 1, 2, 3, 5000 }) {
+            String[] texto = new String[l];
+            for (int i = 0; i < l; i++)
+                texto[i] = palabra(random.nextInt(40));
+            ContadorNGramas solo = new ContadorNGramas(3);
+            DiccionarioContador dic = new DiccionarioContador();
+            ContadorNGramas compartido = new ContadorNGramas(3, dic);
+            ContadorNGramas bigramas = new ContadorNGramas(2);
+            for (String p : texto) {
+                solo.agrega(vista(p));
+                bigramas.agrega(vista(p));
+                dic.incrementa(vista(p));
+                compartido.agrega(vista(p));
+            }
+            for (int k = 2; k <= 3; k++) {
+                valida(solo, texto, k);
+                valida(compartido, texto, k);
+            }
+            valida(bigramas, texto, 2);
+        }
+    }
+
+    /**
+     * Prueba que el diccionario regrese la misma cadena que guarda para una
+     * palabra, y que los n-gramas se cuenten al compartirla.
+     */
+    @Test public void testCadenasCompartidas() {
+        DiccionarioContador dic = new DiccionarioContador();
+        ContadorNGramas contador = new ContadorNGramas(2, dic);
+        String[] texto = { "uno", "dos", "uno", "dos" };
+        for (String p : texto) {
+            dic.incrementa(vista(p));
+            contador.agrega(vista(p));
+        }
+        String llave = dic.getLlave(vista("uno"));
+        Assert.assertEquals("uno", llave);
+        for (String p : dic)
+            if (p.equals("uno"))
+                Assert.assertSame(p, llave);
+        Assert.assertNull(dic.getLlave(vista("tres")));
+        PalabraContada[] mayores = contador.mayores(2, 1);
+        Assert.assertEquals("uno dos", mayores[0].getPalabra());
+        Assert.assertEquals(2, mayores[0].getCantidad());
+    }
+
+    /**
+     * Prueba que los trigramas con una palabra de identificador mayor a
+     * 2<sup>21</sup> - 1 se descarten, y que los bigramas sí se cuenten.
+     */
+    @Test public void testTrigramasDescartados() {
+        ContadorNGramas contador = new ContadorNGramas(3);
+        int limite = 1 << 21;
+        int extra = 5;
+        for (int i = 0; i < limite + extra; i++)
+            contador.agrega(vista(palabra(i)));
+        /* Los trigramas que terminan en las palabras limite, limite + 1,
+         * ..., limite + extra - 1 ya no caben. */
+        Assert.assertEquals(extra, contador.getDescartados(3));
+        Assert.assertEquals(limite - 2, contador.getTotal(3));
+        Assert.assertEquals(limite - 2, contador.getDistintos(3));
+        Assert.assertEquals(0, contador.getDescartados(2));
+        Assert.assertEquals(limite + extra - 1, contador.getTotal(2));
+        contador.agrega(vista(palabra(0)));
+        contador.agrega(vista(palabra(1)));
+        contador.agrega(vista(palabra(2)));
+        Assert.assertEquals(extra + 2, contador.getDescartados(3));
+        Assert.assertEquals(limite - 1, contador.getTotal(3));
+        PalabraContada[] mayores = contador.mayores(3, 1);
+        Assert.assertEquals(palabra(0) + " " + palabra(1) + " " + palabra(2),
+                            mayores[0].getPalabra());
+        Assert.assertEquals(2, mayores[0].getCantidad());
+    }
+
+    /**
+     * Prueba que un tamaño inválido lance una excepción.
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testTamanioInvalido() {
+        new ContadorNGramas(2).getTotal(3);
+    }
+}
@@ -0,0 +1,181 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioContador}.
+ */
+public class TestDiccionarioContador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El diccionario. */
+    private DiccionarioContador diccionario;
+
+    /**
+     * Crea un generador de números aleatorios y un diccionario vacío.
+     */
+    public TestDiccionarioContador() {
+        random = new Random(42);
+        diccionario = new DiccionarioContador();
+    }
+
+    /* Regresa 2^n cadenas distintas con el mismo hashCode, formadas con
+     * "Aa" y "BB", que caen todas en la misma casilla. */
+    private static List<String> colisionan(int n) {
+        List<String> l = new ArrayList<String>();
+        for (int i = 0; i < 1 << n; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < n; j++)
+                sb.append((i & (1 << j)) == 0 ? "Aa" : "BB");
+            l.add(sb.toString());
+        }
+        return l;
+    }
+
+    /* Compara el diccionario con el mapa de referencia. */
+    private void valida(Map<String, Integer> referencia) {
+        Assert.assertEquals(referencia.size(), diccionario.getElementos());
+        long total = 0;
+        for (Map.Entry<String, Integer> e : referencia.entrySet()) {
+            Assert.assertTrue(diccionario.contiene(e.getKey()));
+            Assert.assertEquals((int)e.getValue(), diccionario.get(e.getKey()));
+            total += e.getValue();
+        }
+        Assert.assertEquals(total, diccionario.getTotal());
+        int n = 0;
+        for (String llave : diccionario) {
+            Assert.assertTrue(referencia.containsKey(llave));
+            n++;
+        }
+        Assert.assertEquals(referencia.size(), n);
+    }
+
+    /**
+     * Prueba que incrementar cuente bien las palabras.
+     */
+    @Test public void testIncrementa() {
+        Map<String, Integer> referencia = new HashMap<String, Integer>();
+        for (int i = 0; i < 5000; i++) {
+            String llave = "p" + random.nextInt(700);
+            int c = diccionario.incrementa(llave);
+            referencia.merge(llave, 1, Integer::sum);
+            Assert.assertEquals((int)referencia.get(llave), c);
+        }
+        valida(referencia);
+    }
+
+    /**
+     * Prueba que eliminar de una racha de sondeo no pierda las llaves que
+     * siguen en ella, y que se puedan volver a agregar.
+     */
+    @Test public void testEliminaEnRacha() {
+        List<String> llaves = colisionan(5);
+        Map<String, Integer> referencia = new HashMap<String, Integer>();
+        for (String llave : llaves) {
+            diccionario.agrega(llave, 1 + random.nextInt(9));
+            referencia.put(llave, diccionario.get(llave));
+        }
+        valida(referencia);
+        for (int i = 0; i < llaves.size(); i += 3) {
+            diccionario.elimina(llaves.get(i));
+            referencia.remove(llaves.get(i));
+            valida(referencia);
+        }
+        for (int i = 0; i < llaves.size(); i += 3) {
+            Assert.assertFalse(diccionario.contiene(llaves.get(i)));
+            diccionario.incrementa(llaves.get(i));
+            referencia.put(llaves.get(i), 1);
+            valida(referencia);
+        }
+    }
+
+    /**
+     * Prueba eliminar y volver a agregar llaves al azar, mezclando rachas de
+     * colisiones con llaves comunes, contra un mapa de referencia.
+     */
+    @Test public void testEliminaAleatorio() {
+        List<String> llaves = colisionan(4);
+        for (int i = 0; i < 40; i++)
+            llaves.add("q" + i);
+        Map<String, Integer> referencia = new HashMap<String, Integer>();
+        for (int i = 0; i < 4000; i++) {
+            String llave = llaves.get(random.nextInt(llaves.size()));
+            if (referencia.containsKey(llave) && random.nextInt(3) == 0) {
+                diccionario.elimina(llave);
+                referencia.remove(llave);
+            } else {
+                diccionario.incrementa(llave);
+                referencia.merge(llave, 1, Integer::sum);
+            }
+            if (i % 50 == 0)
+                valida(referencia);
+        }
+        valida(referencia);
+    }
+
+    /**
+     * Prueba que dos diccionarios con las mismas cuentas, llenados en
+     * distinto orden y con distinta capacidad, sean iguales y tengan la
+     * misma dispersión.
+     */
+    @Test public void testEqualsYHashCode() {
+        DiccionarioContador otro = new DiccionarioContador(5000);
+        for (int i = 0; i < 500; i++)
+            diccionario.agrega("p" + i, 1 + i % 7);
+        for (int i = 499; i >= 0; i--)
+            otro.agrega("p" + i, 1 + i % 7);
+        Assert.assertEquals(diccionario, otro);
+        Assert.assertEquals(diccionario.hashCode(), otro.hashCode());
+        otro.incrementa("p0");
+        Assert.assertNotEquals(diccionario, otro);
+    }
+
+    /**
+     * Prueba que las cuentas se topen en {@link Integer#MAX_VALUE} en lugar
+     * de desbordarse, y que el total y las desbordadas sigan contando.
+     */
+    @Test public void testCuentasTopadas() {
+        int casi = Integer.MAX_VALUE - 2;
+        Assert.assertEquals(casi, diccionario.agrega("a", casi));
+        Assert.assertEquals(Integer.MAX_VALUE - 1, diccionario.incrementa("a"));
+        Assert.assertEquals(Integer.MAX_VALUE, diccionario.incrementa("a"));
+        Assert.assertEquals(0, diccionario.getDesbordadas());
+        Assert.assertEquals(Integer.MAX_VALUE, diccionario.incrementa("a"));
+        Assert.assertEquals(Integer.MAX_VALUE, diccionario.agrega("a", 10));
+        Assert.assertEquals(Integer.MAX_VALUE, diccionario.get("a"));
+        Assert.assertEquals(11, diccionario.getDesbordadas());
+        Assert.assertEquals((long)Integer.MAX_VALUE + 11, diccionario.getTotal());
+        DiccionarioContador otro = new DiccionarioContador();
+        otro.agrega("a", casi);
+        otro.combina(diccionario);
+        Assert.assertEquals(Integer.MAX_VALUE, otro.get("a"));
+        Assert.assertEquals(casi + 11L, otro.getDesbordadas());
+        Assert.assertEquals((long)casi + Integer.MAX_VALUE + 11,
+                            otro.getTotal());
+        diccionario.limpia();
+        Assert.assertEquals(0, diccionario.getDesbordadas());
+    }
+
+    /**
+     * Prueba que eliminar una llave que no está lance una excepción.
+     */
+    @Test(expected=NoSuchElementException.class)
+    public void testEliminaInexistente() {
+        diccionario.incrementa("a");
+        diccionario.elimina("b");
+    }
+}
@@ -0,0 +1,109 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioLargo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link DiccionarioLargo}.
+ */
+public class TestDiccionarioLargo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El diccionario. */
+    private DiccionarioLargo diccionario;
+
+    /**
+     * Crea un generador de números aleatorios y un diccionario.
+     */
+    public TestDiccionarioLargo() {
+        random = new Random(53);
+        diccionario = new DiccionarioLargo();
+    }
+
+    /* Valida el diccionario contra la referencia. */
+    private void valida(Map<Long, Integer> referencia) {
+        Assert.assertEquals(referencia.size(), diccionario.getElementos());
+        long total = 0;
+        for (Map.Entry<Long, Integer> e : referencia.entrySet()) {
+            Assert.assertEquals(e.getValue().intValue(),
+                                diccionario.get(e.getKey()));
+            total += e.getValue();
+        }
+        Assert.assertEquals(total, diccionario.getTotal());
+        int ocupadas = 0;
+        for (int i = 0; i < diccionario.getTamanioEntradas(); i++) {
+            int cuenta = diccionario.getCantidadEnIndice(i);
+            if (cuenta == 0)
+                continue;
+            ocupadas++;
+            Assert.assertEquals(referencia.get(diccionario.getLlaveEnIndice(i))
+                                .intValue(), cuenta);
+        }
+        Assert.assertEquals(referencia.size(), ocupadas);
+        Assert.assertTrue(diccionario.carga() < DiccionarioLargo.MAXIMA_CARGA);
+    }
+
+    /**
+     * Prueba que el diccionario crezca sin perder cuentas, con llaves
+     * empacadas que sólo difieren en pocos bits, negativas y el cero.
+     */
+    @Test public void testCrece() {
+        Map<Long, Integer> referencia = new HashMap<Long, Integer>();
+        int tamanio = diccionario.getTamanioEntradas();
+        for (int i = 0; i < 20000; i++) {
+            long llave = random.nextInt(4) == 0 ? -random.nextInt(100) :
+                (long)random.nextInt(3000) << 21 | random.nextInt(4);
+            int cuenta = referencia.merge(llave, 1, Integer::sum);
+            Assert.assertEquals(cuenta, diccionario.incrementa(llave));
+        }
+        Assert.assertTrue(diccionario.getTamanioEntradas() > tamanio);
+        Assert.assertEquals(0, diccionario.get(Long.MAX_VALUE));
+        valida(referencia);
+    }
+
+    /**
+     * Prueba que eliminar llaves al azar, incluidas llaves en rachas de
+     * sondeo que dan la vuelta al arreglo, no rompa las búsquedas.
+     */
+    @Test public void testElimina() {
+        Map<Long, Integer> referencia = new HashMap<Long, Integer>();
+        List<Long> llaves = new ArrayList<Long>();
+        for (int i = 0; i < 3000; i++) {
+            long llave = random.nextLong() % 500;
+            if (referencia.merge(llave, 1, Integer::sum) == 1)
+                llaves.add(llave);
+            diccionario.incrementa(llave);
+        }
+        for (int i = 0; i < 5000; i++) {
+            long llave = llaves.get(random.nextInt(llaves.size()));
+            if (random.nextInt(3) == 0) {
+                Integer cuenta = referencia.remove(llave);
+                Assert.assertEquals(cuenta == null ? 0 : cuenta.intValue(),
+                                    diccionario.elimina(llave));
+                Assert.assertEquals(0, diccionario.get(llave));
+            } else {
+                Assert.assertEquals(referencia.merge(llave, 1, Integer::sum)
+                                    .intValue(), diccionario.incrementa(llave));
+            }
+            if (i % 500 == 0)
+                valida(referencia);
+        }
+        valida(referencia);
+        for (long llave : llaves)
+            diccionario.elimina(llave);
+        Assert.assertEquals(0, diccionario.getElementos());
+        Assert.assertEquals(0, diccionario.getTotal());
+    }
+}
@@ -0,0 +1,156 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Random;
+import mx.unam.ciencias.edd.EscritorAsincrono;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link EscritorAsincrono}.
+ */
+public class TestEscritorAsincrono {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para las páginas. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El escritor. */
+    private EscritorAsincrono escritor;
+
+    /**
+     * Crea un generador de números aleatorios y un escritor.
+     */
+    public TestEscritorAsincrono() {
+        random = new Random(5);
+        escritor = new EscritorAsincrono();
+    }
+
+    /* Escribe los bytes en la página, mezclando escrituras de un byte y de
+     * pedazos de distintos tamaños. */
+    private void escribe(OutputStream pagina, byte[] bytes) throws IOException {
+        int i = 0;
+        while (i < bytes.length) {
+            if (random.nextInt(4) == 0) {
+                pagina.write(bytes[i++]);
+                continue;
+            }
+            int n = Math.min(bytes.length - i, random.nextInt(100000));
+            pagina.write(bytes, i, n);
+            i += n;
+        }
+        pagina.close();
+    }
+
+    /* Escribe una página con el número de bytes recibido y regresa sus
+     * bytes. */
+    private byte[] pagina(File destino, int n) throws IOException {
+        byte[] bytes = new byte[n];
+        random.nextBytes(bytes);
+        escribe(escritor.pagina(destino), bytes);
+        return bytes;
+    }
+
+    /**
+     * Prueba que páginas vacías, pequeñas y mayores que {@link
+     * EscritorAsincrono#DIRECTA} queden completas en sus archivos.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testPaginas() throws IOException {
+        int[] tamaños = { 0, 1, 4096, 4097, 100000,
+                          EscritorAsincrono.DIRECTA,
+                          EscritorAsincrono.DIRECTA + 1,
+                          3 * EscritorAsincrono.DIRECTA + 12345 };
+        File[] archivos = new File[tamaños.length];
+        byte[][] esperados = new byte[tamaños.length][];
+        for (int i = 0; i < tamaños.length; i++) {
+            archivos[i] = new File(carpeta.getRoot(), "p" + i + ".html");
+            esperados[i] = pagina(archivos[i], tamaños[i]);
+        }
+        escritor.cierra();
+        for (int i = 0; i < tamaños.length; i++)
+            Assert.assertArrayEquals(esperados[i],
+                                     Files.readAllBytes(archivos[i].toPath()));
+    }
+
+    /**
+     * Prueba que una página reemplace el contenido anterior de su archivo,
+     * aunque sea más corta.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testReemplaza() throws IOException {
+        File chica = carpeta.newFile();
+        File grande = carpeta.newFile();
+        Files.write(chica.toPath(), new byte[50000]);
+        Files.write(grande.toPath(), new byte[3 * EscritorAsincrono.DIRECTA]);
+        byte[] a = pagina(chica, 10);
+        byte[] b = pagina(grande, 2 * EscritorAsincrono.DIRECTA);
+        escritor.cierra();
+        Assert.assertArrayEquals(a, Files.readAllBytes(chica.toPath()));
+        Assert.assertArrayEquals(b, Files.readAllBytes(grande.toPath()));
+    }
+
+    /**
+     * Prueba que dos páginas mayores que {@link EscritorAsincrono#DIRECTA}
+     * que se escriben a la vez, por lo que sus tramos se intercalan en la
+     * cola, queden completas en sus archivos.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testPaginasIntercaladas() throws IOException {
+        File[] archivos = { carpeta.newFile(), carpeta.newFile() };
+        OutputStream[] paginas = { escritor.pagina(archivos[0]),
+                                   escritor.pagina(archivos[1]) };
+        byte[][] esperados = new byte[2][4 * EscritorAsincrono.DIRECTA + 7];
+        for (byte[] bytes : esperados)
+            random.nextBytes(bytes);
+        int n = 50000;
+        for (int i = 0; i < esperados[0].length; i += n)
+            for (int j = 0; j < 2; j++)
+                paginas[j].write(esperados[j], i,
+                                 Math.min(n, esperados[j].length - i));
+        paginas[1].close();
+        paginas[0].close();
+        escritor.cierra();
+        for (int j = 0; j < 2; j++)
+            Assert.assertArrayEquals(esperados[j],
+                                     Files.readAllBytes(archivos[j].toPath()));
+    }
+
+    /**
+     * Prueba que un error al escribir una página grande se lance al cerrar
+     * el escritor, y que no impida escribir las demás páginas.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testError() throws IOException {
+        File inexistente = new File(carpeta.getRoot(), "no/existe.html");
+        pagina(inexistente, 2 * EscritorAsincrono.DIRECTA);
+        File archivo = carpeta.newFile();
+        byte[] bytes = pagina(archivo, 1000);
+        try {
+            escritor.cierra();
+            Assert.fail();
+        } catch (IOException e) {}
+        Assert.assertFalse(inexistente.exists());
+        Assert.assertArrayEquals(bytes, Files.readAllBytes(archivo.toPath()));
+    }
+
+    /**
+     * Prueba que no se pueda escribir en una página cerrada.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test(expected=IllegalStateException.class)
+    public void testPaginaCerrada() throws IOException {
+        OutputStream pagina = escritor.pagina(carpeta.newFile());
+        pagina.close();
+        pagina.write(1);
+    }
+}
@@ -0,0 +1,146 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import mx.unam.ciencias.edd.HiperLogLog;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link HiperLogLog}.
+ */
+public class TestHiperLogLog {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para los estimadores. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestHiperLogLog() {
+        random = new Random(31);
+    }
+
+    /* Regresa los bytes con que se escribe el estimador, que incluyen todos
+     * sus registros. */
+    private byte[] bytes(HiperLogLog hll) throws IOException {
+        File archivo = carpeta.newFile();
+        hll.escribe(archivo);
+        return Files.readAllBytes(archivo.toPath());
+    }
+
+    /* Nos dice si la estimación está a lo más a 5% del valor real. */
+    private static void cerca(long real, long estimacion) {
+        Assert.assertTrue(real + " ~ " + estimacion,
+                          Math.abs(estimacion - real) <= 0.05 * real);
+    }
+
+    /**
+     * Prueba que combinar los estimadores de dos conjuntos dé exactamente
+     * el estimador de su unión.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testCombinaEsUnion() throws IOException {
+        HiperLogLog a = new HiperLogLog();
+        HiperLogLog b = new HiperLogLog();
+        HiperLogLog union = new HiperLogLog();
+        for (int i = 0; i < 30000; i++) {
+            String palabra = "p" + random.nextInt(40000);
+            if (random.nextBoolean())
+                a.agrega(palabra);
+            else
+                b.agrega(palabra);
+            union.agrega(palabra);
+        }
+        byte[] esperados = bytes(union);
+        HiperLogLog ab = a.copia();
+        ab.combina(b);
+        HiperLogLog ba = b.copia();
+        ba.combina(a);
+        Assert.assertArrayEquals(esperados, bytes(ab));
+        Assert.assertArrayEquals(esperados, bytes(ba));
+        Assert.assertEquals(union.estima(), ab.estima());
+        ab.combina(a);
+        Assert.assertArrayEquals(esperados, bytes(ab));
+        HiperLogLog vacio = new HiperLogLog();
+        vacio.combina(union);
+        Assert.assertArrayEquals(esperados, bytes(vacio));
+    }
+
+    /**
+     * Prueba que combinar no modifique el estimador recibido, y que la
+     * copia sea independiente del original.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testCombinaNoModifica() throws IOException {
+        HiperLogLog a = new HiperLogLog();
+        HiperLogLog b = new HiperLogLog();
+        for (int i = 0; i < 1000; i++) {
+            a.agrega("a" + i);
+            b.agrega("b" + i);
+        }
+        byte[] antes = bytes(b);
+        HiperLogLog c = a.copia();
+        a.combina(b);
+        Assert.assertArrayEquals(antes, bytes(b));
+        Assert.assertFalse(Arrays.equals(bytes(a), bytes(c)));
+    }
+
+    /**
+     * Prueba la estimación con pocas y con muchas palabras distintas, y que
+     * repetir palabras no la cambie.
+     */
+    @Test public void testEstima() {
+        HiperLogLog hll = new HiperLogLog();
+        Assert.assertEquals(0, hll.estima());
+        int[] cortes = { 100, 1000, 10000, 100000 };
+        int n = 0;
+        for (int corte : cortes) {
+            for (; n < corte; n++)
+                hll.agrega("palabra" + n);
+            cerca(corte, hll.estima());
+        }
+        long estimacion = hll.estima();
+        for (int i = 0; i < 5000; i++)
+            hll.agrega("palabra" + random.nextInt(n));
+        Assert.assertEquals(estimacion, hll.estima());
+    }
+
+    /**
+     * Prueba escribir y leer un estimador.
+     * @throws IOException si ocurre un error con los archivos.
+     */
+    @Test public void testEscribeLee() throws IOException {
+        HiperLogLog hll = new HiperLogLog();
+        for (int i = 0; i < 5000; i++)
+            hll.agrega("p" + i);
+        File archivo = carpeta.newFile();
+        hll.escribe(archivo);
+        HiperLogLog leido = HiperLogLog.lee(archivo);
+        Assert.assertEquals(hll.estima(), leido.estima());
+        Assert.assertArrayEquals(bytes(hll), bytes(leido));
+    }
+
+    /**
+     * Prueba que leer un archivo que no es un estimador lance una
+     * excepción.
+     * @throws IOException si el archivo no es un estimador.
+     */
+    @Test(expected=IOException.class)
+    public void testLeeInvalido() throws IOException {
+        File archivo = carpeta.newFile();
+        Files.write(archivo.toPath(), new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        HiperLogLog.lee(archivo);
+    }
+}
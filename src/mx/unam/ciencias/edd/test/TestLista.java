@@ -0,0 +1,124 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+import mx.unam.ciencias.edd.IteradorLista;
+import mx.unam.ciencias.edd.Lista;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias del ordenamiento de la clase {@link Lista}.
+ */
+public class TestLista {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Compara los elementos sólo por su llave, para que haya empates. */
+    private static final Comparator<int[]> POR_LLAVE =
+        (a, b) -> Integer.compare(a[0], b[0]);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestLista() {
+        random = new Random(11);
+    }
+
+    /* Regresa una lista con las llaves recibidas; cada elemento lleva
+     * también su posición original. */
+    private static Lista<int[]> lista(int[] llaves) {
+        Lista<int[]> lista = new Lista<int[]>();
+        for (int i = 0; i < llaves.length; i++)
+            lista.agrega(new int[] { llaves[i], i });
+        return lista;
+    }
+
+    /* Revisa que la lista esté ordenada por llave, que los empates
+     * conserven su orden original, y que se pueda recorrer igual en las dos
+     * direcciones. */
+    private static void valida(Lista<int[]> lista, int n) {
+        Assert.assertEquals(n, lista.getLongitud());
+        int[][] elementos = new int[n][];
+        int i = 0;
+        for (int[] e : lista)
+            elementos[i++] = e;
+        Assert.assertEquals(n, i);
+        boolean[] visto = new boolean[n];
+        for (i = 0; i < n; i++) {
+            Assert.assertFalse(visto[elementos[i][1]]);
+            visto[elementos[i][1]] = true;
+            if (i == 0)
+                continue;
+            int[] a = elementos[i - 1];
+            int[] b = elementos[i];
+            Assert.assertTrue(a[0] <= b[0]);
+            if (a[0] == b[0])
+                Assert.assertTrue("Ordenamiento inestable", a[1] < b[1]);
+        }
+        IteradorLista<int[]> iterador = lista.iteradorLista();
+        iterador.end();
+        for (i = n - 1; i >= 0; i--)
+            Assert.assertSame(elementos[i], iterador.previous());
+        Assert.assertFalse(iterador.hasPrevious());
+        if (n > 0) {
+            Assert.assertSame(elementos[0], lista.getPrimero());
+            Assert.assertSame(elementos[n - 1], lista.getUltimo());
+        }
+    }
+
+    /* Regresa llaves con distintos patrones. */
+    private int[][] patrones(int n) {
+        int[] azar = new int[n];
+        int[] pocas = new int[n];
+        int[] creciente = new int[n];
+        int[] decreciente = new int[n];
+        int[] sierra = new int[n];
+        int[] iguales = new int[n];
+        for (int i = 0; i < n; i++) {
+            azar[i] = random.nextInt();
+            pocas[i] = random.nextInt(4);
+            creciente[i] = i / 3;
+            decreciente[i] = (n - i) / 3;
+            sierra[i] = i % 7;
+        }
+        return new int[][] { azar, pocas, creciente, decreciente, sierra,
+                             iguales };
+    }
+
+    /**
+     * Prueba que {@link Lista#ordena} sea estable y deje bien ligados los
+     * nodos.
+     */
+    @Test public void testOrdenaEsEstable() {
+        int[] tamaños = { 0, 1, 2, 3, 10, 100, 1000, 5000 };
+        for (int n : tamaños) {
+            for (int[] llaves : patrones(n)) {
+                Lista<int[]> lista = lista(llaves);
+                lista.ordena(POR_LLAVE);
+                valida(lista, n);
+            }
+        }
+    }
+
+    /**
+     * Prueba que {@link Lista#mergeSort} sea estable y no modifique la
+     * lista original.
+     */
+    @Test public void testMergeSortEsEstable() {
+        for (int[] llaves : patrones(1000)) {
+            Lista<int[]> lista = lista(llaves);
+            valida(lista.mergeSort(POR_LLAVE), llaves.length);
+            Iterator<int[]> iterador = lista.iterator();
+            for (int i = 0; i < llaves.length; i++)
+                Assert.assertEquals(i, iterador.next()[1]);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.ExcepcionIndiceInvalido;
+import mx.unam.ciencias.edd.IteradorLista;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.ListaArreglo;
+import mx.unam.ciencias.edd.Secuencia;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ListaArreglo}. Cada prueba
+ * hace las mismas operaciones sobre una {@link Lista} y revisa que las dos
+ * secuencias queden iguales.
+ */
+public class TestListaArreglo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Compara los elementos sólo por sus decenas, para que haya empates. */
+    private static final Comparator<Integer> POR_DECENAS =
+        (a, b) -> Integer.compare(a / 10, b / 10);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La lista de referencia. */
+    private Lista<Integer> lista;
+    /* La lista sobre un arreglo. */
+    private ListaArreglo<Integer> arreglo;
+
+    /**
+     * Crea un generador de números aleatorios y las dos listas.
+     */
+    public TestListaArreglo() {
+        random = new Random(59);
+        lista = new Lista<Integer>();
+        arreglo = new ListaArreglo<Integer>(4);
+    }
+
+    /* Revisa que las dos secuencias tengan los mismos elementos en el mismo
+     * orden, por índice y con sus iteradores en las dos direcciones. */
+    private static void valida(Secuencia<Integer> esperada,
+                               Secuencia<Integer> secuencia) {
+        int n = esperada.getLongitud();
+        Assert.assertEquals(n, secuencia.getLongitud());
+        Assert.assertEquals(n, secuencia.getElementos());
+        Assert.assertEquals(n == 0, secuencia.esVacia());
+        IteradorLista<Integer> e = esperada.iteradorLista();
+        IteradorLista<Integer> i = secuencia.iteradorLista();
+        int k = 0;
+        while (e.hasNext()) {
+            Assert.assertTrue(i.hasNext());
+            Integer x = e.next();
+            Assert.assertEquals(x, i.next());
+            Assert.assertEquals(x, secuencia.get(k++));
+        }
+        Assert.assertFalse(i.hasNext());
+        e.end();
+        i.end();
+        while (e.hasPrevious()) {
+            Assert.assertTrue(i.hasPrevious());
+            Assert.assertEquals(e.previous(), i.previous());
+        }
+        Assert.assertFalse(i.hasPrevious());
+        if (n > 0) {
+            Assert.assertEquals(esperada.getPrimero(), secuencia.getPrimero());
+            Assert.assertEquals(esperada.getUltimo(), secuencia.getUltimo());
+        }
+    }
+
+    /* Hace una operación al azar en las dos listas. */
+    private void opera(int maximo) {
+        Integer x = random.nextInt(maximo);
+        int n = lista.getLongitud();
+        switch (random.nextInt(7)) {
+        case 0:
+            lista.agregaFinal(x);
+            arreglo.agregaFinal(x);
+            break;
+        case 1:
+            lista.agregaInicio(x);
+            arreglo.agregaInicio(x);
+            break;
+        case 2:
+            int i = random.nextInt(n + 5) - 2;
+            lista.inserta(i, x);
+            arreglo.inserta(i, x);
+            break;
+        case 3:
+            lista.agrega(x);
+            arreglo.agrega(x);
+            break;
+        case 4:
+            if (n > 0)
+                Assert.assertEquals(lista.eliminaPrimero(),
+                                    arreglo.eliminaPrimero());
+            break;
+        case 5:
+            if (n > 0)
+                Assert.assertEquals(lista.eliminaUltimo(),
+                                    arreglo.eliminaUltimo());
+            break;
+        default:
+            lista.elimina(x);
+            arreglo.elimina(x);
+        }
+    }
+
+    /**
+     * Prueba que agregar, insertar y eliminar al azar, en los extremos y en
+     * medio, deje a las dos listas iguales, incluyendo el índice de cada
+     * elemento cuando está repetido.
+     */
+    @Test public void testOperaciones() {
+        int maximo = 30;
+        for (int k = 0; k < 5000; k++) {
+            opera(maximo);
+            if (k % 50 != 0)
+                continue;
+            valida(lista, arreglo);
+            for (int x = 0; x <= maximo; x++) {
+                Assert.assertEquals(lista.indiceDe(x), arreglo.indiceDe(x));
+                Assert.assertEquals(lista.contiene(x), arreglo.contiene(x));
+            }
+        }
+        valida(lista, arreglo);
+        lista.limpia();
+        arreglo.limpia();
+        valida(lista, arreglo);
+    }
+
+    /**
+     * Prueba que el arreglo crezca sin perder el orden cuando la cabeza no
+     * está en la posición cero, y cuando los elementos dan la vuelta al
+     * arreglo.
+     */
+    @Test public void testCrecimientoCircular() {
+        for (int vueltas = 1; vueltas < 40; vueltas++) {
+            lista.limpia();
+            arreglo = new ListaArreglo<Integer>(4);
+            for (int k = 0; k < vueltas; k++) {
+                lista.agregaFinal(k);
+                arreglo.agregaFinal(k);
+                lista.eliminaPrimero();
+                arreglo.eliminaPrimero();
+            }
+            for (int k = 0; k < 3 * vueltas; k++) {
+                if (k % 3 == 0) {
+                    lista.agregaInicio(-k);
+                    arreglo.agregaInicio(-k);
+                } else {
+                    lista.agregaFinal(k);
+                    arreglo.agregaFinal(k);
+                }
+                valida(lista, arreglo);
+            }
+            lista.inserta(vueltas, 1000);
+            arreglo.inserta(vueltas, 1000);
+            valida(lista, arreglo);
+        }
+    }
+
+    /**
+     * Prueba que la reversa, la copia y el ordenamiento den lo mismo que en
+     * la lista, sin modificar la lista original; el ordenamiento tiene que
+     * ser estable.
+     */
+    @Test public void testReversaCopiaYOrden() {
+        for (int n : new int[] { 0, 1, 2, 17, 500 }) {
+            lista.limpia();
+            arreglo = new ListaArreglo<Integer>(1);
+            for (int k = 0; k < n; k++) {
+                Integer x = random.nextInt(100);
+                if (random.nextBoolean()) {
+                    lista.agregaInicio(x);
+                    arreglo.agregaInicio(x);
+                } else {
+                    lista.agregaFinal(x);
+                    arreglo.agregaFinal(x);
+                }
+            }
+            valida(lista.reversa(), arreglo.reversa());
+            valida(lista.copia(), arreglo.copia());
+            valida(lista.mergeSort(POR_DECENAS),
+                   arreglo.mergeSort(POR_DECENAS));
+            valida(Lista.mergeSort(lista), ListaArreglo.mergeSort(arreglo));
+            valida(lista, arreglo);
+            ListaArreglo<Integer> copia = arreglo.copia();
+            copia.agregaInicio(-1);
+            Assert.assertEquals(n, arreglo.getLongitud());
+        }
+    }
+
+    /**
+     * Prueba que eliminar un elemento repetido elimine su primera aparición,
+     * aunque también esté al final.
+     */
+    @Test public void testEliminaPrimeraAparicion() {
+        int[][] casos = { { 1, 2, 1 }, { 2, 1, 3, 1 }, { 1, 1 }, { 3, 1 } };
+        int[][] esperados = { { 2, 1 }, { 2, 3, 1 }, { 1 }, { 3 } };
+        for (int c = 0; c < casos.length; c++) {
+            lista.limpia();
+            arreglo.limpia();
+            for (int x : casos[c]) {
+                lista.agregaFinal(x);
+                arreglo.agregaFinal(x);
+            }
+            lista.elimina(1);
+            arreglo.elimina(1);
+            valida(lista, arreglo);
+            Assert.assertEquals(esperados[c].length, arreglo.getLongitud());
+            for (int i = 0; i < esperados[c].length; i++)
+                Assert.assertEquals(esperados[c][i], arreglo.get(i).intValue());
+        }
+    }
+
+    /**
+     * Prueba que un índice inválido lance una excepción.
+     */
+    @Test(expected=ExcepcionIndiceInvalido.class)
+    public void testIndiceInvalido() {
+        arreglo.agrega(1);
+        arreglo.get(1);
+    }
+
+    /**
+     * Prueba que eliminar de una lista vacía lance una excepción.
+     */
+    @Test(expected=NoSuchElementException.class)
+    public void testEliminaVacia() {
+        arreglo.agrega(1);
+        arreglo.eliminaUltimo();
+        arreglo.eliminaPrimero();
+    }
+}
@@ -0,0 +1,175 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.Indexable;
+import mx.unam.ciencias.edd.Lista;
+import mx.unam.ciencias.edd.MonticuloMinimo;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link MonticuloMinimo}.
+ */
+public class TestMonticuloMinimo {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El número total de elementos. */
+    private int total;
+    /* El montículo mínimo. */
+    private MonticuloMinimo<Indexable<Integer>> monticulo;
+
+    /**
+     * Crea un generador de números aleatorios y un montículo.
+     */
+    public TestMonticuloMinimo() {
+        random = new Random(23);
+        total = 50 + random.nextInt(100);
+        monticulo = new MonticuloMinimo<Indexable<Integer>>();
+    }
+
+    /* Crea un indexable con un valor aleatorio, con repeticiones. */
+    private Indexable<Integer> indexable(int elemento) {
+        return new Indexable<Integer>(elemento, random.nextInt(total / 2));
+    }
+
+    /* Valida que cada elemento sea mayor o igual que su padre y que su
+     * índice sea su posición en el arreglo. */
+    private static void valida(MonticuloMinimo<Indexable<Integer>> monticulo) {
+        for (int i = 0; i < monticulo.getElementos(); i++) {
+            Indexable<Integer> e = monticulo.get(i);
+            Assert.assertEquals(i, e.getIndice());
+            Assert.assertTrue(monticulo.contiene(e));
+            if (i > 0)
+                Assert.assertTrue(monticulo.get((i - 1) / 2).compareTo(e) <= 0);
+        }
+    }
+
+    /* Vacía el montículo, validando que los elementos salgan en orden. */
+    private void vaciaEnOrden() {
+        double anterior = Double.NEGATIVE_INFINITY;
+        while (!monticulo.esVacia()) {
+            Indexable<Integer> minimo = monticulo.elimina();
+            Assert.assertTrue(anterior <= minimo.getValor());
+            Assert.assertFalse(monticulo.contiene(minimo));
+            anterior = minimo.getValor();
+            valida(monticulo);
+        }
+        Assert.assertEquals(0, monticulo.getElementos());
+    }
+
+    /**
+     * Prueba que agregar elementos uno por uno mantenga la propiedad de
+     * montículo, y que se eliminen en orden.
+     */
+    @Test public void testAgregaElimina() {
+        for (int i = 0; i < total; i++) {
+            monticulo.agrega(indexable(i));
+            Assert.assertEquals(i + 1, monticulo.getElementos());
+            valida(monticulo);
+        }
+        vaciaEnOrden();
+    }
+
+    /**
+     * Prueba que construir el montículo con todos sus elementos de antemano
+     * deje la propiedad de montículo.
+     */
+    @Test public void testConstructorColeccion() {
+        Lista<Indexable<Integer>> lista = new Lista<Indexable<Integer>>();
+        for (int i = 0; i < total; i++)
+            lista.agrega(indexable(i));
+        monticulo = new MonticuloMinimo<Indexable<Integer>>(lista);
+        Assert.assertEquals(total, monticulo.getElementos());
+        valida(monticulo);
+        for (Indexable<Integer> e : lista)
+            Assert.assertTrue(monticulo.contiene(e));
+        vaciaEnOrden();
+    }
+
+    /**
+     * Prueba que reordenar elementos después de disminuir o aumentar su
+     * valor mantenga la propiedad de montículo.
+     */
+    @Test public void testReordena() {
+        Lista<Indexable<Integer>> lista = new Lista<Indexable<Integer>>();
+        for (int i = 0; i < total; i++) {
+            Indexable<Integer> e = indexable(i);
+            lista.agrega(e);
+            monticulo.agrega(e);
+        }
+        for (int i = 0; i < 5 * total; i++) {
+            Indexable<Integer> e = lista.get(random.nextInt(total));
+            double valor = e.getValor();
+            e.setValor(random.nextBoolean() ? valor - random.nextInt(total) :
+                       valor + random.nextInt(total));
+            monticulo.reordena(e);
+            valida(monticulo);
+        }
+        vaciaEnOrden();
+    }
+
+    /**
+     * Prueba que eliminar elementos arbitrarios mantenga la propiedad de
+     * montículo, y que eliminar uno que no está no haga nada.
+     */
+    @Test public void testEliminaElemento() {
+        Lista<Indexable<Integer>> lista = new Lista<Indexable<Integer>>();
+        for (int i = 0; i < total; i++) {
+            Indexable<Integer> e = indexable(i);
+            lista.agrega(e);
+            monticulo.agrega(e);
+        }
+        Indexable<Integer> ajeno = indexable(-1);
+        monticulo.elimina(ajeno);
+        Assert.assertEquals(total, monticulo.getElementos());
+        int n = total;
+        while (!lista.esVacia()) {
+            Indexable<Integer> e = lista.get(random.nextInt(lista.getLongitud()));
+            lista.elimina(e);
+            monticulo.elimina(e);
+            Assert.assertEquals(--n, monticulo.getElementos());
+            Assert.assertFalse(monticulo.contiene(e));
+            Assert.assertEquals(-1, e.getIndice());
+            valida(monticulo);
+        }
+    }
+
+    /**
+     * Prueba que eliminar el mínimo de un montículo vacío lance una
+     * excepción.
+     */
+    @Test(expected=IllegalStateException.class)
+    public void testEliminaVacio() {
+        monticulo.elimina();
+    }
+
+    /**
+     * Prueba que pedir un índice inválido lance una excepción.
+     */
+    @Test(expected=NoSuchElementException.class)
+    public void testGetInvalido() {
+        monticulo.agrega(indexable(0));
+        monticulo.get(1);
+    }
+
+    /**
+     * Prueba que HeapSort ordene una lista con repeticiones igual que
+     * MergeSort.
+     */
+    @Test public void testHeapSort() {
+        Lista<Integer> lista = new Lista<Integer>();
+        for (int i = 0; i < total; i++)
+            lista.agrega(random.nextInt(total / 2));
+        Lista<Integer> ordenada = MonticuloMinimo.heapSort(lista);
+        Assert.assertEquals(Lista.mergeSort(lista), ordenada);
+        Assert.assertEquals(total, lista.getLongitud());
+        Assert.assertTrue(MonticuloMinimo.heapSort(new Lista<Integer>()).esVacia());
+    }
+}
@@ -0,0 +1,136 @@
+package mx.unam.ciencias.edd.test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import mx.unam.ciencias.edd.ResumenAhorroEspacio;
+import mx.unam.ciencias.edd.VistaPalabra;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link ResumenAhorroEspacio}.
+ */
+public class TestResumenAhorroEspacio {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* La vista con la que se cuentan las palabras. */
+    private VistaPalabra vista;
+
+    /**
+     * Crea un generador de números aleatorios y una vista.
+     */
+    public TestResumenAhorroEspacio() {
+        random = new Random(23);
+        vista = new VistaPalabra();
+    }
+
+    /* Cuenta una palabra en el resumen y en el mapa de referencia. */
+    private void cuenta(ResumenAhorroEspacio resumen,
+                        Map<String, Integer> referencia, String palabra) {
+        vista.limpia();
+        for (int i = 0; i < palabra.length(); i++)
+            vista.agrega(palabra.charAt(i));
+        resumen.incrementa(vista);
+        referencia.merge(palabra, 1, Integer::sum);
+    }
+
+    /* Revisa las cotas del resumen contra las cuentas reales. */
+    private void valida(ResumenAhorroEspacio resumen, int capacidad,
+                        Map<String, Integer> referencia) {
+        long n = 0;
+        for (int c : referencia.values())
+            n += c;
+        Assert.assertEquals(n, resumen.getTotal());
+        Assert.assertEquals(Math.min(capacidad, referencia.size()),
+                            resumen.getElementos());
+        Set<String> vigiladas = new HashSet<String>();
+        long suma = 0;
+        for (int i = 0; i < resumen.getElementos(); i++) {
+            String palabra = resumen.getPalabra(i);
+            Assert.assertTrue(palabra, vigiladas.add(palabra));
+            Assert.assertEquals(palabra.hashCode(), resumen.getDispersion(i));
+            int real = referencia.get(palabra);
+            int cuenta = resumen.getCuenta(i);
+            int error = resumen.getError(i);
+            Assert.assertTrue(palabra, real <= cuenta);
+            Assert.assertTrue(palabra, cuenta - error <= real);
+            Assert.assertTrue(palabra, error >= 0 && error <= n / capacidad);
+            suma += cuenta;
+        }
+        Assert.assertEquals(n, suma);
+        for (Map.Entry<String, Integer> e : referencia.entrySet())
+            if (e.getValue() > n / capacidad)
+                Assert.assertTrue(e.getKey(), vigiladas.contains(e.getKey()));
+    }
+
+    /**
+     * Prueba un resumen con menos palabras distintas que contadores, donde
+     * las cuentas son exactas.
+     */
+    @Test public void testExacto() {
+        ResumenAhorroEspacio resumen = new ResumenAhorroEspacio(50);
+        Map<String, Integer> referencia = new HashMap<String, Integer>();
+        for (int i = 0; i < 1000; i++)
+            cuenta(resumen, referencia, "p" + random.nextInt(40));
+        valida(resumen, 50, referencia);
+        for (int i = 0; i < resumen.getElementos(); i++) {
+            Assert.assertEquals(0, resumen.getError(i));
+            Assert.assertEquals((int)referencia.get(resumen.getPalabra(i)),
+                                resumen.getCuenta(i));
+        }
+    }
+
+    /**
+     * Prueba las cotas del error con muchas más palabras distintas que
+     * contadores, con frecuencias sesgadas como las de un texto.
+     */
+    @Test public void testCotas() {
+        int[] capacidades = { 1, 2, 7, 64 };
+        for (int capacidad : capacidades) {
+            ResumenAhorroEspacio resumen = new ResumenAhorroEspacio(capacidad);
+            Map<String, Integer> referencia = new HashMap<String, Integer>();
+            for (int i = 1; i <= 20000; i++) {
+                int r = (int)(1000 * Math.pow(random.nextDouble(), 3));
+                cuenta(resumen, referencia, "p" + r);
+                if (i % 2500 == 0)
+                    valida(resumen, capacidad, referencia);
+            }
+        }
+    }
+
+    /**
+     * Prueba las cotas del error con palabras que colisionan en la tabla
+     * de dispersión, para que reemplazar contadores recorra rachas de
+     * sondeo.
+     */
+    @Test public void testColisiones() {
+        String[] bloques = { "Aa", "BB" };
+        ResumenAhorroEspacio resumen = new ResumenAhorroEspacio(8);
+        Map<String, Integer> referencia = new HashMap<String, Integer>();
+        for (int i = 0; i < 5000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int r = random.nextInt(64) & random.nextInt(64);
+            for (int j = 0; j < 6; j++)
+                sb.append(bloques[(r >> j) & 1]);
+            cuenta(resumen, referencia, sb.toString());
+        }
+        valida(resumen, 8, referencia);
+    }
+
+    /**
+     * Prueba que no se pueda crear un resumen sin contadores.
+     */
+    @Test(expected=IllegalArgumentException.class)
+    public void testCapacidadInvalida() {
+        new ResumenAhorroEspacio(0);
+    }
+}
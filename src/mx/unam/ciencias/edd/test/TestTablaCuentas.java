@@ -0,0 +1,136 @@
+package mx.unam.ciencias.edd.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import mx.unam.ciencias.edd.DiccionarioContador;
+import mx.unam.ciencias.edd.TablaCuentas;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link TablaCuentas}.
+ */
+public class TestTablaCuentas {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+    /** Directorio temporal para las tablas. */
+    @Rule public TemporaryFolder carpeta = new TemporaryFolder();
+
+    /* Generador de números aleatorios. */
+    private Random random;
+    /* El diccionario. */
+    private DiccionarioContador diccionario;
+
+    /**
+     * Crea un generador de números aleatorios y un diccionario vacío.
+     */
+    public TestTablaCuentas() {
+        random = new Random(17);
+        diccionario = new DiccionarioContador();
+    }
+
+    /* Escribe el diccionario en una tabla y la abre. */
+    private TablaCuentas escribeYAbre() throws IOException {
+        File archivo = carpeta.newFile();
+        TablaCuentas.escribe(diccionario, archivo);
+        return new TablaCuentas(archivo);
+    }
+
+    /* Compara la tabla con el diccionario. */
+    private void valida(TablaCuentas tabla) {
+        Assert.assertEquals(diccionario.getTotal(), tabla.getTotal());
+        Assert.assertEquals(diccionario.getElementos(), tabla.getElementos());
+        for (String palabra : diccionario) {
+            Assert.assertTrue(palabra, tabla.contiene(palabra));
+            Assert.assertEquals(palabra, diccionario.get(palabra),
+                                tabla.get(palabra));
+        }
+        DiccionarioContador cargado = tabla.carga();
+        Assert.assertEquals(diccionario.getElementos(), cargado.getElementos());
+        for (String palabra : diccionario)
+            Assert.assertEquals(diccionario.get(palabra), cargado.get(palabra));
+    }
+
+    /**
+     * Prueba una tabla vacía.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testVacia() throws IOException {
+        try (TablaCuentas tabla = escribeYAbre()) {
+            valida(tabla);
+            Assert.assertFalse(tabla.contiene("a"));
+            Assert.assertFalse(tabla.contiene(""));
+        }
+    }
+
+    /**
+     * Prueba que una tabla con muchos bloques, prefijos compartidos,
+     * palabras con acentos y cuentas grandes se lea igual que el diccionario
+     * con que se escribió.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testIdaYVuelta() throws IOException {
+        String[] prefijos = { "", "a", "ab", "abc", "ñ", "ére", "中文", "z" };
+        for (int i = 0; i < 2000; i++) {
+            String palabra = prefijos[random.nextInt(prefijos.length)] +
+                Integer.toString(random.nextInt(5000), 36);
+            int cuenta = random.nextInt(4) == 0 ? 1 + random.nextInt(1 << 20)
+                : 1 + random.nextInt(3);
+            diccionario.agrega(palabra, cuenta);
+        }
+        try (TablaCuentas tabla = escribeYAbre()) {
+            valida(tabla);
+            Assert.assertFalse(tabla.contiene(""));
+            Assert.assertFalse(tabla.contiene("!"));
+            Assert.assertFalse(tabla.contiene("ab_"));
+            Assert.assertFalse(tabla.contiene("\uffff"));
+        }
+    }
+
+    /**
+     * Prueba que las cuentas de la tabla se sumen a un diccionario que ya
+     * tiene palabras.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test public void testSumaA() throws IOException {
+        for (int i = 0; i < 100; i++)
+            diccionario.agrega("p" + i, i + 1);
+        DiccionarioContador otro = new DiccionarioContador();
+        otro.agrega("p0", 5);
+        otro.agrega("q", 2);
+        try (TablaCuentas tabla = escribeYAbre()) {
+            tabla.sumaA(otro);
+        }
+        Assert.assertEquals(101, otro.getElementos());
+        Assert.assertEquals(6, otro.get("p0"));
+        Assert.assertEquals(2, otro.get("q"));
+        Assert.assertEquals(100, otro.get("p99"));
+    }
+
+    /**
+     * Prueba que buscar una palabra que no está lance una excepción.
+     * @throws IOException si ocurre un error con el archivo.
+     */
+    @Test(expected=NoSuchElementException.class)
+    public void testGetInexistente() throws IOException {
+        diccionario.incrementa("a");
+        try (TablaCuentas tabla = escribeYAbre()) {
+            tabla.get("b");
+        }
+    }
+
+    /**
+     * Prueba que abrir un archivo que no es una tabla lance una excepción.
+     * @throws IOException si el archivo no es una tabla de cuentas.
+     */
+    @Test(expected=IOException.class)
+    public void testArchivoInvalido() throws IOException {
+        new TablaCuentas(carpeta.newFile()).close();
+    }
+}
@@ -0,0 +1,221 @@
+package mx.unam.ciencias.edd.test;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import mx.unam.ciencias.edd.Tokenizador;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Clase para pruebas unitarias de la clase {@link Tokenizador}. Las palabras
+ * se comparan con las que da normalizar cada línea del texto con NFD,
+ * quitarle las marcas diacríticas, pasarla a minúsculas con {@link
+ * String#toLowerCase} y partirla en lo que no es letra.
+ */
+public class TestTokenizador {
+
+    /** Expiración para que ninguna prueba tarde más de 5 segundos. */
+    @Rule public Timeout expiracion = Timeout.seconds(5);
+
+    /* Generador de números aleatorios. */
+    private Random random;
+
+    /**
+     * Crea un generador de números aleatorios.
+     */
+    public TestTokenizador() {
+        random = new Random(7);
+    }
+
+    /* Regresa las palabras del texto según toLowerCase, línea por línea. */
+    private static List<String> referencia(String texto) {
+        List<String> l = new ArrayList<String>();
+        for (String linea : texto.split("\r\n|\r|\n")) {
+            String s = Normalizer.normalize(linea, Normalizer.Form.NFD);
+            s = s.replaceAll("[\\u0300-\\u036f]", "").toLowerCase(Locale.ROOT);
+            for (String p : s.split("\\P{L}+"))
+                if (!p.isEmpty())
+                    l.add(p);
+        }
+        return l;
+    }
+
+    /* Regresa las palabras del texto según el tokenizador, dándole el texto
+     * en pedazos del tamaño recibido. */
+    private static List<String> tokeniza(String texto, int pedazo) {
+        List<String> l = new ArrayList<String>();
+        Tokenizador t = new Tokenizador(p -> l.add(p.toString()));
+        char[] a = texto.toCharArray();
+        for (int i = 0; i < a.length; i += pedazo)
+            t.tokeniza(a, i, Math.min(a.length, i + pedazo));
+        t.termina();
+        return l;
+    }
+
+    /* Compara el tokenizador con la referencia, con el texto completo, en
+     * pedazos de un carácter y en pedazos de tamaño aleatorio. */
+    private void valida(String texto) {
+        List<String> r = referencia(texto);
+        Assert.assertEquals(texto, r, tokeniza(texto, Integer.MAX_VALUE));
+        Assert.assertEquals(texto, r, tokeniza(texto, 1));
+        Assert.assertEquals(texto, r, tokeniza(texto, 1 + random.nextInt(8)));
+        List<String> l = new ArrayList<String>();
+        Tokenizador t = new Tokenizador(p -> l.add(p.toString()));
+        t.tokeniza(texto);
+        t.termina();
+        Assert.assertEquals(texto, r, l);
+    }
+
+    /**
+     * Prueba texto común, con acentos y mayúsculas.
+     */
+    @Test public void testTextoComun() {
+        valida("¿Qué tal? Él comió PIÑA, açaí y crème brûlée.");
+        valida("  ");
+        valida("");
+    }
+
+    /**
+     * Prueba la sigma final al terminar el texto.
+     */
+    @Test public void testSigmaAlFinalDelTexto() {
+        valida("ΟΔΥΣΣΕΥΣ");
+        valida("ΟΔΥΣΣΕΥΣ ΟΔΥΣΣΕΥΣ");
+        valida("Σ");
+        valida("ΑΣ");
+        valida("ΑΣΣ");
+    }
+
+    /**
+     * Prueba la sigma seguida de letras sin mayúsculas ni minúsculas.
+     */
+    @Test public void testSigmaAntesDeLetrasSinCaso() {
+        valida("ΑΣ中");
+        valida("ΑΣ中Α");
+        valida("ΑΣあ");
+        valida("ΑΣア");
+        valida("ΑΣא");
+        valida("ΑΣאΑ");
+        valida("ΑΣאא");
+        valida("ΑΣאא σ");
+        valida("ΑΣאα");
+        valida("ΑΣกΑ");
+        valida("中Σ");
+        valida("Α中Σ");
+        valida("אΣ");
+        valida("ΑאΣ");
+        valida("ΑאΣא");
+    }
+
+    /**
+     * Prueba la sigma seguida de signos que pueden continuar la palabra.
+     */
+    @Test public void testSigmaAntesDeSignos() {
+        valida("ΟΔΥΣΣΕΥΣ.");
+        valida("ΑΣ'Α");
+        valida("ΑΣ' Α");
+        valida("ΑΣ1Α");
+        valida("ΑΣ1,2Α");
+        valida("ΑΣ1,Α");
+        valida("ΑΣ1");
+        valida("ΑΣ-");
+        valida("ΑΣ'中");
+    }
+
+    /**
+     * Prueba la sigma al inicio de letras que continúan la palabra anterior
+     * tras un apóstrofo o dígitos.
+     */
+    @Test public void testSigmaTrasSignos() {
+        valida("Α'Σ");
+        valida("Α1Σ");
+        valida("Α1,2Σ");
+        valida("Α1,Σ");
+        valida("Α''Σ");
+        valida("Α' Σ");
+        valida("Α'Σ'Α");
+        valida("Α'אΣ");
+        valida("中'Σ");
+        valida("ΑΣ'Σ");
+    }
+
+    /**
+     * Prueba la sigma junto a caracteres de formato, que no separan palabras
+     * para {@link String#toLowerCase}, y junto a letras fuera del plano
+     * básico.
+     */
+    @Test public void testSigmaJuntoAFormatosYSuplementarios() {
+        valida("ωΣ\u00adb");
+        valida("ΑΣ\u200dα");
+        valida("\ud801\udc28Σ");
+        valida("a \ud801\udc28Σ");
+        valida("\r\ud801\udc001Σ");
+        valida("ZΣ1א");
+        valida("Α\ud801Σ");
+    }
+
+    /**
+     * Prueba que cada línea se resuelva por separado, y que las palabras
+     * que siguen a una sigma se entreguen en orden.
+     */
+    @Test public void testLineas() {
+        valida("ΑΣ\nα");
+        valida("ΑΣ\r\nα uno ΑΣ dos\rΣ tres");
+        valida("uno ΑΣ dos tres\n\ncuatro");
+    }
+
+    /**
+     * Prueba textos aleatorios con letras griegas, hebreas, ideogramas, kana
+     * y letras fuera del plano básico, signos que unen palabras, caracteres
+     * de formato, marcas, espacios de varios tipos y saltos de línea.
+     */
+    @Test public void testAleatorio() {
+        String[] piezas = { "Α", "Σ", "σ", "α", "ΣΑ", "א", "中", "あ", "ก",
+                            "É", "e\u0301", "'", "1", ",", ".", "-", "\u00ad",
+                            "\u200d", "\u0483", "\ud801\udc28",
+                            "\ud801\udc00", "\ud835\udc00", "\ud83d\ude00",
+                            "\u24b6", "\u02b0", "\ud801", " ", "\u3000",
+                            "\n", "\r\n", "\r" };
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int n = random.nextInt(16);
+            for (int j = 0; j < n; j++)
+                sb.append(piezas[random.nextInt(piezas.length)]);
+            valida(sb.toString());
+        }
+    }
+
+    /**
+     * Prueba líneas más largas que {@link Tokenizador#LIMITE}, que se
+     * resuelven por pedazos, con y sin espacios en blanco.
+     */
+    @Test public void testLineasLargas() {
+        String[] conBlancos = { "ΑΣ", "Σ", "α", "\ud801\udc28", "1", "'",
+                                " ", "\u00a0" };
+        String[] sinBlancos = { "ΑΣ", "Σ", "α", "中", "!", "," };
+        for (String[] piezas : new String[][] { conBlancos, sinBlancos }) {
+            StringBuilder sb = new StringBuilder();
+            while (sb.length() < 3 * Tokenizador.LIMITE)
+                sb.append(piezas[random.nextInt(piezas.length)]);
+            String texto = sb.toString();
+            List<String> r = referencia(texto);
+            Assert.assertEquals(r, tokeniza(texto, Integer.MAX_VALUE));
+            Assert.assertEquals(r, tokeniza(texto, 4096));
+        }
+    }
+
+    /**
+     * Prueba qué caracteres son espacios en blanco.
+     */
+    @Test public void testEsBlanco() {
+        for (char c : " \t\n\r\f\u00a0\u2003\u3000\u2028".toCharArray())
+            Assert.assertTrue(Tokenizador.esBlanco(c));
+        for (char c : "a,'1\u00ad\u200dΣ".toCharArray())
+            Assert.assertFalse(Tokenizador.esBlanco(c));
+    }
+}